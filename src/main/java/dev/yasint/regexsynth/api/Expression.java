@@ -1,5 +1,6 @@
 package dev.yasint.regexsynth.api;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -18,12 +19,40 @@ public interface Expression {
      * The implementing class can control what should be in the
      * regex by simply wrapping it in a object or a higher-order
      * function.
+     * <p>
+     * Every invocation must return a new builder, so the caller
+     * is free to modify it. The expression itself must not change
+     * while it's synthesized, so one instance can be synthesized
+     * by many threads at once.
      *
      * @return regex equivalent
      * @since 1.0.0
      */
     StringBuilder toRegex();
 
+    /**
+     * Writes the regular expression into the given output. Tree
+     * nodes override this to stream their children directly into
+     * the same output, so the whole expression is written once
+     * instead of being copied at every level of the tree.
+     *
+     * @param out any appendable i.e. StringBuilder, Writer
+     * @throws IOException if the output fails to append
+     */
+    default void emitTo(final Appendable out) throws IOException {
+        out.append(toRegex());
+    }
+
+    /**
+     * Returns a rough estimate of the emitted length. This is only
+     * used to pre-size the output buffers.
+     *
+     * @return estimated number of characters
+     */
+    default int estimatedLength() {
+        return 16;
+    }
+
     /**
      * Debug a expression at chained point. It passes whatever
      * constructed upto this node in the abstract syntax tree.
@@ -0,0 +1,194 @@
+package dev.yasint.regexsynth.api;
+
+import dev.yasint.regexsynth.ast.Fragment;
+import dev.yasint.regexsynth.ast.Hole;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static dev.yasint.regexsynth.ast.Hole.MARKER_END;
+import static dev.yasint.regexsynth.ast.Hole.MARKER_START;
+
+/**
+ * A regular expression with named holes that are filled later. The
+ * constant parts are synthesized once when the template is created
+ * and the holes are typed, a hole takes either a literal string, a
+ * set or a integer range. i.e. a pattern per tenant that only differs
+ * by the domain
+ * <p>
+ * Instantiating a template only synthesizes the values of the holes
+ * and concatenates them with the pre-emitted constant parts. A hole
+ * that is quantified is kept in a non-capturing group, so any value
+ * fits in it. A template is immutable and can be instantiated by
+ * many threads at once.
+ */
+public final class ExpressionTemplate {
+
+    private final String[] constants; // constants[i] precedes holes[i]
+    private final Hole[] holes;
+    private final Map<String, Hole> named = new LinkedHashMap<>();
+    private final int constantLength;
+
+    /**
+     * Creates a template. It combines all the sub expressions
+     * into one like {@link RegexSynth} does.
+     *
+     * @param expressions sub-expressions with holes
+     * @throws IllegalArgumentException if two holes have the same name but not the same type
+     */
+    public ExpressionTemplate(final Expression... expressions) {
+        final String expression = new RegexSynth(expressions).getExpression();
+        final List<String> constants = new ArrayList<>();
+        final List<Hole> holes = new ArrayList<>();
+        int start = 0, length = 0;
+        for (int i = expression.indexOf(MARKER_START); i >= 0; i = expression.indexOf(MARKER_START, start)) {
+            final int end = expression.indexOf(MARKER_END, i);
+            final Hole hole = new Hole(Hole.Type.values()[Character.digit(expression.charAt(i + 1), 10)],
+                    expression.substring(i + 2, end));
+            final Hole existing = named.putIfAbsent(hole.name(), hole);
+            if (existing != null && existing.type() != hole.type())
+                throw new IllegalArgumentException("hole " + hole.name() + " has more than one type");
+            constants.add(expression.substring(start, i));
+            holes.add(hole);
+            length += i - start;
+            start = end + 1;
+        }
+        constants.add(expression.substring(start));
+        this.constants = constants.toArray(new String[0]);
+        this.holes = holes.toArray(new Hole[0]);
+        this.constantLength = length + expression.length() - start;
+    }
+
+    /**
+     * Creates a hole that is filled with a literal string. The
+     * reserved characters of the value are escaped.
+     *
+     * @param name name of the hole
+     * @return literal hole
+     */
+    public static Expression literalHole(final String name) {
+        return new Hole(Hole.Type.LITERAL, name);
+    }
+
+    /**
+     * Creates a hole that is filled with a set expression.
+     *
+     * @param name name of the hole
+     * @return set hole
+     */
+    public static Expression setHole(final String name) {
+        return new Hole(Hole.Type.SET, name);
+    }
+
+    /**
+     * Creates a hole that is filled with a integer range. See
+     * {@link dev.yasint.regexsynth.dsl.Numeric#integerRange(int, int)}
+     *
+     * @param name name of the hole
+     * @return integer range hole
+     */
+    public static Expression integerRangeHole(final String name) {
+        return new Hole(Hole.Type.INTEGER_RANGE, name);
+    }
+
+    /**
+     * Returns the names of the holes in the order they first appear.
+     *
+     * @return unmodifiable set of names
+     */
+    public Set<String> holes() {
+        return Collections.unmodifiableSet(named.keySet());
+    }
+
+    /**
+     * Starts a instantiation of this template. Every hole must be
+     * bound before the instance is synthesized.
+     *
+     * @return new empty binding
+     */
+    public Binding bind() {
+        return new Binding();
+    }
+
+    /**
+     * Values of the holes of a single instantiation.
+     */
+    public final class Binding {
+
+        private final Map<String, Expression> values = new HashMap<>();
+
+        private Binding() { }
+
+        public Binding literal(final String name, final String value) {
+            return put(name, Objects.requireNonNull(value));
+        }
+
+        public Binding set(final String name, final SetExpression value) {
+            return put(name, Objects.requireNonNull(value));
+        }
+
+        public Binding integerRange(final String name, final int from, final int to) {
+            return put(name, new int[]{from, to});
+        }
+
+        private Binding put(final String name, final Object value) {
+            final Hole hole = named.get(name);
+            if (hole == null) throw new IllegalArgumentException("unknown hole: " + name);
+            values.put(name, hole.fill(value));
+            return this;
+        }
+
+        /**
+         * Concatenates the pre-emitted constant parts with the
+         * synthesized values of the holes.
+         *
+         * @return regular expression of this instance
+         * @throws IllegalArgumentException if a hole isn't bound
+         */
+        public String toExpression() {
+            if (values.size() < named.size()) {
+                final TreeSet<String> unbound = new TreeSet<>(named.keySet());
+                unbound.removeAll(values.keySet());
+                throw new IllegalArgumentException("unbound holes: " + unbound);
+            }
+            final Map<String, String> filled = new HashMap<>(values.size() * 2);
+            for (final Map.Entry<String, Expression> value : values.entrySet()) {
+                final StringBuilder regex = new StringBuilder(value.getValue().estimatedLength());
+                try {
+                    value.getValue().emitTo(regex);
+                } catch (IOException e) { // never thrown by StringBuilder
+                    throw new UncheckedIOException(e);
+                }
+                filled.put(value.getKey(), regex.toString());
+            }
+            int length = constantLength;
+            for (final Hole hole : holes) length += filled.get(hole.name()).length();
+            final StringBuilder expression = new StringBuilder(length);
+            for (int i = 0; i < holes.length; i++) {
+                expression.append(constants[i]).append(filled.get(holes[i].name()));
+            }
+            return expression.append(constants[holes.length]).toString();
+        }
+
+        /**
+         * Instantiates the template.
+         *
+         * @return synthesizer of this instance
+         */
+        public RegexSynth synthesize() {
+            return new RegexSynth(new Fragment(toExpression()));
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package dev.yasint.regexsynth.api;
+
+import dev.yasint.regexsynth.ast.MatchAutomaton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A tokenizer of named expressions. The token expressions are compiled
+ * into one anchored {@link MatchAutomaton}, so every token is read in
+ * a single left to right pass instead of trying each expression at
+ * each position. The longest match wins and a tie is broken by the
+ * order in which the tokens were added. i.e. a keyword added before a
+ * identifier wins over it only when they have the same length
+ * <p>
+ * Tokens are written into caller supplied int arrays, so tokenizing
+ * doesn't allocate a object per token. A lexer can be shared by many
+ * threads.
+ */
+public final class Lexer {
+
+    private static final int MAX_DFA_STATES = 10_000;
+
+    private final MatchAutomaton automaton;
+    private final int[] types; // automaton pattern => token type
+
+    private Lexer(final MatchAutomaton automaton, final int[] types) {
+        this.automaton = automaton;
+        this.types = types;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Tokenizes the input from the start. See
+     * {@link #tokenize(CharSequence, int, int[], int[], int[])}
+     *
+     * @param input  text to tokenize
+     * @param types  receives the token types
+     * @param starts receives the start offsets (inclusive)
+     * @param ends   receives the end offsets (exclusive)
+     * @return number of tokens written
+     */
+    public int tokenize(final CharSequence input, final int[] types, final int[] starts, final int[] ends) {
+        return tokenize(input, 0, types, starts, ends);
+    }
+
+    /**
+     * Reads the tokens from the position until the input ends, no token
+     * matches or the arrays are full. The next call continues from the
+     * end of the last token. The input is fully tokenized if that is
+     * the input length.
+     *
+     * @param input  text to tokenize
+     * @param from   offset of the first token
+     * @param types  receives the token types
+     * @param starts receives the start offsets (inclusive)
+     * @param ends   receives the end offsets (exclusive)
+     * @return number of tokens written
+     */
+    public int tokenize(final CharSequence input, final int from,
+                        final int[] types, final int[] starts, final int[] ends) {
+        final int capacity = Math.min(types.length, Math.min(starts.length, ends.length));
+        final int[] pattern = new int[1];
+        int count = 0, position = from;
+        while (count < capacity && position < input.length()) {
+            final int end = automaton.longest(input, position, pattern);
+            if (end == -1) break;
+            types[count] = this.types[pattern[0]];
+            starts[count] = position;
+            ends[count++] = end;
+            position = end;
+        }
+        return count;
+    }
+
+    /**
+     * Collects the token expressions in their priority order.
+     */
+    public static final class Builder {
+
+        private final List<String> expressions = new ArrayList<>();
+        private final List<Integer> types = new ArrayList<>();
+
+        private Builder() { }
+
+        /**
+         * Adds a token. Tokens that are added first win the ties.
+         *
+         * @param type        token type written for the matches
+         * @param expressions sub-expressions of the token
+         * @return this
+         */
+        public Builder token(final int type, final Expression... expressions) {
+            this.expressions.add(new RegexSynth(Objects.requireNonNull(expressions)).getExpression());
+            this.types.add(type);
+            return this;
+        }
+
+        /**
+         * Compiles the tokens into a lexer.
+         *
+         * @param flags global modifiers of every token
+         * @return lexer
+         * @throws IllegalArgumentException if a token has a flag group (?i:...)
+         */
+        public Lexer build(final RegexSynth.Flags... flags) {
+            boolean multiline = false, dotAll = false, caseInsensitive = false;
+            for (final RegexSynth.Flags flag : flags) {
+                multiline |= flag == RegexSynth.Flags.MULTILINE;
+                dotAll |= flag == RegexSynth.Flags.DOTALL;
+                caseInsensitive |= flag == RegexSynth.Flags.CASE_INSENSITIVE;
+            }
+            final MatchAutomaton automaton = MatchAutomaton.compileAnchored(
+                    expressions, multiline, dotAll, caseInsensitive, MAX_DFA_STATES);
+            return new Lexer(automaton, types.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+    }
+
+}
@@ -2,32 +2,77 @@ package dev.yasint.regexsynth.api;
 
 import com.google.re2j.Matcher;
 import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.ast.CaptureMinimizer;
+import dev.yasint.regexsynth.ast.ComplexityBudget;
+import dev.yasint.regexsynth.ast.ComplexityEstimate;
+import dev.yasint.regexsynth.ast.ComplexityEstimator;
+import dev.yasint.regexsynth.ast.Concat;
+import dev.yasint.regexsynth.ast.GroupElimination;
+import dev.yasint.regexsynth.ast.GroupNames;
+import dev.yasint.regexsynth.ast.HashConsing;
+import dev.yasint.regexsynth.ast.OnePassRewriter;
+import dev.yasint.regexsynth.ast.RegexParser;
+import dev.yasint.regexsynth.ast.RepetitionRewrite;
+import dev.yasint.regexsynth.ast.RepetitionRewriter;
+import dev.yasint.regexsynth.ast.Simplifier;
+import dev.yasint.regexsynth.util.CharSequenceView;
+import dev.yasint.regexsynth.util.LruCache;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class RegexSynth {
 
+    // Compiled patterns are shared by the whole process. A RE2J pattern is
+    // immutable and thread safe, so every RegexSynth that synthesizes the
+    // same expression and compiles it with the same flags gets the same
+    // instance and only the first one pays for the compilation.
+    //
+    private static final int PATTERN_CACHE_CAPACITY = 512;
+    private static final LruCache<PatternKey, Pattern> PATTERN_CACHE = new LruCache<>(PATTERN_CACHE_CAPACITY);
+    private static final LongAdder COMPILE_NANOS = new LongAdder();
+
+    private final Map<String, Integer> names; // named group => index in the created expression
     private String expression;
     private Pattern pattern;
+    private RepetitionRewrite rewrite;
+    private int[] groups; // numbering of the compiled groups, null if all are compiled
 
     /**
      * Creates a complete regular expression. It combines
-     * all the sub expressions into one.
+     * all the sub expressions into one. The tree is simplified,
+     * redundant non-capturing groups are eliminated, repeated
+     * subtrees are shared and then the whole tree is streamed
+     * into a single pre-sized buffer. The indices of the named
+     * groups are recorded from the emitted text.
      *
      * @param expressions sub-expressions
      */
     public RegexSynth(final Expression... expressions) {
-        this.expression = Arrays.stream(expressions)
-                .map(Expression::toRegex)
-                .collect(Collectors.joining());
+        final Expression root = HashConsing.apply(GroupElimination.apply(
+                Simplifier.apply(new Concat(Arrays.asList(expressions)))));
+        final StringBuilder expression = new StringBuilder(root.estimatedLength());
+        try {
+            root.emitTo(expression);
+        } catch (IOException e) { // never thrown by StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        this.expression = expression.toString();
+        this.names = GroupNames.of(expression);
     }
 
     /**
      * Creates a list of matched groups in the {@link Matcher}
-     * instance. This is just a convenience function.
+     * instance. This is just a convenience function. Only the
+     * groups of the last match are kept, use
+     * {@link #spans(Matcher, int[])} to read every match.
      *
      * @param matcher matched instance for {@link CharSequence}
      * @return match that maps to a group id
@@ -40,20 +85,291 @@ public final class RegexSynth {
         return groups;
     }
 
+    /**
+     * Writes the offsets of the groups of the current match into a
+     * reusable array. Group g starts at spans[2g] and ends at
+     * spans[2g + 1], and both are -1 if the group didn't match.
+     * Nothing is allocated, so it can be called after every find.
+     *
+     * @param matcher matcher after a successful find or matches
+     * @param spans   receives the offsets. at least 2 * (groupCount + 1)
+     * @return number of groups written including group 0
+     */
+    public static int spans(final Matcher matcher, final int[] spans) {
+        final int groups = matcher.groupCount() + 1;
+        if (spans.length < 2 * groups)
+            throw new IndexOutOfBoundsException("spans must hold " + 2 * groups + " offsets");
+        for (int group = 0; group < groups; group++) {
+            spans[2 * group] = matcher.start(group);
+            spans[2 * group + 1] = matcher.end(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns a view of the input that a group matched. The characters
+     * are not copied. See {@link #spans(Matcher, int[])}
+     *
+     * @param input matched input
+     * @param spans offsets written by spans
+     * @param group index of the group
+     * @return view of the match or null if the group didn't match
+     */
+    public static CharSequence group(final CharSequence input, final int[] spans, final int group) {
+        final int start = spans[2 * group];
+        if (start < 0) return null;
+        return new CharSequenceView(input, start, spans[2 * group + 1]);
+    }
+
     /**
      * Compiles the created regular expression pattern into a
-     * RE2 {@link Pattern} instance.
+     * RE2 {@link Pattern} instance. The compiled patterns are cached
+     * process wide by their expression and flags, so equal patterns
+     * are compiled once and shared.
      *
      * @param flags global modifiers
      * @return Re2J Pattern instance
      */
     public RegexSynth compile(final Flags... flags) {
+        this.pattern = compiled(this.expression, modifiers(flags));
+        this.groups = null;
+        return this;
+    }
+
+    /**
+     * Compiles the created regular expression pattern keeping only
+     * the capturing groups that the caller reads. The other groups
+     * are compiled as non-capturing groups, so the matcher doesn't
+     * track them. Use {@link #groupIndex(int)} to find the index of
+     * a kept group in the compiled pattern. Named groups keep their
+     * names.
+     *
+     * @param groups names (String) and indices (Integer) of the groups
+     * @param flags  global modifiers
+     * @return Re2J Pattern instance
+     * @throws IllegalArgumentException if a group doesn't exist
+     */
+    public RegexSynth compile(final Collection<?> groups, final Flags... flags) {
+        final Expression parsed = RegexParser.parse(expression);
+        final int[] numbering = CaptureMinimizer.numbering(parsed, groups);
+        final String minimized = new RegexSynth(CaptureMinimizer.apply(parsed, groups)).getExpression();
+        this.pattern = compiled(minimized, modifiers(flags));
+        this.groups = numbering;
+        return this;
+    }
+
+    /**
+     * Compiles the created regular expression pattern without any
+     * capturing groups. Use this when only the match or its bounds
+     * are needed. i.e. {@link Pattern#matches(String)} or a filter
+     *
+     * @param flags global modifiers
+     * @return Re2J Pattern instance
+     */
+    public RegexSynth compileMatchOnly(final Flags... flags) {
+        return compile(Collections.emptySet(), flags);
+    }
+
+    /**
+     * Returns the index of a group of the created regular expression
+     * in the compiled pattern. The indices only differ when the pattern
+     * was compiled with a selection of groups.
+     *
+     * @param group index of the group in the created regular expression
+     * @return index in the compiled pattern or -1 if it doesn't capture
+     */
+    public int groupIndex(final int group) {
+        if (groups == null) return group;
+        if (group < 0 || group >= groups.length)
+            throw new IndexOutOfBoundsException("no group " + group);
+        return groups[group];
+    }
+
+    /**
+     * Returns the index of a named group in the compiled pattern. The
+     * names are indexed when the expression is created, so the pattern
+     * isn't parsed. See {@link #groupIndex(int)}
+     *
+     * @param name name of the group
+     * @return index in the compiled pattern or -1 if it doesn't capture
+     * @throws IllegalArgumentException if there's no group with the name
+     */
+    public int groupIndex(final String name) {
+        final Integer group = names.get(name);
+        if (group == null) throw new IllegalArgumentException("unknown capturing group: " + name);
+        return groupIndex(group);
+    }
+
+    /**
+     * Returns the indices of the named groups in the created regular
+     * expression.
+     *
+     * @return unmodifiable map of name to group index
+     */
+    public Map<String, Integer> getGroupNames() {
+        return names;
+    }
+
+    private static Pattern compiled(final String expression, final int flags) {
+        return PATTERN_CACHE.get(new PatternKey(expression, flags), key -> {
+            final long start = System.nanoTime();
+            final Pattern pattern = Pattern.compile(key.expression, key.flags);
+            COMPILE_NANOS.add(System.nanoTime() - start);
+            return pattern;
+        });
+    }
+
+    /**
+     * Returns the number of compilations served from the pattern cache.
+     *
+     * @return cache hit count
+     */
+    public static long patternCacheHits() {
+        return PATTERN_CACHE.hits();
+    }
+
+    /**
+     * Returns the number of patterns that were compiled because they
+     * were not in the pattern cache.
+     *
+     * @return cache miss count
+     */
+    public static long patternCacheMisses() {
+        return PATTERN_CACHE.misses();
+    }
+
+    /**
+     * Returns the ratio of compilations served from the pattern cache.
+     *
+     * @return hit rate between 0 and 1. 0 if nothing was compiled
+     */
+    public static double patternCacheHitRate() {
+        final long hits = PATTERN_CACHE.hits(), misses = PATTERN_CACHE.misses();
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Returns the number of least recently used patterns that were
+     * dropped from the pattern cache to stay within its capacity.
+     *
+     * @return eviction count
+     */
+    public static long patternCacheEvictions() {
+        return PATTERN_CACHE.evictions();
+    }
+
+    /**
+     * Returns the total time spent compiling the patterns that missed
+     * the pattern cache.
+     *
+     * @return compile time in nanoseconds
+     */
+    public static long patternCompileNanos() {
+        return COMPILE_NANOS.sum();
+    }
+
+    /**
+     * Removes all the cached patterns and resets the counters.
+     */
+    public static void clearPatternCache() {
+        PATTERN_CACHE.clear();
+        COMPILE_NANOS.reset();
+    }
+
+    private static int modifiers(final Flags... flags) {
         int fl = 0;
         for (final Flags flag : flags) fl += flag.val;
-        this.pattern = Pattern.compile(this.expression, fl);
+        return fl;
+    }
+
+    /**
+     * Estimates the RE2J program of the created regular expression
+     * without compiling it. See {@link ComplexityEstimator}
+     *
+     * @param flags global modifiers
+     * @return estimate of the program size and matching cost
+     */
+    public ComplexityEstimate estimate(final Flags... flags) {
+        return ComplexityEstimator.estimate(expression,
+                hasFlag(Flags.MULTILINE, flags), hasFlag(Flags.CASE_INSENSITIVE, flags));
+    }
+
+    private static boolean hasFlag(final Flags flag, final Flags... flags) {
+        for (final Flags f : flags) if (f == flag) return true;
+        return false;
+    }
+
+    /**
+     * Compiles the created regular expression pattern if its
+     * estimate is within the given budget.
+     *
+     * @param budget limits of the compiled program
+     * @param flags  global modifiers
+     * @return Re2J Pattern instance
+     * @throws dev.yasint.regexsynth.exceptions.ComplexityBudgetException if a limit is exceeded
+     */
+    public RegexSynth compile(final ComplexityBudget budget, final Flags... flags) {
+        estimate(flags).check(budget);
+        return compile(flags);
+    }
+
+    /**
+     * Checks that the estimated program of the created regular
+     * expression fits the budget. The counted repetitions can't be
+     * made smaller without changing what they match, so the pattern
+     * is kept as it is. See {@link RepetitionRewriter}
+     *
+     * @param maxInstructions program size budget
+     * @return this
+     * @throws dev.yasint.regexsynth.exceptions.ComplexityBudgetException if it doesn't fit, with
+     *                                                                    the report of a widening
+     */
+    public RegexSynth rewriteRepetitions(final int maxInstructions) {
+        this.rewrite = RepetitionRewriter.rewrite(RegexParser.parse(expression), maxInstructions);
         return this;
     }
 
+    /**
+     * Creates a synthesizer of the created regular expression with its
+     * counted repetitions widened until its estimated program fits the
+     * budget. The widened pattern accepts strings that this one rejects,
+     * i.e. [0-9]{1,1000} =&gt; [0-9]+ so only use it where a superset is
+     * acceptable. This synthesizer is left as it is.
+     *
+     * @param maxInstructions program size budget
+     * @return new synthesizer of the widened pattern
+     */
+    public RegexSynth widenRepetitions(final int maxInstructions) {
+        final RepetitionRewrite widened = RepetitionRewriter.widen(RegexParser.parse(expression), maxInstructions);
+        final RegexSynth synth = new RegexSynth(widened.expression());
+        synth.rewrite = widened;
+        return synth;
+    }
+
+    /**
+     * Restructures the alternations of the created regular expression
+     * so that it can be matched in one pass, if that's possible without
+     * changing what it matches. See {@link OnePassRewriter}. Use
+     * {@link #estimate(Flags...)} to find what still prevents it from
+     * being one-pass. A compiled pattern is discarded.
+     *
+     * @param flags global modifiers the pattern will be compiled with
+     * @return this
+     */
+    public RegexSynth rewriteForOnePass(final Flags... flags) {
+        final Expression rewritten = OnePassRewriter.apply(RegexParser.parse(expression),
+                hasFlag(Flags.MULTILINE, flags), hasFlag(Flags.CASE_INSENSITIVE, flags));
+        this.expression = new RegexSynth(rewritten).getExpression();
+        this.pattern = null;
+        return this;
+    }
+
+    public RepetitionRewrite getRepetitionRewrite() {
+        if (this.rewrite == null)
+            throw new NullPointerException("rewrite is null. invoke rewriteRepetitions(int) or widenRepetitions(int)");
+        return rewrite;
+    }
+
     public Pattern getPattern() {
         if (this.pattern == null)
             throw new NullPointerException("pattern instance is null. invoke compile(Flags...)");
@@ -64,6 +380,31 @@ public final class RegexSynth {
         return expression;
     }
 
+    private static final class PatternKey {
+
+        private final String expression;
+        private final int flags;
+
+        private PatternKey(final String expression, final int flags) {
+            this.expression = expression;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PatternKey)) return false;
+            final PatternKey key = (PatternKey) o;
+            return flags == key.flags && expression.equals(key.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expression, flags);
+        }
+
+    }
+
     public enum Flags {
 
         // RE2 matches unicode by default. We have dropped the disable unicode
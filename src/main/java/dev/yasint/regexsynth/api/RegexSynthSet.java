@@ -0,0 +1,110 @@
+package dev.yasint.regexsynth.api;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.ast.MatchAutomaton;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A set of regular expressions that are matched together. Like RE2's
+ * RE2::Set it scans a input once and returns the ids of all the
+ * patterns that match anywhere in it, so the cost grows with the
+ * input length instead of the input length times the pattern count.
+ * i.e. classifying log lines against thousands of rules
+ * <p>
+ * The patterns are compiled into one {@link MatchAutomaton}. A
+ * pattern with a flag group (?i:...) can't be described by the
+ * automaton, so it's matched with its own compiled pattern. Once
+ * compiled, a set can be shared by many threads.
+ */
+public final class RegexSynthSet {
+
+    private static final int MAX_DFA_STATES = 10_000;
+
+    private final RegexSynth.Flags[] flags;
+    private final List<String> expressions = new ArrayList<>();
+    private MatchAutomaton automaton;
+    private int[] automatonIds; // automaton pattern => set id
+    private Pattern[] separate; // patterns matched on their own
+    private int[] separateIds;
+
+    /**
+     * Creates a empty set.
+     *
+     * @param flags global modifiers of every pattern
+     */
+    public RegexSynthSet(final RegexSynth.Flags... flags) {
+        this.flags = flags.clone();
+    }
+
+    /**
+     * Adds a pattern to the set.
+     *
+     * @param synth created regular expression
+     * @return id of the pattern. ids are assigned from 0
+     */
+    public int add(final RegexSynth synth) {
+        if (automaton != null) throw new IllegalStateException("set is already compiled");
+        expressions.add(Objects.requireNonNull(synth).getExpression());
+        return expressions.size() - 1;
+    }
+
+    public int size() {
+        return expressions.size();
+    }
+
+    /**
+     * Compiles all the patterns of the set. No patterns can be added
+     * after this.
+     *
+     * @return this
+     */
+    public RegexSynthSet compile() {
+        boolean multiline = false, dotAll = false, caseInsensitive = false;
+        int modifiers = 0;
+        for (final RegexSynth.Flags flag : flags) {
+            multiline |= flag == RegexSynth.Flags.MULTILINE;
+            dotAll |= flag == RegexSynth.Flags.DOTALL;
+            caseInsensitive |= flag == RegexSynth.Flags.CASE_INSENSITIVE;
+            modifiers |= flag.val;
+        }
+        final List<String> supported = new ArrayList<>();
+        final List<Integer> supportedIds = new ArrayList<>(), separateIds = new ArrayList<>();
+        final List<Pattern> separate = new ArrayList<>();
+        for (int id = 0; id < expressions.size(); id++) {
+            final String expression = expressions.get(id);
+            if (MatchAutomaton.supports(expression)) {
+                supported.add(expression);
+                supportedIds.add(id);
+            } else {
+                separate.add(Pattern.compile(expression, modifiers));
+                separateIds.add(id);
+            }
+        }
+        this.automaton = MatchAutomaton.compile(supported, multiline, dotAll, caseInsensitive, MAX_DFA_STATES);
+        this.automatonIds = supportedIds.stream().mapToInt(Integer::intValue).toArray();
+        this.separate = separate.toArray(new Pattern[0]);
+        this.separateIds = separateIds.stream().mapToInt(Integer::intValue).toArray();
+        return this;
+    }
+
+    /**
+     * Finds which patterns of the set match anywhere in the input.
+     *
+     * @param input text to scan
+     * @return ids of the matching patterns
+     */
+    public BitSet match(final CharSequence input) {
+        if (automaton == null)
+            throw new NullPointerException("set is not compiled. invoke compile()");
+        final BitSet matches = automaton.match(input);
+        final BitSet ids = new BitSet(expressions.size());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) ids.set(automatonIds[i]);
+        for (int i = 0; i < separate.length; i++) if (separate[i].matcher(input).find()) ids.set(separateIds[i]);
+        return ids;
+    }
+
+}
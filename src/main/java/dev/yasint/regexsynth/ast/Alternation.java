@@ -0,0 +1,53 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.io.IOException;
+import java.util.List;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.ALTERNATION;
+
+/**
+ * AST :: Alternation
+ * <p>
+ * A choice between expressions. <code>a|b|c</code> This node is not
+ * grouped by itself. Wrap it in a {@link Group} to limit the scope.
+ */
+public final class Alternation extends Node {
+
+    private final List<Expression> alternatives;
+    private int hash; // structural hash. computed once
+
+    public Alternation(final List<? extends Expression> alternatives) {
+        this.alternatives = Concat.copyOf(alternatives);
+    }
+
+    public List<Expression> alternatives() {
+        return alternatives;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        for (int i = 0; i < alternatives.size(); i++) {
+            if (i != 0) out.append(ALTERNATION);
+            alternatives.get(i).emitTo(out);
+        }
+    }
+
+    @Override
+    public int estimatedLength() {
+        return estimatedLength(alternatives) + alternatives.size();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof Alternation && alternatives.equals(((Alternation) o).alternatives);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash == 0) hash = 31 * alternatives.hashCode() + 1;
+        return hash;
+    }
+
+}
@@ -0,0 +1,63 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.MetaCharacters;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * AST :: Anchor
+ * <p>
+ * A zero-width assertion. i.e. ^ $ \b \B \A \z
+ */
+public final class Anchor extends Node {
+
+    public enum Type {
+
+        WORD_BOUNDARY(MetaCharacters.WORD_BOUNDARY),
+        NON_WORD_BOUNDARY(MetaCharacters.NON_WORD_BOUNDARY),
+        START_OF_LINE(String.valueOf(MetaCharacters.CARAT)),
+        END_OF_LINE(String.valueOf(MetaCharacters.DOLLAR)),
+        END_OF_LINE_CRLF("\\x0D?" + MetaCharacters.DOLLAR), // optional \r before \n
+        START_OF_TEXT(MetaCharacters.BEGINNING_OF_TEXT),
+        END_OF_TEXT(MetaCharacters.END_OF_TEXT);
+
+        private final String token;
+
+        Type(final String token) {
+            this.token = token;
+        }
+
+    }
+
+    private final Type type;
+
+    public Anchor(final Type type) {
+        this.type = Objects.requireNonNull(type);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        out.append(type.token);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return type.token.length();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof Anchor && type == ((Anchor) o).type;
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode();
+    }
+
+}
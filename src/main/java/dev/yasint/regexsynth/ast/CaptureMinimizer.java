@@ -0,0 +1,136 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * AST :: Capture Minimizer
+ * <p>
+ * Downgrades the capturing groups that the caller doesn't read to
+ * non-capturing groups. Every capturing group makes the matcher
+ * record its positions on every thread, so a pattern without unused
+ * captures matches faster. i.e. keeping only "year" turns
+ * (?P&lt;year&gt;\d{4})-(\d{2}) into (?P&lt;year&gt;\d{4})-\d{2}
+ * <p>
+ * Groups are selected by their name or by their index in the original
+ * pattern. The kept groups are renumbered from 1 in the same order.
+ * The capturing groups inside fragments (i.e. flag groups) can't be
+ * rewritten, so they are always kept.
+ */
+public final class CaptureMinimizer {
+
+    private final Set<Integer> indices = new HashSet<>();
+    private final Set<String> names = new HashSet<>();
+    private final Set<Object> unknown = new HashSet<>(); // selections not found yet
+    private final List<Integer> numbering = new ArrayList<>(); // original index => new index
+    private int kept = 0;
+
+    private CaptureMinimizer(final Collection<?> groups) {
+        for (final Object group : groups) {
+            if (group instanceof Integer) indices.add((Integer) group);
+            else if (group instanceof String) names.add((String) group);
+            else throw new IllegalArgumentException("a group is selected by its name or index: " + group);
+            unknown.add(group);
+        }
+        numbering.add(0); // group 0 is the whole match
+    }
+
+    /**
+     * Keeps only the selected capturing groups.
+     *
+     * @param expression root of the tree
+     * @param groups     names (String) and original indices (Integer)
+     * @return equivalent tree with fewer capturing groups
+     * @throws IllegalArgumentException if a selected group doesn't exist
+     */
+    public static Expression apply(final Expression expression, final Collection<?> groups) {
+        return minimize(expression, groups).expression;
+    }
+
+    /**
+     * Maps the group indices of the original pattern to the indices of
+     * the minimized pattern. The downgraded groups are mapped to -1.
+     *
+     * @param expression root of the tree
+     * @param groups     names (String) and original indices (Integer)
+     * @return new index of each original group. [0] is the whole match
+     */
+    public static int[] numbering(final Expression expression, final Collection<?> groups) {
+        final List<Integer> numbering = minimize(expression, groups).minimizer.numbering;
+        final int[] indices = new int[numbering.size()];
+        for (int i = 0; i < indices.length; i++) indices[i] = numbering.get(i);
+        return indices;
+    }
+
+    private static Result minimize(final Expression expression, final Collection<?> groups) {
+        final CaptureMinimizer minimizer = new CaptureMinimizer(groups);
+        final Expression minimized = minimizer.rewrite(expression);
+        if (!minimizer.unknown.isEmpty())
+            throw new IllegalArgumentException("unknown capturing groups: " + minimizer.unknown);
+        return new Result(minimized, minimizer);
+    }
+
+    private Expression rewrite(final Expression expression) {
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            if (group.type() == Group.Type.NON_CAPTURE) {
+                return new Group(group.type(), null, rewriteAll(group.children()));
+            }
+            final int index = numbering.size();
+            final boolean keep = indices.contains(index) || group.name() != null && names.contains(group.name());
+            numbering.add(keep ? ++kept : -1);
+            if (keep) {
+                unknown.remove(index);
+                unknown.remove(group.name());
+            }
+            final List<Expression> children = rewriteAll(group.children());
+            if (!keep) return new Group(Group.Type.NON_CAPTURE, null, children);
+            return new Group(group.type(), group.name(), children);
+        }
+        if (expression instanceof Concat) return new Concat(rewriteAll(((Concat) expression).children()));
+        if (expression instanceof Alternation) {
+            return new Alternation(rewriteAll(((Alternation) expression).alternatives()));
+        }
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            return new Quantifier(rewrite(quantifier.operand()),
+                    quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        }
+        if (expression instanceof LazyQuantifier) {
+            return new LazyQuantifier(rewrite(((LazyQuantifier) expression).quantifier()));
+        }
+        if (expression instanceof Shared) return rewrite(((Shared) expression).node());
+        if (Simplifier.hasCapture(expression)) { // opaque text keeps its groups
+            final int captures = Syntax.captureCount(expression.toRegex());
+            for (int i = 0; i < captures; i++) {
+                unknown.remove(numbering.size());
+                numbering.add(++kept);
+            }
+        }
+        return expression;
+    }
+
+    private List<Expression> rewriteAll(final List<Expression> expressions) {
+        final List<Expression> rewritten = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) rewritten.add(rewrite(expression));
+        return rewritten;
+    }
+
+    private static final class Result {
+
+        private final Expression expression;
+        private final CaptureMinimizer minimizer;
+
+        private Result(final Expression expression, final CaptureMinimizer minimizer) {
+            this.expression = expression;
+            this.minimizer = minimizer;
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package dev.yasint.regexsynth.ast;
+
+/**
+ * AST :: Complexity Budget
+ * <p>
+ * Upper bounds that a {@link ComplexityEstimate} is checked against.
+ * A budget is immutable, each limit returns a new budget. i.e.
+ * ComplexityBudget.unlimited().withMaxInstructions(5000).withOnePass(true)
+ */
+public final class ComplexityBudget {
+
+    private static final ComplexityBudget UNLIMITED = new ComplexityBudget(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, false);
+
+    private final int maxInstructions;
+    private final int maxFanOut;
+    private final int maxRepetitionExpansion;
+    private final boolean onePass;
+
+    private ComplexityBudget(final int maxInstructions, final int maxFanOut,
+                             final int maxRepetitionExpansion, final boolean onePass) {
+        this.maxInstructions = maxInstructions;
+        this.maxFanOut = maxFanOut;
+        this.maxRepetitionExpansion = maxRepetitionExpansion;
+        this.onePass = onePass;
+    }
+
+    /**
+     * @return a budget that accepts every pattern
+     */
+    public static ComplexityBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @param limit maximum number of program instructions
+     * @return a new budget with the limit
+     */
+    public ComplexityBudget withMaxInstructions(final int limit) {
+        return new ComplexityBudget(requirePositive(limit), maxFanOut, maxRepetitionExpansion, onePass);
+    }
+
+    /**
+     * @param limit maximum number of branches of a single alternation
+     * @return a new budget with the limit
+     */
+    public ComplexityBudget withMaxFanOut(final int limit) {
+        return new ComplexityBudget(maxInstructions, requirePositive(limit), maxRepetitionExpansion, onePass);
+    }
+
+    /**
+     * @param limit maximum number of instructions added by copying
+     *              the operands of counted repetitions
+     * @return a new budget with the limit
+     */
+    public ComplexityBudget withMaxRepetitionExpansion(final int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must be non negative");
+        return new ComplexityBudget(maxInstructions, maxFanOut, limit, onePass);
+    }
+
+    /**
+     * @param required whether the pattern must run on the one-pass engine
+     * @return a new budget with the requirement
+     */
+    public ComplexityBudget withOnePass(final boolean required) {
+        return new ComplexityBudget(maxInstructions, maxFanOut, maxRepetitionExpansion, required);
+    }
+
+    public int maxInstructions() {
+        return maxInstructions;
+    }
+
+    public int maxFanOut() {
+        return maxFanOut;
+    }
+
+    public int maxRepetitionExpansion() {
+        return maxRepetitionExpansion;
+    }
+
+    public boolean requiresOnePass() {
+        return onePass;
+    }
+
+    private static int requirePositive(final int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+        return limit;
+    }
+
+}
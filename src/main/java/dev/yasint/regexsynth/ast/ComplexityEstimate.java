@@ -0,0 +1,109 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.exceptions.ComplexityBudgetException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AST :: Complexity Estimate
+ * <p>
+ * Predicted size and matching cost of the RE2J program of a pattern.
+ * The NFA engine runs in time proportional to the input length times
+ * the number of instructions, while the one-pass engine runs in time
+ * proportional to the input length alone. Created by
+ * {@link ComplexityEstimator}.
+ */
+public final class ComplexityEstimate {
+
+    private final int instructions;
+    private final int fanOut;
+    private final int repetitionExpansion;
+    private final List<String> onePassBlockers;
+
+    ComplexityEstimate(final int instructions, final int fanOut,
+                       final int repetitionExpansion, final List<String> onePassBlockers) {
+        this.instructions = instructions;
+        this.fanOut = fanOut;
+        this.repetitionExpansion = repetitionExpansion;
+        this.onePassBlockers = Collections.unmodifiableList(new ArrayList<>(onePassBlockers));
+    }
+
+    /**
+     * @return predicted number of program instructions
+     */
+    public int instructions() {
+        return instructions;
+    }
+
+    /**
+     * @return number of branches of the widest alternation
+     */
+    public int fanOut() {
+        return fanOut;
+    }
+
+    /**
+     * @return instructions added by copying the operands of counted
+     * repetitions. i.e. x{3,5} compiles x five times
+     */
+    public int repetitionExpansion() {
+        return repetitionExpansion;
+    }
+
+    /**
+     * @return whether the pattern meets the conditions of the RE2 one-pass engine
+     */
+    public boolean isOnePass() {
+        return onePassBlockers.isEmpty();
+    }
+
+    /**
+     * @return reasons why the pattern isn't one-pass
+     */
+    public List<String> onePassBlockers() {
+        return onePassBlockers;
+    }
+
+    /**
+     * Checks this estimate against a budget.
+     *
+     * @param budget limits
+     * @return descriptions of the exceeded limits
+     */
+    public List<String> violations(final ComplexityBudget budget) {
+        final List<String> violations = new ArrayList<>();
+        if (instructions > budget.maxInstructions())
+            violations.add(String.format("%d instructions exceeds the limit of %d",
+                    instructions, budget.maxInstructions()));
+        if (fanOut > budget.maxFanOut())
+            violations.add(String.format("alternation fan-out of %d exceeds the limit of %d",
+                    fanOut, budget.maxFanOut()));
+        if (repetitionExpansion > budget.maxRepetitionExpansion())
+            violations.add(String.format("repetition expansion of %d exceeds the limit of %d",
+                    repetitionExpansion, budget.maxRepetitionExpansion()));
+        if (budget.requiresOnePass() && !isOnePass())
+            violations.add("pattern is not one-pass: " + String.join("; ", onePassBlockers));
+        return violations;
+    }
+
+    /**
+     * Throws if this estimate exceeds the budget.
+     *
+     * @param budget limits
+     * @throws ComplexityBudgetException with every exceeded limit
+     */
+    public void check(final ComplexityBudget budget) {
+        final List<String> violations = violations(budget);
+        if (!violations.isEmpty())
+            throw new ComplexityBudgetException(String.join(", ", violations));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("instructions=%d, fanOut=%d, repetitionExpansion=%d, onePass=%b",
+                instructions, fanOut, repetitionExpansion, isOnePass());
+    }
+
+}
@@ -0,0 +1,651 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * AST :: Complexity Estimator
+ * <p>
+ * Predicts the RE2J program of a pattern without compiling it. RE2J
+ * compiles a literal into one instruction per character, a class or
+ * an anchor into one instruction, a capturing group into two and an
+ * alternation of n branches into n - 1 choice instructions. Counted
+ * repetitions are expanded into copies of their operand. i.e. x{2,4}
+ * compiles into xx(?:x(?:x)?)? The alternations are factored like the
+ * RE2J parser does before they are counted. i.e. a|b compiles into [ab]
+ * <p>
+ * The one-pass engine of RE2 can be used when the pattern is anchored
+ * at both ends and every choice can be decided by looking at the next
+ * character. i.e. ^[a-z]+@[a-z]+$ is one-pass and ^[a-z]+[a-z]$ isn't
+ * because the repetition can't tell where it should stop.
+ */
+public final class ComplexityEstimator {
+
+    private final Set<String> blockers = new LinkedHashSet<>();
+    private final Set<Expression> factoredAlternations = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean multiline;
+    private boolean caseInsensitive;
+    private int fanOut = 1;
+
+    private ComplexityEstimator(final boolean multiline, final boolean caseInsensitive) {
+        this.multiline = multiline;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Estimates the program of a pattern compiled without flags.
+     *
+     * @param expression root of the tree
+     * @return estimate
+     */
+    public static ComplexityEstimate estimate(final Expression expression) {
+        return estimate(expression, false, false);
+    }
+
+    /**
+     * Estimates the program of a emitted pattern. The pattern is parsed
+     * without folding the literal alternations into tries, so that they
+     * are factored like RE2J factors them.
+     *
+     * @param regex           emitted expression
+     * @param multiline       whether ^ and $ match at line boundaries
+     * @param caseInsensitive whether letters match both cases
+     * @return estimate
+     */
+    public static ComplexityEstimate estimate(final String regex, final boolean multiline,
+                                              final boolean caseInsensitive) {
+        return estimate(RegexParser.parse(regex, false), multiline, caseInsensitive);
+    }
+
+    /**
+     * Estimates the program of a pattern.
+     *
+     * @param expression      root of the tree
+     * @param multiline       whether ^ and $ match at line boundaries
+     * @param caseInsensitive whether letters match both cases
+     * @return estimate
+     */
+    public static ComplexityEstimate estimate(final Expression expression,
+                                              final boolean multiline,
+                                              final boolean caseInsensitive) {
+        final ComplexityEstimator estimator = new ComplexityEstimator(multiline, caseInsensitive);
+        final Expression root = expand(expression);
+        if (!estimator.startsAnchored(root))
+            estimator.blockers.add("pattern is not anchored at the start with \\A or ^");
+        if (!estimator.endsAnchored(root))
+            estimator.blockers.add("pattern is not anchored at the end with \\z or $");
+        final Info info = estimator.visit(root, FirstSet.EMPTY);
+        // the program also has a fail instruction and a match instruction
+        return new ComplexityEstimate(saturate(info.size + 2), estimator.fanOut,
+                saturate(info.size - info.base), new ArrayList<>(estimator.blockers));
+    }
+
+    /**
+     * Walks the tree right to left in sequences, so that the follow
+     * set of each element is known when its choices are checked.
+     *
+     * @param expression expanded expression
+     * @param follow     characters that can come right after it
+     */
+    private Info visit(final Expression expression, final FirstSet follow) {
+        final Expression e = expand(expression);
+        if (e instanceof Literal) {
+            final String value = ((Literal) e).value();
+            if (value.isEmpty()) return new Info(0, 0, true, FirstSet.EMPTY);
+            final int length = value.codePointCount(0, value.length());
+            return new Info(length, length, false, chars(value.codePointAt(0)));
+        }
+        if (e instanceof Anchor) {
+            final int size = ((Anchor) e).type() == Anchor.Type.END_OF_LINE_CRLF ? 3 : 1;
+            return new Info(size, size, true, FirstSet.EMPTY);
+        }
+        if (e instanceof SetExpression) {
+            if (nullable(e)) return new Info(0, 0, true, FirstSet.EMPTY);
+            return new Info(1, 1, false, set((SetExpression) e));
+        }
+        if (e instanceof UnicodeClass) return new Info(1, 1, false, FirstSet.ANY);
+        if (e instanceof CharClass) return new Info(1, 1, false, first(e));
+        if (e instanceof Concat) return sequence(((Concat) e).children(), follow);
+        if (e instanceof Group) {
+            final Group group = (Group) e;
+            final Info info = sequence(group.children(), follow);
+            if (group.type() == Group.Type.NON_CAPTURE) return info;
+            return new Info(info.size + 2, info.base + 2, info.nullable, info.first);
+        }
+        if (e instanceof Alternation) return alternation((Alternation) e, follow);
+        if (e instanceof LazyQuantifier) return visit(((LazyQuantifier) e).quantifier(), follow);
+        if (e instanceof Quantifier) return quantifier((Quantifier) e, follow);
+        if (e instanceof Flagged) return flagged((Flagged) e, follow);
+        return fragment(((Fragment) e).regex());
+    }
+
+    private Info sequence(final List<Expression> elements, final FirstSet follow) {
+        if (elements.isEmpty()) return new Info(1, 1, true, FirstSet.EMPTY); // nop
+        long size = 0, base = 0;
+        boolean nullable = true;
+        FirstSet first = FirstSet.EMPTY;
+        FirstSet next = follow; // what can follow the current element
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            final Info info = visit(elements.get(i), next);
+            size += info.size;
+            base += info.base;
+            first = info.nullable ? info.first.union(first) : info.first;
+            nullable &= info.nullable;
+            next = info.nullable ? info.first.union(next) : info.first;
+        }
+        return new Info(size, base, nullable, first);
+    }
+
+    private Info alternation(final Alternation alternation, final FirstSet follow) {
+        final List<Expression> alternatives = factoredAlternations.contains(alternation)
+                ? alternation.alternatives() : factor(alternation.alternatives());
+        if (alternatives.size() == 1) return visit(alternatives.get(0), follow);
+        fanOut = Math.max(fanOut, alternatives.size());
+        long size = alternatives.size() - 1, base = size;
+        boolean nullable = false;
+        FirstSet first = FirstSet.EMPTY, seen = FirstSet.EMPTY;
+        boolean overlaps = false, empty = false;
+        for (final Expression alternative : alternatives) {
+            final Info info = visit(alternative, follow);
+            size += info.size;
+            base += info.base;
+            first = first.union(info.first);
+            final FirstSet starts = info.nullable ? info.first.union(follow) : info.first;
+            overlaps |= seen.intersects(starts) || info.nullable && empty;
+            empty |= info.nullable;
+            seen = seen.union(starts);
+            nullable |= info.nullable;
+        }
+        if (overlaps) blockers.add("alternation branches start with the same character: " + alternation.toRegex());
+        return new Info(size, base, nullable, first);
+    }
+
+    // Factoring
+
+    /**
+     * Factors the alternatives in the four rounds of the RE2J parser.
+     * Only consecutive alternatives are factored. The leading literal
+     * text is factored first, then the leading element and then the
+     * runs of single characters and classes are merged into one class
+     * and the runs of empty alternatives into one.
+     * i.e. abc|abd =&gt; ab[cd] and a*b|a*c =&gt; a*[bc]
+     * <p>
+     * The parser already merges the runs of single characters while
+     * it reads the alternatives, so a|a is one class but the factored
+     * ab|ab keeps a empty alternative. i.e. ab(?:|) and a*b(?:|)
+     */
+    private List<Expression> factor(final List<Expression> alternatives) {
+        return factor(alternatives, true);
+    }
+
+    private List<Expression> factor(final List<Expression> alternatives, final boolean parsed) {
+        List<List<Expression>> sequences = new ArrayList<>(alternatives.size());
+        for (final Expression alternative : alternatives) {
+            final List<Expression> pieces = pieces(alternative);
+            if (pieces.size() == 1 && pieces.get(0) instanceof Alternation) { // nested alternations are spliced
+                final Alternation nested = (Alternation) pieces.get(0);
+                for (final Expression spliced : factoredAlternations.contains(nested)
+                        ? nested.alternatives() : factor(nested.alternatives())) sequences.add(pieces(spliced));
+            } else {
+                sequences.add(pieces);
+            }
+        }
+        if (parsed) sequences = mergeClasses(sequences);
+        sequences = factorText(sequences);
+        sequences = factorElements(sequences);
+        sequences = mergeClasses(sequences);
+        final List<Expression> factored = new ArrayList<>(sequences.size());
+        boolean empty = false;
+        for (final List<Expression> sequence : sequences) { // a run of empty alternatives is one
+            if (!sequence.isEmpty() || !empty) factored.add(sequenceOf(sequence));
+            empty = sequence.isEmpty();
+        }
+        return factored;
+    }
+
+    private List<List<Expression>> factorText(final List<List<Expression>> sequences) {
+        final List<List<Expression>> factored = new ArrayList<>(sequences.size());
+        String prefix = "";
+        for (int i = 0, start = 0; i <= sequences.size(); i++) {
+            final String text = i < sequences.size() ? leadingText(sequences.get(i)) : "";
+            final int shared = sharedLength(prefix, text);
+            if (i < sequences.size() && shared > 0) {
+                prefix = prefix.substring(0, shared);
+                continue;
+            }
+            if (i - start == 1) factored.add(sequences.get(start));
+            if (i - start > 1) {
+                final List<List<Expression>> suffixes = new ArrayList<>(i - start);
+                for (final List<Expression> sequence : sequences.subList(start, i)) {
+                    final List<Expression> suffix = new ArrayList<>(sequence);
+                    final String rest = ((Literal) suffix.get(0)).value().substring(prefix.length());
+                    if (rest.isEmpty()) suffix.remove(0);
+                    else suffix.set(0, new Literal(rest, false));
+                    suffixes.add(suffix);
+                }
+                factored.add(prefixed(new Literal(prefix, false), suffixes));
+            }
+            start = i;
+            prefix = text;
+        }
+        return factored;
+    }
+
+    private List<List<Expression>> factorElements(final List<List<Expression>> sequences) {
+        final List<List<Expression>> factored = new ArrayList<>(sequences.size());
+        Expression first = null;
+        for (int i = 0, start = 0; i <= sequences.size(); i++) {
+            final Expression leading = i < sequences.size() && !sequences.get(i).isEmpty()
+                    ? sequences.get(i).get(0) : null;
+            if (leading != null && first != null && !Simplifier.hasCapture(first)
+                    && Simplifier.key(first).equals(Simplifier.key(leading))) continue;
+            if (i - start == 1) factored.add(sequences.get(start));
+            if (i - start > 1) {
+                final List<List<Expression>> suffixes = new ArrayList<>(i - start);
+                for (final List<Expression> sequence : sequences.subList(start, i))
+                    suffixes.add(sequence.subList(1, sequence.size()));
+                factored.add(prefixed(first, suffixes));
+            }
+            start = i;
+            first = leading;
+        }
+        return factored;
+    }
+
+    private static List<List<Expression>> mergeClasses(final List<List<Expression>> sequences) {
+        final List<List<Expression>> merged = new ArrayList<>(sequences.size());
+        for (int i = 0, start = 0; i <= sequences.size(); i++) {
+            if (i < sequences.size() && isClass(sequences.get(i))) continue;
+            if (i - start == 1) merged.add(sequences.get(start));
+            if (i - start > 1) {
+                final List<Expression> members = new ArrayList<>(i - start);
+                for (final List<Expression> sequence : sequences.subList(start, i)) members.add(sequence.get(0));
+                merged.add(Collections.singletonList(new CharClass(members)));
+            }
+            if (i < sequences.size()) merged.add(sequences.get(i));
+            start = i + 1;
+        }
+        return merged;
+    }
+
+    /**
+     * Builds prefix(?:suffix|...) of a run of factored alternatives.
+     */
+    private List<Expression> prefixed(final Expression prefix, final List<List<Expression>> suffixes) {
+        final List<Expression> alternatives = new ArrayList<>(suffixes.size());
+        for (final List<Expression> suffix : suffixes) alternatives.add(sequenceOf(suffix));
+        final List<Expression> factored = factor(alternatives, false);
+        final List<Expression> sequence = new ArrayList<>(2);
+        sequence.add(prefix);
+        if (factored.size() == 1) {
+            sequence.add(factored.get(0));
+        } else {
+            final Alternation alternation = new Alternation(factored);
+            factoredAlternations.add(alternation);
+            sequence.add(new Group(Group.Type.NON_CAPTURE, null, Collections.singletonList(alternation)));
+        }
+        return sequence;
+    }
+
+    /**
+     * Splits a alternative into the elements of its sequence. The
+     * non-capturing groups are spliced and adjacent literals are
+     * joined like RE2J joins them.
+     */
+    private static List<Expression> pieces(final Expression expression) {
+        final List<Expression> pieces = new ArrayList<>();
+        addPieces(expression, pieces);
+        return pieces;
+    }
+
+    private static void addPieces(final Expression expression, final List<Expression> pieces) {
+        final Expression e = expand(expression);
+        if (e instanceof Concat || e instanceof Group && ((Group) e).type() == Group.Type.NON_CAPTURE) {
+            for (final Expression child : e instanceof Concat ? ((Concat) e).children() : ((Group) e).children())
+                addPieces(child, pieces);
+            return;
+        }
+        if (e instanceof Literal) {
+            final String value = ((Literal) e).value();
+            if (value.isEmpty()) return;
+            final int last = pieces.size() - 1;
+            if (last >= 0 && pieces.get(last) instanceof Literal) {
+                pieces.set(last, new Literal(((Literal) pieces.get(last)).value() + value, false));
+                return;
+            }
+        }
+        pieces.add(e);
+    }
+
+    private static Expression sequenceOf(final List<Expression> pieces) {
+        if (pieces.size() == 1) return pieces.get(0);
+        return new Concat(pieces);
+    }
+
+    private static String leadingText(final List<Expression> sequence) {
+        return !sequence.isEmpty() && sequence.get(0) instanceof Literal ? ((Literal) sequence.get(0)).value() : "";
+    }
+
+    private static int sharedLength(final String a, final String b) {
+        int shared = 0;
+        while (shared < a.length() && shared < b.length() && a.codePointAt(shared) == b.codePointAt(shared))
+            shared += Character.charCount(a.codePointAt(shared));
+        return shared;
+    }
+
+    private static boolean isClass(final List<Expression> sequence) {
+        if (sequence.size() != 1) return false;
+        final Expression e = sequence.get(0);
+        if (e instanceof Literal) return ((Literal) e).value().codePointCount(0, ((Literal) e).value().length()) == 1;
+        if (e instanceof Fragment) return ((Fragment) e).regex().equals(String.valueOf(PERIOD));
+        return e instanceof SetExpression || e instanceof UnicodeClass || e instanceof CharClass;
+    }
+
+    // Repetitions
+
+    private Info quantifier(final Quantifier quantifier, final FirstSet follow) {
+        final int min = quantifier.min(), max = quantifier.max();
+        final boolean repeats = max == Quantifier.UNBOUNDED || max > 1;
+        // a copy of the operand can be followed by another copy
+        final Info operand = visit(quantifier.operand(),
+                repeats ? first(quantifier.operand()).union(follow) : follow);
+        if (min != max) {
+            fanOut = Math.max(fanOut, 2);
+            if (operand.nullable) {
+                blockers.add("repetition can match the empty string: " + quantifier.toRegex());
+            } else if (operand.first.intersects(follow)) {
+                blockers.add("repetition overlaps what follows it: " + quantifier.toRegex());
+            }
+        }
+        final long s = operand.size, size;
+        if (max == Quantifier.UNBOUNDED) { // x{n,} => x{n-1}x+
+            size = min <= 1 ? s + 1 : min * s + 1;
+        } else { // x{n,m} => x{n}(?:x(?:x)?)? and x{0} => empty
+            size = Math.max(min * s + (max - min) * (s + 1), 1);
+        }
+        final long base = Math.min(operand.base + (min == max ? 0 : 1), size);
+        return new Info(size, base, min == 0 || operand.nullable, operand.first);
+    }
+
+    /**
+     * Fragments are pre-emitted text. Classes and the dot are a single
+     * instruction, text that can't be parsed again is counted by its
+     * characters.
+     */
+    private static Info fragment(final String regex) {
+        if (regex.isEmpty()) return new Info(0, 0, true, FirstSet.EMPTY);
+        if (regex.equals(String.valueOf(PERIOD)) || regex.charAt(0) == OPEN_SQUARE_BRACKET
+                || regex.charAt(0) == BACKSLASH) return new Info(1, 1, false, FirstSet.ANY);
+        final int length = regex.codePointCount(0, regex.length());
+        return new Info(length, length, false, FirstSet.ANY);
+    }
+
+    private Info flagged(final Flagged flagged, final FirstSet follow) {
+        final boolean m = multiline, i = caseInsensitive;
+        flagged.apply(this);
+        try {
+            return visit(flagged.content, flagged.ignoresCase() ? FirstSet.ANY : follow);
+        } finally {
+            multiline = m;
+            caseInsensitive = i;
+        }
+    }
+
+    private FirstSet first(final Expression expression) {
+        final Expression e = expand(expression);
+        if (e instanceof Concat || e instanceof Group) {
+            FirstSet first = FirstSet.EMPTY;
+            for (final Expression child : e instanceof Concat
+                    ? ((Concat) e).children() : ((Group) e).children()) {
+                first = first.union(first(child));
+                if (!nullable(child)) break;
+            }
+            return first;
+        }
+        if (e instanceof Alternation) {
+            FirstSet first = FirstSet.EMPTY;
+            for (final Expression alternative : ((Alternation) e).alternatives())
+                first = first.union(first(alternative));
+            return first;
+        }
+        if (e instanceof Quantifier) return first(((Quantifier) e).operand());
+        if (e instanceof LazyQuantifier) return first(((LazyQuantifier) e).quantifier());
+        if (e instanceof CharClass) {
+            FirstSet first = FirstSet.EMPTY;
+            for (final Expression member : ((CharClass) e).members) first = first.union(first(member));
+            return first;
+        }
+        if (e instanceof Flagged) {
+            return ((Flagged) e).ignoresCase() ? FirstSet.ANY : first(((Flagged) e).content);
+        }
+        if (e instanceof Literal && !((Literal) e).value().isEmpty())
+            return chars(((Literal) e).value().codePointAt(0));
+        if (e instanceof SetExpression) return set((SetExpression) e);
+        if (e instanceof Literal || e instanceof Anchor) return FirstSet.EMPTY;
+        return FirstSet.ANY;
+    }
+
+    private boolean nullable(final Expression expression) {
+        final Expression e = expand(expression);
+        if (e instanceof Concat || e instanceof Group) {
+            for (final Expression child : e instanceof Concat
+                    ? ((Concat) e).children() : ((Group) e).children())
+                if (!nullable(child)) return false;
+            return true;
+        }
+        if (e instanceof Alternation) {
+            for (final Expression alternative : ((Alternation) e).alternatives())
+                if (nullable(alternative)) return true;
+            return false;
+        }
+        if (e instanceof Quantifier)
+            return ((Quantifier) e).min() == 0 || nullable(((Quantifier) e).operand());
+        if (e instanceof LazyQuantifier) return nullable(((LazyQuantifier) e).quantifier());
+        if (e instanceof Flagged) return nullable(((Flagged) e).content);
+        if (e instanceof Literal) return ((Literal) e).value().isEmpty();
+        if (e instanceof SetExpression) return e.toRegex().length() == 0;
+        return e instanceof Anchor;
+    }
+
+    private boolean startsAnchored(final Expression expression) {
+        final Expression e = expand(expression);
+        if (e instanceof Anchor) {
+            final Anchor.Type type = ((Anchor) e).type();
+            return type == Anchor.Type.START_OF_TEXT || type == Anchor.Type.START_OF_LINE && !multiline;
+        }
+        if (e instanceof Concat) {
+            final List<Expression> children = ((Concat) e).children();
+            return !children.isEmpty() && startsAnchored(children.get(0));
+        }
+        if (e instanceof Group) {
+            final Group group = (Group) e; // a capture records the position first
+            return group.type() == Group.Type.NON_CAPTURE
+                    && !group.children().isEmpty() && startsAnchored(group.children().get(0));
+        }
+        return false;
+    }
+
+    private boolean endsAnchored(final Expression expression) {
+        final Expression e = expand(expression);
+        if (e instanceof Anchor) {
+            final Anchor.Type type = ((Anchor) e).type();
+            return type == Anchor.Type.END_OF_TEXT || !multiline
+                    && (type == Anchor.Type.END_OF_LINE || type == Anchor.Type.END_OF_LINE_CRLF);
+        }
+        if (e instanceof Concat) {
+            final List<Expression> children = ((Concat) e).children();
+            return !children.isEmpty() && endsAnchored(children.get(children.size() - 1));
+        }
+        if (e instanceof Group) {
+            final List<Expression> children = ((Group) e).children();
+            return ((Group) e).type() == Group.Type.NON_CAPTURE
+                    && !children.isEmpty() && endsAnchored(children.get(children.size() - 1));
+        }
+        if (e instanceof Alternation) {
+            for (final Expression alternative : ((Alternation) e).alternatives())
+                if (!endsAnchored(alternative)) return false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolves shared nodes and parses the expressions that are not
+     * tree nodes, so that every leaf can be inspected.
+     */
+    private static Expression expand(final Expression expression) {
+        if (expression instanceof Shared) return expand(((Shared) expression).node());
+        if (expression instanceof Fragment) {
+            final String regex = ((Fragment) expression).regex();
+            if (regex.startsWith("(?")) return new Flagged(regex);
+            final Expression parsed = RegexParser.parse(regex, false);
+            return parsed instanceof Fragment ? parsed : expand(parsed);
+        }
+        if (expression instanceof Node || expression instanceof SetExpression
+                || expression instanceof Flagged || expression instanceof CharClass) return expression;
+        return expand(RegexParser.parse(expression.toRegex().toString(), false));
+    }
+
+    private FirstSet chars(final int codepoint) {
+        final BitSet bits = new BitSet();
+        bits.set(codepoint);
+        if (caseInsensitive) {
+            bits.set(Character.toLowerCase(codepoint));
+            bits.set(Character.toUpperCase(codepoint));
+            bits.set(Character.toTitleCase(codepoint));
+        }
+        return new FirstSet(bits, false);
+    }
+
+    private FirstSet set(final SetExpression set) {
+        if (!set.isPlain()) return FirstSet.ANY;
+        FirstSet first = FirstSet.EMPTY;
+        for (final int codepoint : set.codepoints()) first = first.union(chars(codepoint));
+        return first;
+    }
+
+    private static int saturate(final long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A flag group. i.e. (?i:abc) or (?i)abc up to the end of the
+     * enclosing group.
+     */
+    private static final class Flagged implements Expression {
+
+        private final String regex;
+        private final String flags;
+        private final Expression content;
+
+        private Flagged(final String regex) {
+            this.regex = regex;
+            int end = 2;
+            while (regex.charAt(end) != COLON && regex.charAt(end) != PAREN_CLOSE) end++;
+            this.flags = regex.substring(2, end);
+            this.content = RegexParser.parse(regex.charAt(end) == COLON
+                    ? regex.substring(end + 1, regex.length() - 1)
+                    : regex.substring(end + 1), false);
+        }
+
+        private boolean ignoresCase() {
+            final int negation = flags.indexOf('-');
+            return flags.substring(0, negation == -1 ? flags.length() : negation).indexOf('i') != -1;
+        }
+
+        private void apply(final ComplexityEstimator estimator) {
+            final int negation = flags.indexOf('-');
+            for (int i = 0; i < flags.length(); i++) {
+                final boolean enabled = negation == -1 || i < negation;
+                if (flags.charAt(i) == 'm') estimator.multiline = enabled;
+                if (flags.charAt(i) == 'i') estimator.caseInsensitive = enabled;
+            }
+        }
+
+        @Override
+        public StringBuilder toRegex() {
+            return new StringBuilder(regex);
+        }
+
+    }
+
+    /**
+     * A run of single character and class alternatives that RE2J
+     * merges into one class. i.e. a|[0-9]|b
+     */
+    private static final class CharClass implements Expression {
+
+        private final List<Expression> members;
+
+        private CharClass(final List<Expression> members) {
+            this.members = members;
+        }
+
+        @Override
+        public StringBuilder toRegex() {
+            return new Group(Group.Type.NON_CAPTURE, null,
+                    Collections.singletonList(new Alternation(members))).toRegex();
+        }
+
+    }
+
+    private static final class Info {
+
+        private final long size; // instructions
+        private final long base; // instructions if each repetition was compiled once
+        private final boolean nullable; // whether it can match the empty string
+        private final FirstSet first; // characters it can start with
+
+        private Info(final long size, final long base, final boolean nullable, final FirstSet first) {
+            this.size = Math.min(size, Integer.MAX_VALUE);
+            this.base = Math.min(base, Integer.MAX_VALUE);
+            this.nullable = nullable;
+            this.first = first;
+        }
+
+    }
+
+    private static final class FirstSet {
+
+        private static final FirstSet EMPTY = new FirstSet(new BitSet(), false);
+        private static final FirstSet ANY = new FirstSet(new BitSet(), true);
+
+        private final BitSet chars;
+        private final boolean any;
+
+        private FirstSet(final BitSet chars, final boolean any) {
+            this.chars = chars;
+            this.any = any;
+        }
+
+        private boolean isEmpty() {
+            return !any && chars.isEmpty();
+        }
+
+        private FirstSet union(final FirstSet other) {
+            if (any || other.isEmpty()) return this;
+            if (other.any || isEmpty()) return other;
+            final BitSet union = (BitSet) chars.clone();
+            union.or(other.chars);
+            return new FirstSet(union, false);
+        }
+
+        private boolean intersects(final FirstSet other) {
+            if (any) return !other.isEmpty();
+            if (other.any) return !isEmpty();
+            return chars.intersects(other.chars);
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * AST :: Concatenation
+ * <p>
+ * A sequence of expressions. (a followed by b followed by c)
+ */
+public final class Concat extends Node {
+
+    private final List<Expression> children;
+    private int hash; // structural hash. computed once
+
+    public Concat(final List<? extends Expression> children) {
+        this.children = copyOf(children);
+    }
+
+    public List<Expression> children() {
+        return children;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        for (final Expression child : children) child.emitTo(out);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return estimatedLength(children);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof Concat && children.equals(((Concat) o).children);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash == 0) hash = children.hashCode();
+        return hash;
+    }
+
+    /**
+     * Creates a immutable copy of the children. Null children are
+     * rejected at construction instead of at synthesis.
+     *
+     * @param children child expressions
+     * @return unmodifiable list
+     */
+    static List<Expression> copyOf(final List<? extends Expression> children) {
+        final List<Expression> copy = new ArrayList<>(Objects.requireNonNull(children).size());
+        for (final Expression child : children) copy.add(Objects.requireNonNull(child));
+        return Collections.unmodifiableList(copy);
+    }
+
+}
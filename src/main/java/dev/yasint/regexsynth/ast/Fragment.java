@@ -0,0 +1,45 @@
+package dev.yasint.regexsynth.ast;
+
+import java.io.IOException;
+
+/**
+ * AST :: Fragment
+ * <p>
+ * A piece of regex text that is already synthesized. i.e. a cached
+ * integer range. Unlike a lambda expression two fragments with the
+ * same text are equal, so they can be shared by {@link HashConsing}.
+ * The text is emitted as it is and it's not inspected by the passes.
+ */
+public final class Fragment extends Node {
+
+    private final String regex;
+
+    public Fragment(final CharSequence regex) {
+        this.regex = regex.toString();
+    }
+
+    public String regex() {
+        return regex;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        out.append(regex);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return regex.length();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof Fragment && regex.equals(((Fragment) o).regex);
+    }
+
+    @Override
+    public int hashCode() {
+        return regex.hashCode();
+    }
+
+}
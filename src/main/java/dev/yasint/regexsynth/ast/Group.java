@@ -0,0 +1,80 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * AST :: Group
+ * <p>
+ * A non-capturing, capturing or named capturing group of a
+ * sequence of expressions. i.e. (?:...) (...) (?P&lt;name&gt;...)
+ * The name isn't checked here. The DSL checks its own naming rules
+ * and the parser accepts any name that RE2 accepts.
+ */
+public final class Group extends Node {
+
+    public enum Type {NON_CAPTURE, CAPTURE, NAMED}
+
+    private final Type type;
+    private final String name; // only for named groups
+    private final List<Expression> children;
+    private int hash; // structural hash. computed once
+
+    public Group(final Type type, final String name, final List<? extends Expression> children) {
+        this.type = Objects.requireNonNull(type);
+        if (type == Type.NAMED) this.name = Objects.requireNonNull(name);
+        else this.name = null;
+        this.children = Concat.copyOf(children);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<Expression> children() {
+        return children;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        out.append(PAREN_OPEN);
+        if (type == Type.NON_CAPTURE) {
+            out.append(QUESTION_MARK).append(COLON);
+        } else if (type == Type.NAMED) {
+            out.append(QUESTION_MARK)
+                    .append(NAMED_CAPTURE_GROUP_PREFIX)
+                    .append(LESS_THAN).append(name).append(GREATER_THAN);
+        }
+        for (final Expression child : children) child.emitTo(out);
+        out.append(PAREN_CLOSE);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return estimatedLength(children) + (name == null ? 4 : name.length() + 6);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Group)) return false;
+        final Group group = (Group) o;
+        return type == group.type && Objects.equals(name, group.name) && children.equals(group.children);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash == 0) hash = Objects.hash(type, name, children);
+        return hash;
+    }
+
+}
@@ -0,0 +1,143 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AST :: Redundant Group Elimination
+ * <p>
+ * Removes the non-capturing groups that don't change the precedence
+ * of the expression. A group is redundant when,
+ * <ul>
+ * <li>it's already bounded by a enclosing group, a alternation or the
+ * whole pattern. i.e. (?P&lt;p&gt;(?:a|b)) =&gt; (?P&lt;p&gt;a|b)</li>
+ * <li>it's concatenated and has no top level alternation.
+ * i.e. x(?:ab)y =&gt; xaby</li>
+ * <li>it's quantified and encloses a single atom.
+ * i.e. (?:[A-Za-z]){2,4} =&gt; [A-Za-z]{2,4} and (?:\/)? =&gt; \/?</li>
+ * </ul>
+ * Capturing groups are never removed. Expressions that are not tree
+ * nodes are kept as they are and only their emitted text is inspected.
+ */
+public final class GroupElimination {
+
+    private enum Context {
+        BOUNDED, // whole pattern, group content or a alternative
+        CONCAT, // element of a sequence
+        QUANTIFIED // operand of a quantifier
+    }
+
+    private GroupElimination() { }
+
+    /**
+     * Eliminates the redundant groups of a complete pattern. The root
+     * is considered as bounded, so the result must not be concatenated
+     * with other expressions.
+     *
+     * @param expression root of the pattern
+     * @return equivalent expression with fewer groups
+     */
+    public static Expression apply(final Expression expression) {
+        return eliminate(expression, Context.BOUNDED);
+    }
+
+    private static Expression eliminate(final Expression expression, final Context context) {
+
+        if (expression instanceof Concat) {
+            final List<Expression> children = ((Concat) expression).children();
+            if (children.size() == 1) return eliminate(children.get(0), context);
+            return new Concat(sequence(children));
+        }
+
+        if (expression instanceof Alternation) {
+            final List<Expression> alternatives = new ArrayList<>();
+            for (final Expression alternative : ((Alternation) expression).alternatives()) {
+                final Expression eliminated = eliminate(alternative, Context.BOUNDED);
+                // (?:a|b)|c => a|b|c alternation is associative
+                if (eliminated instanceof Alternation) alternatives.addAll(((Alternation) eliminated).alternatives());
+                else alternatives.add(eliminated);
+            }
+            return new Alternation(alternatives);
+        }
+
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            final Expression content = content(group.children());
+            if (group.type() != Group.Type.NON_CAPTURE) {
+                return new Group(group.type(), group.name(), Collections.singletonList(content));
+            }
+            switch (context) {
+                case BOUNDED:
+                    return content;
+                case CONCAT:
+                    if (!hasTopLevelAlternation(content)) return content;
+                    break;
+                case QUANTIFIED:
+                    if (isAtom(content)) return content;
+                    break;
+            }
+            return new Group(Group.Type.NON_CAPTURE, null, Collections.singletonList(content));
+        }
+
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            final Expression operand = eliminate(quantifier.operand(), Context.QUANTIFIED);
+            return new Quantifier(operand, quantifier.min(), quantifier.max(), !isAtom(operand));
+        }
+
+        if (expression instanceof LazyQuantifier) {
+            return new LazyQuantifier(eliminate(((LazyQuantifier) expression).quantifier(), context));
+        }
+
+        return expression; // leaf or not a tree node
+
+    }
+
+    /**
+     * Eliminates the children of a group. A single child is bounded by
+     * the group itself. Multiple children are a sequence.
+     */
+    private static Expression content(final List<Expression> children) {
+        if (children.size() == 1) return eliminate(children.get(0), Context.BOUNDED);
+        final List<Expression> sequence = sequence(children);
+        return sequence.size() == 1 ? sequence.get(0) : new Concat(sequence);
+    }
+
+    /**
+     * Eliminates the elements of a sequence and splices the nested
+     * sequences. i.e. a(?:bc)d => a, b, c, d
+     */
+    private static List<Expression> sequence(final List<Expression> children) {
+        final List<Expression> sequence = new ArrayList<>(children.size());
+        for (final Expression child : children) {
+            final Expression eliminated = eliminate(child, Context.CONCAT);
+            if (eliminated instanceof Concat) sequence.addAll(((Concat) eliminated).children());
+            else sequence.add(eliminated);
+        }
+        return sequence;
+    }
+
+    private static boolean isAtom(final Expression expression) {
+        if (expression instanceof Group || expression instanceof UnicodeClass) return true;
+        if (expression instanceof Quantifier || expression instanceof LazyQuantifier) return false;
+        if (expression instanceof Anchor || expression instanceof Concat || expression instanceof Alternation)
+            return false;
+        return Syntax.isAtom(expression.toRegex());
+    }
+
+    static boolean hasTopLevelAlternation(final Expression expression) {
+        if (expression instanceof Alternation) return ((Alternation) expression).alternatives().size() > 1;
+        if (expression instanceof Group || expression instanceof UnicodeClass || expression instanceof Anchor
+                || expression instanceof Quantifier || expression instanceof LazyQuantifier) return false;
+        if (expression instanceof Concat) {
+            for (final Expression child : ((Concat) expression).children())
+                if (hasTopLevelAlternation(child)) return true;
+            return false;
+        }
+        return Syntax.hasTopLevelAlternation(expression.toRegex());
+    }
+
+}
@@ -0,0 +1,34 @@
+package dev.yasint.regexsynth.ast;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AST :: Group Names
+ * <p>
+ * Maps the names of the named capturing groups of a pattern to their
+ * indices. i.e. (\d+)-(?P&lt;month&gt;\d+) =&gt; {month=2} The table is
+ * computed once when the pattern is synthesized, so a match can be
+ * read by name without parsing the pattern again.
+ */
+public final class GroupNames {
+
+    private GroupNames() { }
+
+    /**
+     * Indexes the named capturing groups of a emitted pattern.
+     *
+     * @param regex emitted expression
+     * @return unmodifiable map of name to group index
+     */
+    public static Map<String, Integer> of(final CharSequence regex) {
+        final List<String> names = Syntax.captureNames(regex);
+        final Map<String, Integer> indices = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++)
+            if (names.get(i) != null) indices.putIfAbsent(names.get(i), i + 1);
+        return Collections.unmodifiableMap(indices);
+    }
+
+}
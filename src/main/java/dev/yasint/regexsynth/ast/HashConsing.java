@@ -0,0 +1,138 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AST :: Hash Consing
+ * <p>
+ * Turns the expression tree into a DAG where structurally equal
+ * subtrees are one shared node. i.e. the three integerRange(0, 255)
+ * of a rgba pattern. Nodes are compared by their structural hash
+ * and equality, and expressions that are not tree nodes are compared
+ * by identity.
+ * <p>
+ * A shared subtree that is referenced more than once is synthesized
+ * only on its first emit. Literals, anchors, unicode classes and
+ * fragments are already plain text, so they are not wrapped. The
+ * result is meant to be emitted, so apply this after the other passes.
+ */
+public final class HashConsing {
+
+    private final Map<Expression, Expression> table = new HashMap<>(); // canonical nodes
+    private final Map<Expression, Integer> references = new IdentityHashMap<>();
+    private final Map<Expression, Expression> shared = new IdentityHashMap<>();
+
+    private HashConsing() { }
+
+    /**
+     * Shares the structurally equal subtrees of a pattern.
+     *
+     * @param expression root of the tree
+     * @return equivalent expression DAG
+     */
+    public static Expression apply(final Expression expression) {
+        final HashConsing consing = new HashConsing();
+        final Expression canonical = consing.intern(expression);
+        consing.count(canonical);
+        return consing.share(canonical);
+    }
+
+    /**
+     * Rebuilds the tree bottom-up with canonical children and returns
+     * the canonical instance of the rebuilt node.
+     */
+    private Expression intern(final Expression expression) {
+        final Expression rebuilt;
+        if (expression instanceof Concat) {
+            rebuilt = new Concat(internAll(((Concat) expression).children()));
+        } else if (expression instanceof Alternation) {
+            rebuilt = new Alternation(internAll(((Alternation) expression).alternatives()));
+        } else if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            rebuilt = new Group(group.type(), group.name(), internAll(group.children()));
+        } else if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            rebuilt = new Quantifier(intern(quantifier.operand()),
+                    quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        } else if (expression instanceof LazyQuantifier) {
+            rebuilt = new LazyQuantifier(intern(((LazyQuantifier) expression).quantifier()));
+        } else {
+            rebuilt = expression;
+        }
+        final Expression canonical = table.putIfAbsent(rebuilt, rebuilt);
+        return canonical == null ? rebuilt : canonical;
+    }
+
+    private List<Expression> internAll(final List<Expression> expressions) {
+        final List<Expression> interned = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) interned.add(intern(expression));
+        return interned;
+    }
+
+    /**
+     * Counts the references of each canonical node. The children of a
+     * node are only counted on its first reference, because a shared
+     * node emits its children only once.
+     */
+    private void count(final Expression expression) {
+        if (references.merge(expression, 1, Integer::sum) > 1) return;
+        for (final Expression child : children(expression)) count(child);
+    }
+
+    /**
+     * Rebuilds the DAG and wraps the nodes that are referenced more
+     * than once. Every reference gets the same wrapper instance.
+     */
+    private Expression share(final Expression expression) {
+        final Expression existing = shared.get(expression);
+        if (existing != null) return existing;
+        Expression result;
+        if (expression instanceof Concat) {
+            result = new Concat(shareAll(((Concat) expression).children()));
+        } else if (expression instanceof Alternation) {
+            result = new Alternation(shareAll(((Alternation) expression).alternatives()));
+        } else if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            result = new Group(group.type(), group.name(), shareAll(group.children()));
+        } else if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            result = new Quantifier(share(quantifier.operand()),
+                    quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        } else if (expression instanceof LazyQuantifier) {
+            result = new LazyQuantifier(share(((LazyQuantifier) expression).quantifier()));
+        } else {
+            result = expression;
+        }
+        if (references.get(expression) > 1 && !isText(expression)) result = new Shared(result);
+        shared.put(expression, result);
+        return result;
+    }
+
+    private List<Expression> shareAll(final List<Expression> expressions) {
+        final List<Expression> result = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) result.add(share(expression));
+        return result;
+    }
+
+    private static List<Expression> children(final Expression expression) {
+        if (expression instanceof Concat) return ((Concat) expression).children();
+        if (expression instanceof Alternation) return ((Alternation) expression).alternatives();
+        if (expression instanceof Group) return ((Group) expression).children();
+        final List<Expression> children = new ArrayList<>(1);
+        if (expression instanceof Quantifier) children.add(((Quantifier) expression).operand());
+        if (expression instanceof LazyQuantifier) children.add(((LazyQuantifier) expression).quantifier());
+        return children;
+    }
+
+    private static boolean isText(final Expression expression) {
+        return expression instanceof Literal || expression instanceof Anchor
+                || expression instanceof UnicodeClass || expression instanceof Fragment;
+    }
+
+}
@@ -0,0 +1,93 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.dsl.Numeric;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * AST :: Hole
+ * <p>
+ * A named slot of a template that is filled when the template is
+ * instantiated. A hole is typed, it's filled with a literal string,
+ * a set or a integer range. Until then it emits a marker of its type
+ * and name that is not a valid regex, so a template can be synthesized
+ * once and the markers are replaced by the values. The passes don't inspect it,
+ * so a quantified hole keeps its non-capturing group.
+ */
+public final class Hole extends Node {
+
+    public enum Type {LITERAL, SET, INTEGER_RANGE}
+
+    public static final char MARKER_START = '\uFDD0'; // noncharacters
+    public static final char MARKER_END = '\uFDD1';
+
+    private final Type type;
+    private final String name;
+
+    public Hole(final Type type, final String name) {
+        this.type = Objects.requireNonNull(type);
+        this.name = Objects.requireNonNull(name);
+        if (name.isEmpty() || name.indexOf(MARKER_START) >= 0 || name.indexOf(MARKER_END) >= 0)
+            throw new IllegalArgumentException("invalid hole name: " + name);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Creates the expression that fills this hole. A literal hole
+     * takes a String, a set hole a {@link SetExpression} and a integer
+     * range hole a int[] of the inclusive bounds.
+     *
+     * @param value value of the matching type
+     * @return value expression
+     * @throws IllegalArgumentException if the value doesn't fit
+     */
+    public Expression fill(final Object value) {
+        switch (type) {
+            case LITERAL:
+                if (value instanceof String) return new Literal((String) value, false);
+                break;
+            case SET:
+                if (value instanceof SetExpression) return (SetExpression) value;
+                break;
+            case INTEGER_RANGE:
+                if (value instanceof int[] && ((int[]) value).length == 2)
+                    return Numeric.integerRange(((int[]) value)[0], ((int[]) value)[1]);
+                break;
+        }
+        throw new IllegalArgumentException("hole " + name + " takes a " + type.name().toLowerCase().replace('_', ' ') + " value");
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        out.append(MARKER_START).append(Character.forDigit(type.ordinal(), 10)).append(name).append(MARKER_END);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return name.length() + 3;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Hole)) return false;
+        final Hole hole = (Hole) o;
+        return type == hole.type && name.equals(hole.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name);
+    }
+
+}
@@ -0,0 +1,49 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.dsl.Repetition.ReluctantQuantifier;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.QUESTION_MARK;
+
+/**
+ * AST :: Lazy Quantifier
+ * <p>
+ * Makes a greedy quantifier reluctant. <code>*? ?? +? {x,}?</code>
+ */
+public final class LazyQuantifier extends Node implements ReluctantQuantifier {
+
+    private final Expression quantifier;
+
+    public LazyQuantifier(final Expression quantifier) {
+        this.quantifier = Objects.requireNonNull(quantifier);
+    }
+
+    public Expression quantifier() {
+        return quantifier;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        quantifier.emitTo(out);
+        out.append(QUESTION_MARK);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return quantifier.estimatedLength() + 1;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof LazyQuantifier && quantifier.equals(((LazyQuantifier) o).quantifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * quantifier.hashCode() + 7;
+    }
+
+}
@@ -0,0 +1,59 @@
+package dev.yasint.regexsynth.ast;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.QUOTE_END;
+import static dev.yasint.regexsynth.api.MetaCharacters.QUOTE_START;
+import static dev.yasint.regexsynth.util.Common.asRegexLiteral;
+
+/**
+ * AST :: Literal
+ * <p>
+ * A literal string. The reserved characters are escaped using the
+ * backslash or the whole string is quoted using \Q...\E
+ */
+public final class Literal extends Node {
+
+    private final String value;
+    private final boolean quoted;
+    private final String regex; // escaped or quoted value
+
+    public Literal(final String value, final boolean quoted) {
+        this.value = Objects.requireNonNull(value);
+        this.quoted = quoted;
+        this.regex = quoted ? QUOTE_START + value + QUOTE_END : asRegexLiteral(value);
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public boolean isQuoted() {
+        return quoted;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        out.append(regex);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return regex.length();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Literal)) return false;
+        final Literal literal = (Literal) o;
+        return quoted == literal.quoted && value.equals(literal.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, quoted);
+    }
+
+}
@@ -0,0 +1,489 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntPredicate;
+
+/**
+ * AST :: Multi-Pattern Match Automaton
+ * <p>
+ * Compiles many patterns into one automaton that finds which of them
+ * match anywhere in a input with a single scan, like RE2's RE2::Set.
+ * The patterns are compiled into one NFA and it's run as a lazy DFA.
+ * A DFA state is the set of NFA states that are alive after a input
+ * position, so the states and their transitions are built on demand
+ * and cached. Once warm, every character costs one cached transition
+ * no matter how many patterns there are.
+ * <p>
+ * A anchored automaton only starts the patterns at the position the
+ * scan starts from. It finds the longest prefix that a pattern matches,
+ * which is how a tokenizer reads its next token.
+ * <p>
+ * Only the match is reported, so captures and the preference between
+ * greedy and lazy quantifiers don't matter. The single characters of
+ * sets with unicode classes, unicode classes and case insensitive
+ * literals are tested by RE2J, so they match exactly like the compiled
+ * patterns. The cache is flushed when it grows beyond its budget. An
+ * automaton can be shared by many threads.
+ */
+public final class MatchAutomaton {
+
+    private static final int END = -1; // end of input symbol
+    private static final int ASCII = 128;
+
+    // context of a position, what precedes it
+    private static final int AT_START = 1;
+    private static final int AFTER_WORD = 2;
+    private static final int AFTER_NEWLINE = 4;
+
+    private final List<Inst> program = new ArrayList<>();
+    private final Map<String, IntPredicate> predicates = new HashMap<>(); // single character classes
+    private final int patterns;
+    private final boolean multiline;
+    private final boolean dotAll;
+    private final boolean caseInsensitive;
+    private final int maxStates;
+    private final boolean anchored;
+    private final int root; // forks into the start of every pattern
+
+    private volatile Map<StateKey, State> states = new ConcurrentHashMap<>();
+    private volatile State[] starts = new State[8]; // start state of each context
+
+    private MatchAutomaton(final List<String> regexes, final boolean multiline, final boolean dotAll,
+                           final boolean caseInsensitive, final int maxStates, final boolean anchored) {
+        this.anchored = anchored;
+        this.patterns = regexes.size();
+        this.multiline = multiline;
+        this.dotAll = dotAll;
+        this.caseInsensitive = caseInsensitive;
+        this.maxStates = maxStates;
+        final int[] starts = new int[patterns];
+        for (int i = 0; i < patterns; i++) {
+            final Expression pattern = RegexParser.parse(regexes.get(i), false);
+            if (!supports(pattern))
+                throw new IllegalArgumentException("flag groups are not supported: " + regexes.get(i));
+            starts[i] = compile(pattern, add(Inst.match(i)));
+        }
+        this.root = add(Inst.fork(starts));
+    }
+
+    /**
+     * Compiles the patterns into a automaton. The id of a pattern is
+     * its index in the list.
+     *
+     * @param regexes         RE2 patterns without flag groups
+     * @param multiline       whether ^ and $ match at line boundaries
+     * @param dotAll          whether . matches \n
+     * @param caseInsensitive whether letters match both cases
+     * @param maxStates       number of cached DFA states before a flush
+     * @return automaton of all the patterns
+     * @throws IllegalArgumentException if a pattern isn't supported
+     */
+    public static MatchAutomaton compile(final List<String> regexes, final boolean multiline,
+                                         final boolean dotAll, final boolean caseInsensitive,
+                                         final int maxStates) {
+        if (maxStates < 2) throw new IllegalArgumentException("at least 2 states are required");
+        return new MatchAutomaton(regexes, multiline, dotAll, caseInsensitive, maxStates, false);
+    }
+
+    /**
+     * Compiles the patterns into a anchored automaton. The patterns only
+     * start at the position a scan starts from. See {@link #longest}
+     *
+     * @param regexes         RE2 patterns without flag groups
+     * @param multiline       whether ^ and $ match at line boundaries
+     * @param dotAll          whether . matches \n
+     * @param caseInsensitive whether letters match both cases
+     * @param maxStates       number of cached DFA states before a flush
+     * @return anchored automaton of all the patterns
+     * @throws IllegalArgumentException if a pattern isn't supported
+     */
+    public static MatchAutomaton compileAnchored(final List<String> regexes, final boolean multiline,
+                                                 final boolean dotAll, final boolean caseInsensitive,
+                                                 final int maxStates) {
+        if (maxStates < 2) throw new IllegalArgumentException("at least 2 states are required");
+        return new MatchAutomaton(regexes, multiline, dotAll, caseInsensitive, maxStates, true);
+    }
+
+    /**
+     * Checks whether a pattern can be compiled into a automaton. Flag
+     * groups i.e. (?i:...) change how their content matches, so they
+     * can't be described by the tree.
+     *
+     * @param regex RE2 pattern
+     * @return true if it's supported
+     */
+    public static boolean supports(final String regex) {
+        return supports(RegexParser.parse(regex, false));
+    }
+
+    private static boolean supports(final Expression expression) {
+        if (expression instanceof Fragment) return !((Fragment) expression).regex().startsWith("(?");
+        if (expression instanceof Concat) return supportsAll(((Concat) expression).children());
+        if (expression instanceof Group) return supportsAll(((Group) expression).children());
+        if (expression instanceof Alternation) return supportsAll(((Alternation) expression).alternatives());
+        if (expression instanceof Quantifier) return supports(((Quantifier) expression).operand());
+        if (expression instanceof LazyQuantifier) return supports(((LazyQuantifier) expression).quantifier());
+        return expression instanceof Literal || expression instanceof Anchor
+                || expression instanceof SetExpression || expression instanceof UnicodeClass;
+    }
+
+    private static boolean supportsAll(final List<Expression> expressions) {
+        for (final Expression expression : expressions) if (!supports(expression)) return false;
+        return true;
+    }
+
+    /**
+     * Finds which patterns match anywhere in the input.
+     *
+     * @param input text to scan
+     * @return ids of the matching patterns
+     */
+    public BitSet match(final CharSequence input) {
+        final BitSet matched = new BitSet(patterns);
+        State state = start(input, 0);
+        for (int i = 0; i < input.length(); ) {
+            final int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            final Transition transition = state.next(c);
+            if (transition.matches != null) {
+                matched.or(transition.matches);
+                if (matched.cardinality() == patterns) return matched;
+            }
+            state = transition.state;
+        }
+        final Transition end = state.next(END);
+        if (end.matches != null) matched.or(end.matches);
+        return matched;
+    }
+
+    /**
+     * Finds the longest non-empty match that starts at the position.
+     * When more than one pattern matches the longest prefix, the one
+     * with the lowest id wins.
+     *
+     * @param input   text to scan
+     * @param from    start of the match
+     * @param pattern receives the id of the matching pattern at [0]
+     * @return end of the match or -1 if no pattern matches
+     */
+    public int longest(final CharSequence input, final int from, final int[] pattern) {
+        int end = -1;
+        State state = start(input, from);
+        for (int i = from; i < input.length(); ) {
+            final int c = Character.codePointAt(input, i);
+            final Transition transition = state.next(c);
+            if (transition.matches != null && i > from) {
+                end = i;
+                pattern[0] = transition.matches.nextSetBit(0);
+            }
+            if (transition.state.key.kernel.length == 0) return end; // no pattern is alive
+            i += Character.charCount(c);
+            state = transition.state;
+        }
+        final Transition transition = state.next(END);
+        if (transition.matches != null && input.length() > from) {
+            end = input.length();
+            pattern[0] = transition.matches.nextSetBit(0);
+        }
+        return end;
+    }
+
+    public int patterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the number of cached DFA states.
+     *
+     * @return states since the last flush
+     */
+    public int states() {
+        return states.size();
+    }
+
+    // NFA construction. Each expression is compiled in front of what follows it.
+
+    /**
+     * Returns the start state of a scan from the position. It depends
+     * on what precedes the position.
+     */
+    private State start(final CharSequence input, final int from) {
+        int context = from == 0 ? AT_START : 0;
+        if (from > 0) {
+            final int previous = Character.codePointBefore(input, from);
+            if (isWord(previous)) context |= AFTER_WORD;
+            if (previous == '\n') context |= AFTER_NEWLINE;
+        }
+        final State[] cached = starts;
+        State state = cached[context];
+        if (state == null) cached[context] = state = state(anchored ? new int[]{root} : new int[0], context);
+        return state;
+    }
+
+    private int compile(final Expression expression, final int next) {
+        if (expression instanceof Concat) return compileAll(((Concat) expression).children(), next);
+        if (expression instanceof Group) return compileAll(((Group) expression).children(), next);
+        if (expression instanceof Alternation) {
+            final List<Expression> alternatives = ((Alternation) expression).alternatives();
+            final int[] starts = new int[alternatives.size()];
+            for (int i = 0; i < starts.length; i++) starts[i] = compile(alternatives.get(i), next);
+            return add(Inst.fork(starts));
+        }
+        if (expression instanceof LazyQuantifier) return compile(((LazyQuantifier) expression).quantifier(), next);
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            int tail = next;
+            if (quantifier.max() == Quantifier.UNBOUNDED) { // x* loops back to itself
+                final Inst loop = Inst.fork(new int[]{-1, next});
+                tail = add(loop);
+                loop.outs[0] = compile(quantifier.operand(), tail);
+            } else {
+                for (int i = quantifier.min(); i < quantifier.max(); i++) { // (x(x)?)?
+                    tail = add(Inst.fork(new int[]{compile(quantifier.operand(), tail), next}));
+                }
+            }
+            for (int i = 0; i < quantifier.min(); i++) tail = compile(quantifier.operand(), tail);
+            return tail;
+        }
+        if (expression instanceof Literal) {
+            final String value = ((Literal) expression).value();
+            int tail = next;
+            for (int i = value.length(); i > 0; ) {
+                final int codepoint = value.codePointBefore(i);
+                i -= Character.charCount(codepoint);
+                tail = add(Inst.character(literal(codepoint), tail));
+            }
+            return tail;
+        }
+        if (expression instanceof Anchor) return add(Inst.assertion(((Anchor) expression).type(), next));
+        if (expression instanceof SetExpression && ((SetExpression) expression).isPlain() && !caseInsensitive) {
+            final Set<Integer> codepoints = ((SetExpression) expression).codepoints();
+            return add(Inst.character(codepoints::contains, next));
+        }
+        // a set with unicode classes, a unicode class, . or a class kept as text
+        return add(Inst.character(predicate(expression.toRegex().toString()), next));
+    }
+
+    private int compileAll(final List<Expression> sequence, final int next) {
+        int tail = next;
+        for (int i = sequence.size() - 1; i >= 0; i--) tail = compile(sequence.get(i), tail);
+        return tail;
+    }
+
+    private IntPredicate literal(final int codepoint) {
+        if (!caseInsensitive) return c -> c == codepoint;
+        return predicate(Pattern.quote(new String(Character.toChars(codepoint))));
+    }
+
+    private IntPredicate predicate(final String regex) {
+        return predicates.computeIfAbsent(regex, r -> {
+            int flags = 0;
+            if (dotAll) flags |= Pattern.DOTALL;
+            if (caseInsensitive) flags |= Pattern.CASE_INSENSITIVE;
+            final Pattern pattern = Pattern.compile(r, flags);
+            return c -> pattern.matches(new String(Character.toChars(c)));
+        });
+    }
+
+    private int add(final Inst inst) {
+        program.add(inst);
+        return program.size() - 1;
+    }
+
+    // Lazy DFA
+
+    private State state(final int[] kernel, final int context) {
+        Map<StateKey, State> cache = states;
+        if (cache.size() >= maxStates) { // flush. states in use stay valid until their scan ends
+            synchronized (this) {
+                if (states.size() >= maxStates) {
+                    states = new ConcurrentHashMap<>();
+                    starts = new State[8];
+                }
+                cache = states;
+            }
+        }
+        return cache.computeIfAbsent(new StateKey(kernel, context), State::new);
+    }
+
+    /**
+     * Follows the empty transitions of the kernel, and of the start of
+     * every pattern unless anchored, at a position and then consumes the
+     * symbol after it.
+     */
+    private Transition step(final StateKey from, final int symbol) {
+        final BitSet visited = new BitSet(program.size());
+        final BitSet kernel = new BitSet(program.size());
+        BitSet matches = null;
+        int[] stack = new int[program.size() + 1];
+        int top = 0;
+        for (final int inst : from.kernel) stack[top++] = inst;
+        if (!anchored) stack[top++] = root;
+        while (top > 0) {
+            final int index = stack[--top];
+            if (visited.get(index)) continue;
+            visited.set(index);
+            final Inst inst = program.get(index);
+            switch (inst.kind) {
+                case Inst.CHARACTER:
+                    if (symbol != END && inst.predicate.test(symbol)) kernel.set(inst.outs[0]);
+                    break;
+                case Inst.FORK:
+                    if (top + inst.outs.length > stack.length)
+                        stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + inst.outs.length));
+                    for (int i = inst.outs.length - 1; i >= 0; i--)
+                        if (!visited.get(inst.outs[i])) stack[top++] = inst.outs[i];
+                    break;
+                case Inst.ASSERTION: // replaces itself on the stack, so it always fits
+                    if (holds(inst.anchor, from.context, symbol) && !visited.get(inst.outs[0]))
+                        stack[top++] = inst.outs[0];
+                    break;
+                default: // match
+                    if (matches == null) matches = new BitSet(patterns);
+                    matches.set(inst.pattern);
+            }
+        }
+        if (symbol == END) return new Transition(null, matches);
+        int context = 0;
+        if (isWord(symbol)) context |= AFTER_WORD;
+        if (symbol == '\n') context |= AFTER_NEWLINE;
+        return new Transition(state(kernel.stream().toArray(), context), matches);
+    }
+
+    private boolean holds(final Anchor.Type anchor, final int context, final int next) {
+        switch (anchor) {
+            case START_OF_TEXT:
+                return (context & AT_START) != 0;
+            case START_OF_LINE:
+                return (context & AT_START) != 0 || multiline && (context & AFTER_NEWLINE) != 0;
+            case END_OF_TEXT:
+                return next == END;
+            case WORD_BOUNDARY:
+                return ((context & AFTER_WORD) != 0) != isWord(next);
+            case NON_WORD_BOUNDARY:
+                return ((context & AFTER_WORD) != 0) == isWord(next);
+            default: // $
+                return next == END || multiline && next == '\n';
+        }
+    }
+
+    private static boolean isWord(final int c) {
+        return c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '_';
+    }
+
+    private static final class Inst {
+
+        static final int CHARACTER = 0, FORK = 1, ASSERTION = 2, MATCH = 3;
+
+        final int kind;
+        final int[] outs;
+        final IntPredicate predicate;
+        final Anchor.Type anchor;
+        final int pattern;
+
+        private Inst(final int kind, final int[] outs, final IntPredicate predicate,
+                     final Anchor.Type anchor, final int pattern) {
+            this.kind = kind;
+            this.outs = outs;
+            this.predicate = predicate;
+            this.anchor = anchor;
+            this.pattern = pattern;
+        }
+
+        static Inst character(final IntPredicate predicate, final int next) {
+            return new Inst(CHARACTER, new int[]{next}, predicate, null, -1);
+        }
+
+        static Inst fork(final int[] outs) {
+            return new Inst(FORK, outs, null, null, -1);
+        }
+
+        static Inst assertion(final Anchor.Type anchor, final int next) {
+            return new Inst(ASSERTION, new int[]{next}, null, anchor, -1);
+        }
+
+        static Inst match(final int pattern) {
+            return new Inst(MATCH, new int[0], null, null, pattern);
+        }
+
+    }
+
+    private static final class StateKey {
+
+        final int[] kernel; // sorted NFA states reached by the last symbol
+        final int context;
+        final int hash;
+
+        StateKey(final int[] kernel, final int context) {
+            this.kernel = kernel;
+            this.context = context;
+            this.hash = 31 * Arrays.hashCode(kernel) + context;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StateKey)) return false;
+            final StateKey key = (StateKey) o;
+            return context == key.context && Arrays.equals(kernel, key.kernel);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    private final class State {
+
+        private final StateKey key;
+        private final AtomicReferenceArray<Transition> ascii = new AtomicReferenceArray<>(ASCII);
+        private final Map<Integer, Transition> others = new ConcurrentHashMap<>();
+        private volatile Transition end;
+
+        State(final StateKey key) {
+            this.key = key;
+        }
+
+        Transition next(final int symbol) {
+            if (symbol >= 0 && symbol < ASCII) {
+                Transition transition = ascii.get(symbol);
+                if (transition == null) ascii.set(symbol, transition = step(key, symbol));
+                return transition;
+            }
+            if (symbol == END) {
+                Transition transition = end;
+                if (transition == null) end = transition = step(key, symbol);
+                return transition;
+            }
+            return others.computeIfAbsent(symbol, s -> step(key, s));
+        }
+
+    }
+
+    private static final class Transition {
+
+        final State state;
+        final BitSet matches; // patterns that matched before the symbol, null if none
+
+        Transition(final State state, final BitSet matches) {
+            this.state = state;
+            this.matches = matches;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Base of the tree nodes. Nodes only implement the streaming
+ * {@link #emitTo(Appendable)} and the {@link #toRegex()} is
+ * derived from it with a pre-sized buffer.
+ */
+abstract class Node implements Expression {
+
+    @Override
+    public final StringBuilder toRegex() {
+        final StringBuilder expression = new StringBuilder(estimatedLength());
+        try {
+            emitTo(expression);
+        } catch (IOException e) { // never thrown by StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return expression;
+    }
+
+    @Override
+    public abstract void emitTo(Appendable out) throws IOException;
+
+    static int estimatedLength(final List<Expression> children) {
+        int length = 0;
+        for (final Expression child : children) length += child.estimatedLength();
+        return length;
+    }
+
+}
@@ -0,0 +1,190 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * AST :: One-Pass Rewriter
+ * <p>
+ * Restructures the alternations of a pattern so that every branch
+ * starts with a different character, which is one of the conditions
+ * of the one-pass matcher. The first characters of the branches are
+ * partitioned into disjoint blocks and the branches that share a block
+ * are factored. i.e. 3[01]|[12][0-9]|[1-9] =&gt; 3[01]?|[12][0-9]?|[4-9]
+ * <p>
+ * The rewrite may reorder branches, so it's only used when the result
+ * is one-pass. A one-pass pattern matches a string in exactly one way,
+ * so it matches and captures exactly like the original. Otherwise the
+ * original pattern is returned. Use {@link ComplexityEstimator} to
+ * find what still prevents a pattern from being one-pass.
+ */
+public final class OnePassRewriter {
+
+    private OnePassRewriter() { }
+
+    /**
+     * Rewrites a pattern into a one-pass pattern if it can.
+     *
+     * @param expression      root of the tree
+     * @param multiline       whether ^ and $ match at line boundaries
+     * @param caseInsensitive whether letters match both cases
+     * @return one-pass equivalent or the expression itself
+     */
+    public static Expression apply(final Expression expression, final boolean multiline,
+                                   final boolean caseInsensitive) {
+        if (ComplexityEstimator.estimate(expression, multiline, caseInsensitive).isOnePass()) return expression;
+        final StringBuilder regex = new StringBuilder(expression.estimatedLength());
+        try {
+            expression.emitTo(regex);
+        } catch (java.io.IOException e) { // never thrown by StringBuilder
+            throw new java.io.UncheckedIOException(e);
+        }
+        // parsed without tries, so that the trie branches can be restructured too
+        final Expression rewritten = Simplifier.apply(rewrite(RegexParser.parse(regex.toString(), false)));
+        return ComplexityEstimator.estimate(rewritten, multiline, caseInsensitive).isOnePass()
+                ? rewritten : expression;
+    }
+
+    private static Expression rewrite(final Expression expression) {
+        if (expression instanceof Concat) return new Concat(rewriteAll(((Concat) expression).children()));
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            return new Group(group.type(), group.name(), rewriteAll(group.children()));
+        }
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            return new Quantifier(rewrite(quantifier.operand()),
+                    quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        }
+        if (expression instanceof LazyQuantifier) {
+            return new LazyQuantifier(rewrite(((LazyQuantifier) expression).quantifier()));
+        }
+        if (expression instanceof Alternation) {
+            return partition(rewriteAll(((Alternation) expression).alternatives()));
+        }
+        return expression;
+    }
+
+    private static List<Expression> rewriteAll(final List<Expression> expressions) {
+        final List<Expression> rewritten = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) rewritten.add(rewrite(expression));
+        return rewritten;
+    }
+
+    /**
+     * Partitions the first characters of the branches into blocks of
+     * characters that start the same branches, and factors each block.
+     * The branches are kept as they are if one of them doesn't start
+     * with a single character or a plain set, or if one of them has a
+     * capturing group that factoring could duplicate or renumber.
+     */
+    private static Expression partition(final List<Expression> alternatives) {
+        for (final Expression alternative : alternatives)
+            if (Simplifier.hasCapture(alternative)) return new Alternation(alternatives);
+        final List<TreeSet<Integer>> heads = new ArrayList<>(alternatives.size());
+        final List<List<Expression>> rests = new ArrayList<>(alternatives.size());
+        for (final Expression alternative : alternatives) {
+            final List<Expression> elements = elements(alternative);
+            final TreeSet<Integer> head = elements.isEmpty() ? null : head(elements.get(0));
+            if (head == null) return new Alternation(alternatives);
+            heads.add(head);
+            rests.add(rest(elements));
+        }
+
+        // character => branches it can start
+        final Map<Integer, BitSet> starts = new TreeMap<>();
+        for (int i = 0; i < heads.size(); i++)
+            for (final int codepoint : heads.get(i))
+                starts.computeIfAbsent(codepoint, c -> new BitSet()).set(i);
+        // branches => block of characters, ordered by the first branch
+        final Map<BitSet, TreeSet<Integer>> blocks = new TreeMap<>((a, b) -> {
+            for (int i = 0; ; i++) {
+                if (a.get(i) != b.get(i)) return a.get(i) ? -1 : 1;
+                if (i >= a.length() && i >= b.length()) return 0;
+            }
+        });
+        for (final Map.Entry<Integer, BitSet> start : starts.entrySet())
+            blocks.computeIfAbsent(start.getValue(), b -> new TreeSet<>()).add(start.getKey());
+
+        final List<Expression> branches = new ArrayList<>(blocks.size());
+        for (final Map.Entry<BitSet, TreeSet<Integer>> block : blocks.entrySet()) {
+            final List<Expression> continuations = new ArrayList<>();
+            final List<Expression> empty = new ArrayList<>(1);
+            final BitSet members = block.getKey();
+            for (int i = members.nextSetBit(0); i >= 0; i = members.nextSetBit(i + 1)) {
+                final List<Expression> rest = rests.get(i);
+                if (rest.isEmpty()) {
+                    if (empty.isEmpty()) empty.add(new Concat(Collections.emptyList()));
+                } else {
+                    continuations.add(rest.size() == 1 ? rest.get(0) : new Concat(rest));
+                }
+            }
+            continuations.addAll(empty); // x| => x?
+            final List<Expression> branch = new ArrayList<>(2);
+            branch.add(character(block.getValue()));
+            if (continuations.size() == 1 && empty.isEmpty()) {
+                branch.add(continuations.get(0));
+            } else if (continuations.size() > 1) {
+                branch.add(new Group(Group.Type.NON_CAPTURE, null,
+                        Collections.singletonList(partition(continuations))));
+            }
+            branches.add(branch.size() == 1 ? branch.get(0) : new Concat(branch));
+        }
+        return branches.size() == 1 ? branches.get(0) : new Alternation(branches);
+    }
+
+    /**
+     * Splits a branch into its sequence of elements. Literals are split
+     * after the first character.
+     */
+    private static List<Expression> elements(final Expression alternative) {
+        final List<Expression> elements = new ArrayList<>();
+        if (alternative instanceof Concat) {
+            elements.addAll(((Concat) alternative).children());
+        } else if (alternative instanceof Group && ((Group) alternative).type() == Group.Type.NON_CAPTURE
+                && !GroupElimination.hasTopLevelAlternation(new Concat(((Group) alternative).children()))) {
+            elements.addAll(((Group) alternative).children());
+        } else {
+            elements.add(alternative);
+        }
+        if (!elements.isEmpty() && elements.get(0) instanceof Literal) {
+            final Literal literal = (Literal) elements.get(0);
+            final String value = literal.value();
+            if (value.isEmpty()) return elements.subList(1, elements.size());
+            final int next = value.offsetByCodePoints(0, 1);
+            elements.set(0, new Literal(value.substring(0, next), literal.isQuoted()));
+            if (next < value.length()) elements.add(1, new Literal(value.substring(next), literal.isQuoted()));
+        }
+        return elements;
+    }
+
+    private static TreeSet<Integer> head(final Expression element) {
+        if (element instanceof Literal) {
+            return new TreeSet<>(Collections.singleton(((Literal) element).value().codePointAt(0)));
+        }
+        if (element instanceof SetExpression && ((SetExpression) element).isPlain()) {
+            return new TreeSet<>(((SetExpression) element).codepoints());
+        }
+        return null;
+    }
+
+    private static List<Expression> rest(final List<Expression> elements) {
+        return new ArrayList<>(elements.subList(1, elements.size()));
+    }
+
+    private static Expression character(final TreeSet<Integer> codepoints) {
+        if (codepoints.size() == 1) return new Literal(new String(Character.toChars(codepoints.first())), false);
+        final SetExpression set = new SetExpression(false);
+        for (final int codepoint : codepoints) set.addChar(codepoint);
+        return set.freeze();
+    }
+
+}
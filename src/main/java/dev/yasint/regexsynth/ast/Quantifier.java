@@ -0,0 +1,104 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.dsl.Repetition.GreedyQuantifier;
+import dev.yasint.regexsynth.exceptions.QuantifierException;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * AST :: Quantifier
+ * <p>
+ * A greedy repetition of a expression from min to max times. The
+ * operand is wrapped in a non-capturing group so that the quantifier
+ * binds to the whole operand. i.e. (?:abc){2,4} The wrapping is only
+ * dropped by {@link GroupElimination} when the operand is a atom.
+ */
+public final class Quantifier extends Node implements GreedyQuantifier {
+
+    public static final int UNBOUNDED = -1;
+
+    private final Expression operand;
+    private final int min;
+    private final int max;
+    private final boolean grouped;
+
+    /**
+     * Creates a greedy quantifier
+     *
+     * @param operand repetition of what?
+     * @param min     minimum repetitions
+     * @param max     maximum repetitions or {@link #UNBOUNDED}
+     */
+    public Quantifier(final Expression operand, final int min, final int max) {
+        this(operand, min, max, true);
+    }
+
+    Quantifier(final Expression operand, final int min, final int max, final boolean grouped) {
+        if (min < 0 || max != UNBOUNDED && max < min)
+            throw new QuantifierException("range is out of order");
+        this.operand = Objects.requireNonNull(operand);
+        this.min = min;
+        this.max = max;
+        this.grouped = grouped;
+    }
+
+    public Expression operand() {
+        return operand;
+    }
+
+    public int min() {
+        return min;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    public boolean isGrouped() {
+        return grouped;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        if (grouped) out.append(PAREN_OPEN).append(QUESTION_MARK).append(COLON);
+        operand.emitTo(out);
+        if (grouped) out.append(PAREN_CLOSE);
+        if (max == UNBOUNDED) {
+            if (min == 0) out.append(ASTERISK);
+            else if (min == 1) out.append(PLUS);
+            else out.append(OPEN_CURLY_BRACE).append(String.valueOf(min)).append(COMMA).append(CLOSE_CURLY_BRACE);
+            return;
+        }
+        if (min == 0 && max == 1) {
+            out.append(QUESTION_MARK);
+            return;
+        }
+        out.append(OPEN_CURLY_BRACE).append(String.valueOf(min));
+        if (min != max) out.append(COMMA).append(String.valueOf(max));
+        out.append(CLOSE_CURLY_BRACE);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return operand.estimatedLength() + 12;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Quantifier)) return false;
+        final Quantifier quantifier = (Quantifier) o;
+        return min == quantifier.min && max == quantifier.max && grouped == quantifier.grouped
+                && operand.equals(quantifier.operand);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operand, min, max, grouped);
+    }
+
+}
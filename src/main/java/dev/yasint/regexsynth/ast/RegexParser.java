@@ -0,0 +1,506 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.RegexSyntaxException;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+import dev.yasint.regexsynth.synthesis.TrieExpression;
+import dev.yasint.regexsynth.unicode.UnicodeScript;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+import static dev.yasint.regexsynth.dsl.CharClasses.anything;
+
+/**
+ * AST :: RE2 Syntax Parser
+ * <p>
+ * Parses a existing RE2 regular expression into the expression tree
+ * so that hand written patterns can go through the same passes as
+ * the synthesized ones. i.e. new RegexSynth(RegexParser.parse(legacy))
+ * <ul>
+ * <li>character classes and perl classes become {@link SetExpression}</li>
+ * <li>alternations of plain literals become a {@link TrieExpression}
+ * when no literal is a prefix of another. Then at most one of them
+ * can match at a position and the order doesn't matter.</li>
+ * <li>groups, quantifiers, anchors and unicode classes become the
+ * matching tree nodes.</li>
+ * </ul>
+ * Constructs that the tree can't describe, flag groups (?i:...) and
+ * classes with negated members [^\D] are kept as {@link Fragment}s.
+ */
+public final class RegexParser {
+
+    private static final int MAX_REPETITION = 1000;
+    private static final int MAX_SET_RANGE = 0xFFFF; // wider ranges are kept as text
+
+    private final String regex;
+    private final boolean tries;
+    private int position;
+
+    private RegexParser(final String regex, final boolean tries) {
+        this.regex = regex;
+        this.tries = tries;
+    }
+
+    /**
+     * Parses a RE2 regular expression.
+     *
+     * @param regex RE2 syntax regular expression
+     * @return expression tree of the regex
+     * @throws RegexSyntaxException if the regex is invalid
+     */
+    public static Expression parse(final String regex) {
+        return parse(regex, true);
+    }
+
+    /**
+     * Parses a RE2 regular expression. Literal alternations are kept
+     * as alternations when tries is false, so the whole pattern can
+     * be inspected node by node.
+     */
+    static Expression parse(final String regex, final boolean tries) {
+        final RegexParser parser = new RegexParser(Objects.requireNonNull(regex), tries);
+        final Expression expression = parser.alternation();
+        if (parser.more()) throw parser.error("unexpected )");
+        return expression;
+    }
+
+    // Grammar
+
+    private Expression alternation() {
+        final List<Expression> alternatives = new ArrayList<>();
+        alternatives.add(sequence());
+        while (more() && peek() == ALTERNATION.charAt(0)) {
+            position++;
+            alternatives.add(sequence());
+        }
+        if (alternatives.size() == 1) return alternatives.get(0);
+        final Expression trie = tries ? trie(alternatives) : null;
+        return trie != null ? trie : new Alternation(alternatives);
+    }
+
+    private Expression sequence() {
+        final List<Expression> elements = new ArrayList<>();
+        while (more() && peek() != ALTERNATION.charAt(0) && peek() != PAREN_CLOSE) {
+            if (startsWith("(?") && isFlags(position + 2, PAREN_CLOSE)) {
+                // (?i) applies upto the end of the enclosing group
+                final int start = position;
+                while (more() && peek() != PAREN_CLOSE) position = Syntax.next(regex, position);
+                elements.add(new Fragment(regex.substring(start, position)));
+                break;
+            }
+            Expression atom = atom();
+            if (more() && isQuantifier()) {
+                if (atom instanceof Literal && length((Literal) atom) > 1) {
+                    // RE2J repeats the whole quoted text of \Qab\E*
+                    atom = new Group(Group.Type.NON_CAPTURE, null, Collections.singletonList(atom));
+                }
+                atom = quantifier(atom);
+                if (more() && isQuantifier()) throw error("bad repetition operator");
+            }
+            elements.add(atom);
+        }
+        return sequenceOf(elements);
+    }
+
+    private Expression atom() {
+        final char c = peek();
+        if (c == PAREN_OPEN) return group();
+        if (c == OPEN_SQUARE_BRACKET) return characterClass();
+        if (c == BACKSLASH) return escape();
+        if (isQuantifier()) throw error("missing argument to repetition operator");
+        if (c == PERIOD || c == CARAT || c == DOLLAR) {
+            position++;
+            if (c == PERIOD) return anything();
+            return new Anchor(c == CARAT ? Anchor.Type.START_OF_LINE : Anchor.Type.END_OF_LINE);
+        }
+        return literal(codepoint());
+    }
+
+    private Expression group() {
+        final int start = position++;
+        if (!startsWith("?")) return new Group(Group.Type.CAPTURE, null, content());
+        if (startsWith("?:")) {
+            position += 2;
+            return new Group(Group.Type.NON_CAPTURE, null, content());
+        }
+        if (startsWith("?P<")) {
+            final int end = regex.indexOf(GREATER_THAN, position);
+            if (end == -1) throw error("invalid named capture");
+            final String name = regex.substring(position + 3, end);
+            if (!isGroupName(name)) throw error("invalid named capture");
+            position = end + 1;
+            return new Group(Group.Type.NAMED, name, content());
+        }
+        if (isFlags(position + 1, COLON)) { // (?i:...) kept as it is
+            final int end = Syntax.groupEnd(regex, start);
+            if (regex.charAt(end - 1) != PAREN_CLOSE || end - 1 == start) throw error("missing closing )");
+            position = end;
+            return new Fragment(regex.substring(start, end));
+        }
+        throw error("invalid or unsupported Perl syntax");
+    }
+
+    private List<Expression> content() {
+        final Expression content = alternation();
+        if (!more() || peek() != PAREN_CLOSE) throw error("missing closing )");
+        position++;
+        return Collections.singletonList(content);
+    }
+
+    private Expression quantifier(final Expression operand) {
+        final char c = regex.charAt(position++);
+        int min, max;
+        if (c == ASTERISK) {
+            min = 0;
+            max = Quantifier.UNBOUNDED;
+        } else if (c == PLUS) {
+            min = 1;
+            max = Quantifier.UNBOUNDED;
+        } else if (c == QUESTION_MARK) {
+            min = 0;
+            max = 1;
+        } else { // {n} {n,} {n,m}
+            final int end = regex.indexOf(CLOSE_CURLY_BRACE, position);
+            final String[] bounds = regex.substring(position, end).split(String.valueOf(COMMA), -1);
+            position = end + 1;
+            for (final String bound : bounds) if (bound.length() > 4) throw error("invalid repeat count");
+            min = Integer.parseInt(bounds[0]);
+            max = bounds.length == 1 ? min : bounds[1].isEmpty() ? Quantifier.UNBOUNDED : Integer.parseInt(bounds[1]);
+            if (min > MAX_REPETITION || max > MAX_REPETITION || max != Quantifier.UNBOUNDED && max < min)
+                throw error("invalid repeat count");
+        }
+        final Quantifier quantifier = new Quantifier(operand, min, max);
+        if (more() && peek() == QUESTION_MARK) {
+            position++;
+            return new LazyQuantifier(quantifier);
+        }
+        return quantifier;
+    }
+
+    // Escapes
+
+    private Expression escape() {
+        if (position + 1 >= regex.length()) throw error("trailing \\");
+        final char c = regex.charAt(position + 1);
+        switch (c) {
+            case 'd': case 'D': case 's': case 'S': case 'w': case 'W':
+                position += 2;
+                final SetExpression set = new SetExpression(Character.isUpperCase(c));
+                perlClass(set, Character.toLowerCase(c));
+                return set.freeze();
+            case 'b':
+                position += 2;
+                return new Anchor(Anchor.Type.WORD_BOUNDARY);
+            case 'B':
+                position += 2;
+                return new Anchor(Anchor.Type.NON_WORD_BOUNDARY);
+            case 'A':
+                position += 2;
+                return new Anchor(Anchor.Type.START_OF_TEXT);
+            case 'z':
+                position += 2;
+                return new Anchor(Anchor.Type.END_OF_TEXT);
+            case 'p': case 'P': {
+                final int start = position;
+                final String name = unicodeClassName();
+                final boolean negated = c == 'P' ^ name.startsWith(String.valueOf(CARAT));
+                final UnicodeScript script = script(name);
+                if (script == null) return new Fragment(regex.substring(start, position));
+                return new UnicodeClass(script, negated);
+            }
+            case 'Q': {
+                final int end = regex.indexOf(QUOTE_END, position + 2);
+                final String quoted = regex.substring(position + 2, end == -1 ? regex.length() : end);
+                position = end == -1 ? regex.length() : end + QUOTE_END.length();
+                return new Literal(quoted, true);
+            }
+            default:
+                return literal(codepoint());
+        }
+    }
+
+    /**
+     * Reads a single character, a escaped character or a character
+     * code and returns its codepoint. i.e. a \. \n \x41 \x{1F600} \101
+     */
+    private int codepoint() {
+        if (peek() != BACKSLASH) {
+            final int codepoint = regex.codePointAt(position);
+            position += Character.charCount(codepoint);
+            return codepoint;
+        }
+        if (position + 1 >= regex.length()) throw error("trailing \\");
+        final int start = position;
+        final char c = regex.charAt(position + 1);
+        position += 2;
+        switch (c) {
+            case 'a': return 0x07;
+            case 'f': return 0x0C;
+            case 't': return 0x09;
+            case 'n': return 0x0A;
+            case 'r': return 0x0D;
+            case 'v': return 0x0B;
+            case 'x': {
+                final int end;
+                if (startsWith(String.valueOf(OPEN_CURLY_BRACE))) {
+                    end = regex.indexOf(CLOSE_CURLY_BRACE, position);
+                    if (end == -1) throw error("invalid escape sequence");
+                    final int codepoint = hex(position + 1, end);
+                    position = end + 1;
+                    return codepoint;
+                }
+                end = position + 2;
+                if (end > regex.length()) throw error("invalid escape sequence");
+                final int codepoint = hex(position, end);
+                position = end;
+                return codepoint;
+            }
+            default:
+                if (c >= '0' && c <= '7') { // octal. \1 alone is a backreference
+                    int codepoint = c - '0', digits = 1;
+                    while (digits < 3 && more() && peek() >= '0' && peek() <= '7') {
+                        codepoint = codepoint * 8 + (regex.charAt(position++) - '0');
+                        digits++;
+                    }
+                    if (c != '0' && digits == 1) {
+                        position = start;
+                        throw error("invalid escape sequence");
+                    }
+                    return codepoint;
+                }
+                if (c < 0x80 && !Character.isLetterOrDigit(c)) return c; // escaped punctuation
+                position = start;
+                throw error("invalid escape sequence");
+        }
+    }
+
+    private int hex(final int from, final int to) {
+        try {
+            final int codepoint = Integer.parseInt(regex.substring(from, to), 16);
+            if (Character.isValidCodePoint(codepoint) && to > from) return codepoint;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw error("invalid escape sequence");
+    }
+
+    private String unicodeClassName() {
+        position += 2; // \p
+        if (!more()) throw error("invalid character class range");
+        if (peek() != OPEN_CURLY_BRACE) return String.valueOf(regex.charAt(position++));
+        final int end = regex.indexOf(CLOSE_CURLY_BRACE, position);
+        if (end == -1) throw error("invalid character class range");
+        final String name = regex.substring(position + 1, end);
+        position = end + 1;
+        return name;
+    }
+
+    private static UnicodeScript script(final String name) {
+        final String block = name.startsWith(String.valueOf(CARAT)) ? name.substring(1) : name; // \p{^Greek}
+        for (final UnicodeScript script : UnicodeScript.values())
+            if (script.getBlock().equals(block)) return script;
+        return null;
+    }
+
+    // Character classes
+
+    /**
+     * Parses a bracketed character class into a set. A class with a
+     * negated member or a very wide range is kept as its text.
+     */
+    private Expression characterClass() {
+        final int start = position++;
+        final boolean negated = startsWith(String.valueOf(CARAT));
+        if (negated) position++;
+        final SetExpression set = new SetExpression(negated);
+        boolean raw = false, first = true;
+        while (true) {
+            if (!more()) throw error("missing closing ]");
+            if (peek() == CLOSE_SQUARE_BRACKET && !first) {
+                position++;
+                break;
+            }
+            first = false;
+            if (startsWith("[:")) { // posix class [:alpha:]
+                final int end = regex.indexOf(":]", position + 2);
+                if (end == -1) throw error("missing closing ]");
+                final String name = regex.substring(position + 2, end);
+                position = end + 2;
+                if (name.startsWith(String.valueOf(CARAT)) || !posixClass(set, name)) raw = true;
+                continue;
+            }
+            if (peek() == BACKSLASH && position + 1 < regex.length()) {
+                final char c = regex.charAt(position + 1);
+                if ("dswDSW".indexOf(c) != -1) {
+                    position += 2;
+                    if (Character.isUpperCase(c)) raw = true;
+                    else perlClass(set, c);
+                    continue;
+                }
+                if (c == 'p' || c == 'P') {
+                    final String name = unicodeClassName();
+                    final boolean negatedClass = c == 'P' ^ name.startsWith(String.valueOf(CARAT));
+                    final UnicodeScript script = script(name);
+                    if (script == null) raw = true;
+                    else set.withUnicodeClass(script, negatedClass);
+                    continue;
+                }
+            }
+            final int low = codepoint();
+            if (startsWith(String.valueOf(HYPHEN)) && position + 1 < regex.length()
+                    && regex.charAt(position + 1) != CLOSE_SQUARE_BRACKET) {
+                position++;
+                final int high = codepoint();
+                if (high < low) throw error("invalid character class range");
+                if (high - low > MAX_SET_RANGE) raw = true;
+                else set.addRange(low, high);
+            } else {
+                set.addChar(low);
+            }
+        }
+        if (raw) return new Fragment(regex.substring(start, position));
+        return set.freeze();
+    }
+
+    private static void perlClass(final SetExpression set, final char c) {
+        if (c == 'd') {
+            set.addRange('0', '9');
+        } else if (c == 's') { // RE2 \s doesn't include \v
+            for (final int space : new int[]{0x09, 0x0A, 0x0C, 0x0D, 0x20}) set.addChar(space);
+        } else { // w
+            set.addRange('0', '9');
+            set.addRange('A', 'Z');
+            set.addRange('a', 'z');
+            set.addChar('_');
+        }
+    }
+
+    private static boolean posixClass(final SetExpression set, final String name) {
+        switch (name) {
+            case "alnum": set.addRange('0', '9'); set.addRange('A', 'Z'); set.addRange('a', 'z'); return true;
+            case "alpha": set.addRange('A', 'Z'); set.addRange('a', 'z'); return true;
+            case "ascii": set.addRange(0x00, 0x7F); return true;
+            case "blank": set.addChar(0x09); set.addChar(0x20); return true;
+            case "cntrl": set.addRange(0x00, 0x1F); set.addChar(0x7F); return true;
+            case "digit": set.addRange('0', '9'); return true;
+            case "graph": set.addRange('!', '~'); return true;
+            case "lower": set.addRange('a', 'z'); return true;
+            case "print": set.addRange(' ', '~'); return true;
+            case "punct": set.addRange('!', '/'); set.addRange(':', '@');
+                set.addRange('[', '`'); set.addRange('{', '~'); return true;
+            case "space": set.addRange(0x09, 0x0D); set.addChar(0x20); return true;
+            case "upper": set.addRange('A', 'Z'); return true;
+            case "word": perlClass(set, 'w'); return true;
+            case "xdigit": set.addRange('0', '9'); set.addRange('A', 'F'); set.addRange('a', 'f'); return true;
+            default: return false;
+        }
+    }
+
+    // Helpers
+
+    private static int length(final Literal literal) {
+        return literal.value().codePointCount(0, literal.value().length());
+    }
+
+    /**
+     * Checks a group name like RE2 does. Any non-empty run of letters,
+     * digits and underscores is a name, unlike the names of the DSL.
+     */
+    private static boolean isGroupName(final String name) {
+        if (name.isEmpty()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c != '_' && !(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z'))
+                return false;
+        }
+        return true;
+    }
+
+    private static Literal literal(final int codepoint) {
+        return new Literal(new String(Character.toChars(codepoint)), false);
+    }
+
+    /**
+     * Builds a sequence and folds the adjacent literals. i.e. a, b, c => abc
+     */
+    private static Expression sequenceOf(final List<Expression> elements) {
+        final List<Expression> sequence = new ArrayList<>(elements.size());
+        for (final Expression element : elements) {
+            final int last = sequence.size() - 1;
+            if (last >= 0 && element instanceof Literal && sequence.get(last) instanceof Literal
+                    && ((Literal) element).isQuoted() == ((Literal) sequence.get(last)).isQuoted()) {
+                final Literal previous = (Literal) sequence.get(last);
+                sequence.set(last, new Literal(previous.value() + ((Literal) element).value(), previous.isQuoted()));
+            } else {
+                sequence.add(element);
+            }
+        }
+        return sequence.size() == 1 ? sequence.get(0) : new Concat(sequence);
+    }
+
+    /**
+     * Builds a trie of a alternation of plain literals. Returns null
+     * if any alternative isn't a literal or is a prefix of another.
+     * Single characters are left to be merged into a set.
+     */
+    private static Expression trie(final List<Expression> alternatives) {
+        final Set<String> words = new HashSet<>();
+        boolean characters = true;
+        for (final Expression alternative : alternatives) {
+            if (!(alternative instanceof Literal) || ((Literal) alternative).isQuoted()) return null;
+            final String word = ((Literal) alternative).value();
+            // the trie splits words into chars, so surrogate pairs are not supported
+            if (word.isEmpty() || word.codePointCount(0, word.length()) != word.length()) return null;
+            characters &= word.length() == 1;
+            words.add(word);
+        }
+        if (characters) return null;
+        for (final String a : words)
+            for (final String b : words)
+                if (!a.equals(b) && b.startsWith(a)) return null;
+        final TrieExpression trie = new TrieExpression();
+        trie.insertAll(words);
+        return trie.freeze();
+    }
+
+    private boolean isQuantifier() {
+        final char c = peek();
+        if (c == ASTERISK || c == PLUS || c == QUESTION_MARK) return true;
+        if (c != OPEN_CURLY_BRACE) return false;
+        // a { that doesn't start a valid repeat is a literal
+        final int end = regex.indexOf(CLOSE_CURLY_BRACE, position);
+        return end != -1 && regex.substring(position + 1, end).matches("[0-9]+(,[0-9]*)?");
+    }
+
+    /**
+     * Checks whether a (? group at the index only has flags. i.e. (?i) (?-s:
+     */
+    private boolean isFlags(final int index, final char terminator) {
+        int i = index;
+        while (i < regex.length() && "imsU-".indexOf(regex.charAt(i)) != -1) i++;
+        return i > index && i < regex.length() && regex.charAt(i) == terminator;
+    }
+
+    private boolean more() {
+        return position < regex.length();
+    }
+
+    private char peek() {
+        return regex.charAt(position);
+    }
+
+    private boolean startsWith(final String prefix) {
+        return regex.startsWith(prefix, position);
+    }
+
+    private RegexSyntaxException error(final String message) {
+        return new RegexSyntaxException(message + " at index " + position + " in " + regex);
+    }
+
+}
@@ -0,0 +1,63 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AST :: Repetition Rewrite
+ * <p>
+ * Result of a {@link RepetitionRewriter} pass. It has the rewritten
+ * tree, the predicted program size before and after the rewrite and
+ * a description of every repetition that was widened.
+ */
+public final class RepetitionRewrite {
+
+    private final Expression expression;
+    private final int instructionsBefore;
+    private final int instructionsAfter;
+    private final List<String> widened;
+
+    RepetitionRewrite(final Expression expression, final int instructionsBefore,
+                      final int instructionsAfter, final List<String> widened) {
+        this.expression = expression;
+        this.instructionsBefore = instructionsBefore;
+        this.instructionsAfter = instructionsAfter;
+        this.widened = Collections.unmodifiableList(new ArrayList<>(widened));
+    }
+
+    public Expression expression() {
+        return expression;
+    }
+
+    public int instructionsBefore() {
+        return instructionsBefore;
+    }
+
+    public int instructionsAfter() {
+        return instructionsAfter;
+    }
+
+    /**
+     * @return widened repetitions in order. i.e. [0-9]{1,1000} =&gt; [0-9]+
+     */
+    public List<String> widened() {
+        return widened;
+    }
+
+    /**
+     * @return whether the rewritten pattern matches exactly the same strings
+     */
+    public boolean isExact() {
+        return widened.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d => %d instructions, widened %s",
+                instructionsBefore, instructionsAfter, widened);
+    }
+
+}
@@ -0,0 +1,159 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.ComplexityBudgetException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AST :: Repetition Rewriter
+ * <p>
+ * Keeps the program size of a pattern within a budget. RE2J compiles
+ * x{n,m} into m copies of x, and a regular program needs a copy for
+ * every count it tells apart. So nested forms such as (?:x{10}){0,100}
+ * or nested optionals compile into the same number of copies, and a
+ * exact rewrite can't make the program smaller. {@link #rewrite} keeps
+ * the pattern and fails when it doesn't fit the budget.
+ * <p>
+ * {@link #widen} trades exactness for size by not counting. i.e.
+ * [0-9]{1,1000} =&gt; [0-9]+ A widened pattern accepts strings that
+ * the original rejects, and the counts can't be checked after a match
+ * because a repeated capture only keeps its last iteration. So it only
+ * fits callers that accept a superset, such as a pre-filter. The upper
+ * bound is dropped first, then the lower bound when it is still too
+ * expensive. Repetitions are widened one at a time, the one that
+ * saves the most instructions first, until the pattern fits the budget
+ * or nothing is left to widen.
+ */
+public final class RepetitionRewriter {
+
+    private RepetitionRewriter() { }
+
+    /**
+     * Checks that a pattern fits the budget without changing what it
+     * matches. The report of a widening is part of the message, so the
+     * caller can decide whether {@link #widen} is acceptable.
+     *
+     * @param expression      root of the tree
+     * @param maxInstructions program size budget
+     * @return exact report of the unchanged tree
+     * @throws ComplexityBudgetException if the pattern doesn't fit the budget
+     */
+    public static RepetitionRewrite rewrite(final Expression expression, final int maxInstructions) {
+        if (maxInstructions < 1) throw new IllegalArgumentException("budget must be positive");
+        final int size = ComplexityEstimator.estimate(expression).instructions();
+        if (size <= maxInstructions)
+            return new RepetitionRewrite(expression, size, size, Collections.emptyList());
+        throw new ComplexityBudgetException(String.format(
+                "%d instructions exceeds the limit of %d and counted repetitions can't be made smaller "
+                        + "exactly. widening them would give %s", size, maxInstructions,
+                widen(expression, maxInstructions)));
+    }
+
+    /**
+     * Widens the counted repetitions of a pattern until it fits the
+     * budget. The widened tree accepts more strings than the original.
+     *
+     * @param expression      root of the tree
+     * @param maxInstructions program size budget
+     * @return widened tree and the report
+     */
+    public static RepetitionRewrite widen(final Expression expression, final int maxInstructions) {
+        if (maxInstructions < 1) throw new IllegalArgumentException("budget must be positive");
+        final int before = ComplexityEstimator.estimate(expression).instructions();
+        final List<String> widened = new ArrayList<>();
+        Expression current = expression;
+        int size = before;
+        while (size > maxInstructions) {
+            Expression best = null;
+            Quantifier target = null;
+            int bestSize = size;
+            for (final Quantifier candidate : candidates(current, new ArrayList<>())) {
+                final Expression rewritten = replace(current, candidate, widened(candidate));
+                final int rewrittenSize = ComplexityEstimator.estimate(rewritten).instructions();
+                if (rewrittenSize < bestSize) {
+                    best = rewritten;
+                    target = candidate;
+                    bestSize = rewrittenSize;
+                }
+            }
+            if (best == null) break; // nothing left to widen
+            widened.add(GroupElimination.apply(target).toRegex()
+                    + " => " + GroupElimination.apply(widened(target)).toRegex());
+            current = best;
+            size = bestSize;
+        }
+        return new RepetitionRewrite(current, before, size, widened);
+    }
+
+    /**
+     * x{n,m} =&gt; x{n,} and x{n} or x{n,} =&gt; x+
+     */
+    private static Quantifier widened(final Quantifier quantifier) {
+        final int min = quantifier.min(), max = quantifier.max();
+        final int lower = max != Quantifier.UNBOUNDED && max > min ? min : Math.min(min, 1);
+        return new Quantifier(quantifier.operand(), lower, Quantifier.UNBOUNDED, quantifier.isGrouped());
+    }
+
+    private static List<Quantifier> candidates(final Expression expression, final List<Quantifier> found) {
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            if (quantifier.min() > 1 || quantifier.max() != Quantifier.UNBOUNDED && quantifier.max() > 1)
+                found.add(quantifier);
+        }
+        for (final Expression child : children(expression)) candidates(child, found);
+        return found;
+    }
+
+    /**
+     * Rebuilds the path from the root to the target node.
+     */
+    private static Expression replace(final Expression expression, final Quantifier target,
+                                      final Expression replacement) {
+        if (expression == target) return replacement;
+        if (expression instanceof Concat) {
+            return new Concat(replaceAll(((Concat) expression).children(), target, replacement));
+        }
+        if (expression instanceof Alternation) {
+            return new Alternation(replaceAll(((Alternation) expression).alternatives(), target, replacement));
+        }
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            return new Group(group.type(), group.name(), replaceAll(group.children(), target, replacement));
+        }
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            final Expression operand = replace(quantifier.operand(), target, replacement);
+            if (operand == quantifier.operand()) return expression;
+            return new Quantifier(operand, quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        }
+        if (expression instanceof LazyQuantifier) {
+            final Expression quantifier = ((LazyQuantifier) expression).quantifier();
+            final Expression rewritten = replace(quantifier, target, replacement);
+            return rewritten == quantifier ? expression : new LazyQuantifier(rewritten);
+        }
+        if (expression instanceof Shared) return replace(((Shared) expression).node(), target, replacement);
+        return expression;
+    }
+
+    private static List<Expression> replaceAll(final List<Expression> expressions, final Quantifier target,
+                                               final Expression replacement) {
+        final List<Expression> replaced = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) replaced.add(replace(expression, target, replacement));
+        return replaced;
+    }
+
+    private static List<Expression> children(final Expression expression) {
+        if (expression instanceof Concat) return ((Concat) expression).children();
+        if (expression instanceof Alternation) return ((Alternation) expression).alternatives();
+        if (expression instanceof Group) return ((Group) expression).children();
+        final List<Expression> children = new ArrayList<>(1);
+        if (expression instanceof Quantifier) children.add(((Quantifier) expression).operand());
+        if (expression instanceof LazyQuantifier) children.add(((LazyQuantifier) expression).quantifier());
+        if (expression instanceof Shared) children.add(((Shared) expression).node());
+        return children;
+    }
+
+}
@@ -0,0 +1,56 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+
+import java.io.IOException;
+
+/**
+ * AST :: Shared Subexpression
+ * <p>
+ * A subexpression that is referenced more than once in a pattern.
+ * It is synthesized on the first emit and the text is reused by the
+ * later ones. Created by {@link HashConsing}.
+ */
+final class Shared extends Node {
+
+    private final Expression node;
+    // Racy single check. Strings are immutable, so a thread either sees
+    // null and synthesizes the same text again or sees the whole text.
+    private String regex;
+
+    Shared(final Expression node) {
+        this.node = node;
+    }
+
+    Expression node() {
+        return node;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        String text = regex;
+        if (text == null) {
+            final StringBuilder expression = new StringBuilder(node.estimatedLength());
+            node.emitTo(expression);
+            regex = text = expression.toString();
+        }
+        out.append(text);
+    }
+
+    @Override
+    public int estimatedLength() {
+        final String text = regex;
+        return text == null ? node.estimatedLength() : text.length();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof Shared && node.equals(((Shared) o).node);
+    }
+
+    @Override
+    public int hashCode() {
+        return node.hashCode();
+    }
+
+}
@@ -0,0 +1,479 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.synthesis.AddressRangeExpression;
+import dev.yasint.regexsynth.synthesis.IntegerSetExpression;
+import dev.yasint.regexsynth.synthesis.RangeExpression;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+import dev.yasint.regexsynth.synthesis.TemporalRangeExpression;
+import dev.yasint.regexsynth.synthesis.TrieExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * AST :: Algebraic Simplifier
+ * <p>
+ * Rewrites the tree into a equivalent one that compiles into a
+ * smaller program. The rewrites keep the numbering of the capturing
+ * groups and only change the tree where the match and the captured
+ * spans can't change.
+ * <ul>
+ * <li>adjacent literals are folded. i.e. a, b, c =&gt; abc</li>
+ * <li>nested exact counts are multiplied. i.e. (?:x{2}){3} =&gt; x{6}
+ * A range count is kept because it changes how the repetitions are
+ * split. i.e. on xxxx (?:x{2,3})+ matches xxx but x{2,} matches xxxx</li>
+ * <li>duplicate alternatives are dropped. i.e. a|b|a =&gt; a|b</li>
+ * <li>alternatives that share a leading sequence of fixed width
+ * elements are factored. i.e. ab[0-9]|ac =&gt; a(?:b[0-9]|c)</li>
+ * <li>alternatives that share a trailing sequence are factored.
+ * i.e. x[0-9]|yz[0-9] =&gt; (?:x|yz)[0-9]</li>
+ * <li>consecutive single character and set alternatives are merged
+ * into one set. i.e. a|[0-9]|b =&gt; [0-9ab]</li>
+ * </ul>
+ * Only consecutive alternatives are factored or merged because
+ * reordering alternatives changes which one is preferred.
+ */
+public final class Simplifier {
+
+    private static final int MAX_REPETITION = 1000;
+
+    private Simplifier() { }
+
+    /**
+     * Simplifies a expression tree. Expressions that are not tree
+     * nodes are kept as they are.
+     *
+     * @param expression root of the tree
+     * @return equivalent simplified expression
+     */
+    public static Expression apply(final Expression expression) {
+        return simplify(expression);
+    }
+
+    private static Expression simplify(final Expression expression) {
+
+        if (expression instanceof Concat) {
+            return sequence(simplifyAll(((Concat) expression).children()));
+        }
+
+        if (expression instanceof Alternation) {
+            return alternation(simplifyAll(((Alternation) expression).alternatives()));
+        }
+
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            final Expression content = sequence(simplifyAll(group.children()));
+            return new Group(group.type(), group.name(), Collections.singletonList(content));
+        }
+
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            return quantifier(simplify(quantifier.operand()), quantifier.min(), quantifier.max());
+        }
+
+        if (expression instanceof LazyQuantifier) {
+            final Expression quantified = ((LazyQuantifier) expression).quantifier();
+            if (!(quantified instanceof Quantifier)) return expression;
+            // the counts of a lazy quantifier are never collapsed
+            final Quantifier quantifier = (Quantifier) quantified;
+            return new LazyQuantifier(new Quantifier(simplify(quantifier.operand()),
+                    quantifier.min(), quantifier.max()));
+        }
+
+        if (expression instanceof TrieExpression) return word((TrieExpression) expression);
+
+        return expression; // leaf or not a tree node
+
+    }
+
+    /**
+     * Returns the literal of a trie that holds a single word, so it's
+     * compared and merged like any other literal. i.e. a trie of {c}
+     * in b|c =&gt; [bc]. A trie with alternatives is kept as it is.
+     */
+    private static Expression word(final TrieExpression trie) {
+        final Expression parsed = simplify(RegexParser.parse(trie.toRegex().toString(), false));
+        return parsed instanceof Literal ? parsed : trie;
+    }
+
+    private static List<Expression> simplifyAll(final List<Expression> expressions) {
+        final List<Expression> simplified = new ArrayList<>(expressions.size());
+        for (final Expression expression : expressions) simplified.add(simplify(expression));
+        return simplified;
+    }
+
+    // Sequences
+
+    /**
+     * Builds a sequence of simplified elements. Nested sequences are
+     * spliced and adjacent literals are folded.
+     */
+    private static Expression sequence(final List<Expression> elements) {
+        final List<Expression> sequence = new ArrayList<>(elements.size());
+        for (final Expression element : elements) {
+            for (final Expression child : splice(element)) {
+                final int last = sequence.size() - 1;
+                if (last >= 0 && child instanceof Literal && sequence.get(last) instanceof Literal) {
+                    final Literal a = (Literal) sequence.get(last), b = (Literal) child;
+                    if (a.isQuoted() == b.isQuoted()) {
+                        sequence.set(last, new Literal(a.value() + b.value(), a.isQuoted()));
+                        continue;
+                    }
+                }
+                sequence.add(child);
+            }
+        }
+        return sequence.size() == 1 ? sequence.get(0) : new Concat(sequence);
+    }
+
+    /**
+     * Returns the elements of a sequence or a non-capturing group
+     * that can be spliced into a enclosing sequence.
+     */
+    private static List<Expression> splice(final Expression element) {
+        if (element instanceof Concat) return ((Concat) element).children();
+        if (element instanceof Group && ((Group) element).type() == Group.Type.NON_CAPTURE) {
+            final List<Expression> children = ((Group) element).children();
+            for (final Expression child : children) {
+                if (GroupElimination.hasTopLevelAlternation(child)) return Collections.singletonList(element);
+            }
+            final List<Expression> spliced = new ArrayList<>(children.size());
+            for (final Expression child : children) spliced.addAll(splice(child));
+            return spliced;
+        }
+        return Collections.singletonList(element);
+    }
+
+    // Quantifiers
+
+    /**
+     * Builds a quantifier of a simplified operand. A exact count of a
+     * exact count (?:x{a}){b} is collapsed into x{ab} because both
+     * match in exactly one way. Any other nesting is kept, a range
+     * count decides where each outer repetition ends. i.e. on 2113
+     * (?:[0-3]{2,3})+ matches 211 but [0-3]{2,} matches 2113
+     */
+    private static Quantifier quantifier(final Expression operand, final int min, final int max) {
+        final Expression inner = unwrap(operand);
+        if (min != max || !(inner instanceof Quantifier)) return new Quantifier(operand, min, max);
+        final Quantifier quantifier = (Quantifier) inner;
+        if (quantifier.min() != quantifier.max()) return new Quantifier(operand, min, max);
+        final long collapsed = (long) quantifier.min() * min;
+        if (collapsed > MAX_REPETITION) return new Quantifier(operand, min, max);
+        return new Quantifier(quantifier.operand(), (int) collapsed, (int) collapsed);
+    }
+
+    private static Expression unwrap(Expression expression) {
+        while (expression instanceof Group && ((Group) expression).type() == Group.Type.NON_CAPTURE
+                && ((Group) expression).children().size() == 1) {
+            expression = ((Group) expression).children().get(0);
+        }
+        return expression;
+    }
+
+    // Alternations
+
+    /**
+     * Builds a alternation of simplified alternatives. Nested
+     * alternations are spliced, duplicates are dropped, the common
+     * leading and trailing elements are factored and the single
+     * character alternatives are merged.
+     */
+    private static Expression alternation(final List<Expression> simplified) {
+        final List<Expression> alternatives = new ArrayList<>(simplified.size());
+        final Set<Expression> seen = new HashSet<>();
+        for (final Expression expression : simplified) {
+            final Expression unwrapped = unwrap(expression);
+            final List<Expression> spliced = unwrapped instanceof Alternation
+                    ? ((Alternation) unwrapped).alternatives()
+                    : Collections.singletonList(expression);
+            for (final Expression alternative : spliced) {
+                // a duplicate is only tried after the same one failed
+                if (hasCapture(alternative) || seen.add(key(alternative))) alternatives.add(alternative);
+            }
+        }
+        if (alternatives.size() == 1) return alternatives.get(0);
+
+        final List<List<Expression>> sequences = new ArrayList<>(alternatives.size());
+        for (final Expression alternative : alternatives) sequences.add(elements(alternative));
+        final List<Expression> factored = factorSuffixes(factorPrefixes(sequences));
+        final List<Expression> merged = mergeSets(factored);
+        if (merged.size() == 1) return merged.get(0);
+        if (merged.size() == 2 && isEmpty(merged.get(1))) { // x| => x?
+            return quantifier(merged.get(0), 0, 1);
+        }
+        return new Alternation(merged);
+    }
+
+    /**
+     * Factors the runs of consecutive alternatives that start with the
+     * same fixed width element. a X|a Y => a(?:X|Y) The prefix matches
+     * exactly one way, so X is still tried before Y at every position.
+     */
+    private static List<List<Expression>> factorPrefixes(final List<List<Expression>> sequences) {
+        final List<List<Expression>> factored = new ArrayList<>(sequences.size());
+        int i = 0;
+        while (i < sequences.size()) {
+            final List<Expression> first = sequences.get(i);
+            int j = i + 1;
+            if (!first.isEmpty() && isFixed(first.get(0))) {
+                final Expression head = key(first.get(0));
+                while (j < sequences.size() && !sequences.get(j).isEmpty()
+                        && key(sequences.get(j).get(0)).equals(head)) j++;
+            }
+            if (j - i == 1) {
+                factored.add(first);
+                i++;
+                continue;
+            }
+            final List<List<Expression>> run = sequences.subList(i, j);
+            int length = 1; // longest common fixed prefix
+            while (length < shortest(run) && isFixed(first.get(length)) && sharedAt(run, length, false)) length++;
+            final List<Expression> tails = new ArrayList<>(run.size());
+            for (final List<Expression> sequence : run)
+                tails.add(sequence(sequence.subList(length, sequence.size())));
+            final List<Expression> prefixed = new ArrayList<>(first.subList(0, length));
+            prefixed.add(grouped(alternation(tails)));
+            factored.add(prefixed);
+            i = j;
+        }
+        return factored;
+    }
+
+    /**
+     * Factors the runs of consecutive alternatives that end with the
+     * same capture free element. X a|Y a => (?:X|Y)a Both sides try
+     * the ways of X before the ways of Y followed by a.
+     */
+    private static List<Expression> factorSuffixes(final List<List<Expression>> sequences) {
+        final List<Expression> factored = new ArrayList<>(sequences.size());
+        int i = 0;
+        while (i < sequences.size()) {
+            final List<Expression> first = sequences.get(i);
+            int j = i + 1;
+            if (!first.isEmpty() && !hasCapture(last(first, 0))) {
+                final Expression tail = key(last(first, 0));
+                while (j < sequences.size() && !sequences.get(j).isEmpty()
+                        && key(last(sequences.get(j), 0)).equals(tail)) j++;
+            }
+            if (j - i == 1) {
+                factored.add(sequence(first));
+                i++;
+                continue;
+            }
+            final List<List<Expression>> run = sequences.subList(i, j);
+            int length = 1; // longest common capture free suffix
+            while (length < shortest(run) && !hasCapture(last(first, length)) && sharedAt(run, length, true))
+                length++;
+            final List<Expression> heads = new ArrayList<>(run.size());
+            for (final List<Expression> sequence : run)
+                heads.add(sequence(sequence.subList(0, sequence.size() - length)));
+            final List<Expression> suffixed = new ArrayList<>(length + 1);
+            suffixed.add(grouped(alternation(heads)));
+            suffixed.addAll(first.subList(first.size() - length, first.size()));
+            factored.add(sequence(suffixed));
+            i = j;
+        }
+        return factored;
+    }
+
+    /**
+     * Merges the runs of consecutive single character alternatives
+     * into one set. Each of them consumes exactly one character, so
+     * the order within the run doesn't matter.
+     */
+    private static List<Expression> mergeSets(final List<Expression> alternatives) {
+        final List<Expression> merged = new ArrayList<>(alternatives.size());
+        int i = 0;
+        while (i < alternatives.size()) {
+            int j = i;
+            while (j < alternatives.size() && isCharacter(alternatives.get(j))) j++;
+            if (j - i < 2) {
+                merged.add(alternatives.get(i));
+                i++;
+                continue;
+            }
+            final SetExpression set = new SetExpression(false);
+            for (final Expression alternative : alternatives.subList(i, j)) {
+                if (alternative instanceof Literal) set.addChar(((Literal) alternative).value().codePointAt(0));
+                else set.union((SetExpression) alternative);
+            }
+            merged.add(set.freeze());
+            i = j;
+        }
+        return merged;
+    }
+
+    // Helpers
+
+    /**
+     * Splits a alternative into its elements. Literals are split into
+     * single characters so that partially shared literals can be
+     * factored. They're folded back when the sequence is rebuilt.
+     */
+    private static List<Expression> elements(final Expression alternative) {
+        final List<Expression> elements = new ArrayList<>();
+        for (final Expression element : splice(alternative)) {
+            if (!(element instanceof Literal)) {
+                elements.add(element);
+                continue;
+            }
+            final Literal literal = (Literal) element;
+            final String value = literal.value();
+            for (int i = 0; i < value.length(); i = value.offsetByCodePoints(i, 1)) {
+                elements.add(new Literal(value.substring(i, value.offsetByCodePoints(i, 1)), literal.isQuoted()));
+            }
+        }
+        return elements;
+    }
+
+    private static Expression grouped(final Expression expression) {
+        return new Group(Group.Type.NON_CAPTURE, null, Collections.singletonList(expression));
+    }
+
+    private static boolean sharedAt(final List<List<Expression>> run, final int index, final boolean fromEnd) {
+        final Expression expected = key(fromEnd ? last(run.get(0), index) : run.get(0).get(index));
+        for (final List<Expression> sequence : run) {
+            final Expression element = fromEnd ? last(sequence, index) : sequence.get(index);
+            if (!key(element).equals(expected)) return false;
+        }
+        return true;
+    }
+
+    private static int shortest(final List<List<Expression>> run) {
+        int shortest = Integer.MAX_VALUE;
+        for (final List<Expression> sequence : run) shortest = Math.min(shortest, sequence.size());
+        return shortest;
+    }
+
+    private static Expression last(final List<Expression> sequence, final int index) {
+        return sequence.get(sequence.size() - 1 - index);
+    }
+
+    /**
+     * Returns a key that is equal for structurally equal expressions.
+     * Tree nodes are compared by their structural equality and only
+     * the expressions that are not tree nodes are compared by their
+     * text, so a subtree is never synthesized to compare it.
+     */
+    static Expression key(final Expression expression) {
+        if (expression instanceof Concat) {
+            final List<Expression> children = ((Concat) expression).children();
+            final List<Expression> keys = keys(children);
+            return keys == children ? expression : new Concat(keys);
+        }
+        if (expression instanceof Alternation) {
+            final List<Expression> alternatives = ((Alternation) expression).alternatives();
+            final List<Expression> keys = keys(alternatives);
+            return keys == alternatives ? expression : new Alternation(keys);
+        }
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            final List<Expression> keys = keys(group.children());
+            return keys == group.children() ? expression : new Group(group.type(), group.name(), keys);
+        }
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            final Expression key = key(quantifier.operand());
+            return key == quantifier.operand() ? expression
+                    : new Quantifier(key, quantifier.min(), quantifier.max(), quantifier.isGrouped());
+        }
+        if (expression instanceof LazyQuantifier) {
+            final Expression quantifier = ((LazyQuantifier) expression).quantifier();
+            final Expression key = key(quantifier);
+            return key == quantifier ? expression : new LazyQuantifier(key);
+        }
+        if (expression instanceof Node) return expression; // leaves
+        return new Fragment(expression.toRegex());
+    }
+
+    private static List<Expression> keys(final List<Expression> expressions) {
+        List<Expression> keys = expressions;
+        for (int i = 0; i < expressions.size(); i++) {
+            final Expression key = key(expressions.get(i));
+            if (key == expressions.get(i)) continue;
+            if (keys == expressions) keys = new ArrayList<>(expressions);
+            keys.set(i, key);
+        }
+        return keys;
+    }
+
+    private static boolean isEmpty(final Expression expression) {
+        return expression instanceof Concat && ((Concat) expression).children().isEmpty();
+    }
+
+    private static boolean isCharacter(final Expression expression) {
+        if (expression instanceof Literal) {
+            final String value = ((Literal) expression).value();
+            return !value.isEmpty() && value.codePointCount(0, value.length()) == 1;
+        }
+        return expression instanceof SetExpression && ((SetExpression) expression).isPlain();
+    }
+
+    /**
+     * Checks whether the element matches in exactly one way. Such
+     * elements can be shared by alternatives without changing the
+     * order that the alternatives are tried.
+     */
+    private static boolean isFixed(final Expression expression) {
+        if (expression instanceof Literal || expression instanceof Anchor
+                || expression instanceof UnicodeClass || expression instanceof SetExpression) return true;
+        if (expression instanceof Quantifier) {
+            final Quantifier quantifier = (Quantifier) expression;
+            return quantifier.min() == quantifier.max() && isFixed(quantifier.operand());
+        }
+        if (expression instanceof Concat) return allFixed(((Concat) expression).children());
+        if (expression instanceof Group)
+            return ((Group) expression).type() == Group.Type.NON_CAPTURE && allFixed(((Group) expression).children());
+        return false;
+    }
+
+    private static boolean allFixed(final List<Expression> expressions) {
+        for (final Expression expression : expressions) if (!isFixed(expression)) return false;
+        return true;
+    }
+
+    /**
+     * Checks whether the expression contains a capturing group. The
+     * tree nodes are walked, the synthesized sets and ranges never
+     * capture and only the fragments and the other expressions that
+     * are not tree nodes are checked by their text.
+     */
+    static boolean hasCapture(final Expression expression) {
+        if (expression instanceof Group) {
+            final Group group = (Group) expression;
+            if (group.type() != Group.Type.NON_CAPTURE) return true;
+            return anyCapture(group.children());
+        }
+        if (expression instanceof Concat) return anyCapture(((Concat) expression).children());
+        if (expression instanceof Alternation) return anyCapture(((Alternation) expression).alternatives());
+        if (expression instanceof Quantifier) return hasCapture(((Quantifier) expression).operand());
+        if (expression instanceof LazyQuantifier) return hasCapture(((LazyQuantifier) expression).quantifier());
+        if (expression instanceof Shared) return hasCapture(((Shared) expression).node());
+        if (expression instanceof Node && !(expression instanceof Fragment)) return false; // leaves
+        if (expression instanceof SetExpression || expression instanceof RangeExpression
+                || expression instanceof TrieExpression || expression instanceof IntegerSetExpression
+                || expression instanceof AddressRangeExpression || expression instanceof TemporalRangeExpression)
+            return false;
+        final CharSequence regex = expression.toRegex();
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == BACKSLASH) i++;
+            else if (c == PAREN_OPEN && (i + 2 >= regex.length()
+                    || regex.charAt(i + 1) != QUESTION_MARK || regex.charAt(i + 2) != COLON)) return true;
+        }
+        return false;
+    }
+
+    private static boolean anyCapture(final List<Expression> expressions) {
+        for (final Expression expression : expressions) if (hasCapture(expression)) return true;
+        return false;
+    }
+
+}
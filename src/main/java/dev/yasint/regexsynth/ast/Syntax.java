@@ -0,0 +1,176 @@
+package dev.yasint.regexsynth.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * Inspects emitted regex text of the expressions that are not tree
+ * nodes. i.e. lambdas and synthesized sets or ranges. The text is
+ * assumed to be a valid RE2 expression.
+ */
+final class Syntax {
+
+    private Syntax() { }
+
+    /**
+     * Checks whether the expression is a single atom. A quantifier
+     * applied directly after a atom binds to the whole of it. i.e.
+     * a \. [a-z] \p{Greek} \x{1F600} (?:ab|c)
+     *
+     * @param regex emitted expression
+     * @return true if it's a single atom
+     */
+    static boolean isAtom(final CharSequence regex) {
+        final int length = regex.length();
+        if (length == 0) return false;
+        final char first = regex.charAt(0);
+        if (length == 1) return first != CARAT && first != DOLLAR && first != ALTERNATION.charAt(0);
+        if (length == 2 && Character.isSurrogatePair(first, regex.charAt(1))) return true;
+        if (first == BACKSLASH && regex.charAt(1) == 'Q') { // RE2 repeats only the last character of \Qab\E*
+            if (escapeEnd(regex, 0) != length) return false;
+            final int end = length >= 4 && regex.charAt(length - 2) == BACKSLASH && regex.charAt(length - 1) == 'E'
+                    ? length - 2 : length;
+            return Character.codePointCount(regex, 2, end) == 1;
+        }
+        if (first == BACKSLASH) return "bBAz".indexOf(regex.charAt(1)) == -1 && escapeEnd(regex, 0) == length;
+        if (first == OPEN_SQUARE_BRACKET) return classEnd(regex, 0) == length;
+        if (first == PAREN_OPEN) return groupEnd(regex, 0) == length;
+        return false;
+    }
+
+    /**
+     * Checks whether the expression has a alternation that is not
+     * enclosed in a group. Such expressions must be grouped when
+     * they are concatenated with others.
+     *
+     * @param regex emitted expression
+     * @return true if there's a top level |
+     */
+    static boolean hasTopLevelAlternation(final CharSequence regex) {
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == ALTERNATION.charAt(0)) return true;
+            i = next(regex, i);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index after the atom or meta character at i. Groups,
+     * classes, escapes and quotes are skipped as a whole.
+     */
+    static int next(final CharSequence regex, final int i) {
+        final char c = regex.charAt(i);
+        if (c == BACKSLASH) return escapeEnd(regex, i);
+        if (c == OPEN_SQUARE_BRACKET) return classEnd(regex, i);
+        if (c == PAREN_OPEN) return groupEnd(regex, i);
+        return i + 1;
+    }
+
+    private static int escapeEnd(final CharSequence regex, final int i) {
+        if (i + 1 >= regex.length()) return regex.length();
+        final char c = regex.charAt(i + 1);
+        switch (c) {
+            case 'Q': { // quoted upto \E or the end
+                for (int j = i + 2; j + 1 < regex.length(); j++)
+                    if (regex.charAt(j) == BACKSLASH && regex.charAt(j + 1) == 'E') return j + 2;
+                return regex.length();
+            }
+            case 'x':
+            case 'p':
+            case 'P':
+                if (i + 2 < regex.length() && regex.charAt(i + 2) == OPEN_CURLY_BRACE) {
+                    for (int j = i + 3; j < regex.length(); j++)
+                        if (regex.charAt(j) == CLOSE_CURLY_BRACE) return j + 1;
+                    return regex.length();
+                }
+                return c == 'x' ? Math.min(i + 4, regex.length()) : Math.min(i + 3, regex.length());
+            default:
+                return i + 2;
+        }
+    }
+
+    private static int classEnd(final CharSequence regex, final int i) {
+        int j = i + 1;
+        if (j < regex.length() && regex.charAt(j) == CARAT) j++;
+        if (j < regex.length() && regex.charAt(j) == CLOSE_SQUARE_BRACKET) j++; // literal ] at start
+        while (j < regex.length()) {
+            final char c = regex.charAt(j);
+            if (c == BACKSLASH) {
+                j += 2;
+            } else if (c == OPEN_SQUARE_BRACKET && j + 1 < regex.length() && regex.charAt(j + 1) == COLON) {
+                final int end = regex.toString().indexOf(":]", j + 2); // posix class [:alpha:]
+                j = end == -1 ? regex.length() : end + 2;
+            } else if (c == CLOSE_SQUARE_BRACKET) {
+                return j + 1;
+            } else {
+                j++;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * Counts the capturing groups. i.e. ( and (?P&lt;name&gt;
+     *
+     * @param regex emitted expression
+     * @return number of capturing groups
+     */
+    static int captureCount(final CharSequence regex) {
+        int count = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            if (regex.charAt(i) != PAREN_OPEN) {
+                i = next(regex, i);
+                continue;
+            }
+            final boolean named = i + 3 < regex.length() && regex.charAt(i + 1) == QUESTION_MARK
+                    && regex.charAt(i + 2) == 'P' && regex.charAt(i + 3) == LESS_THAN;
+            if (named || i + 1 >= regex.length() || regex.charAt(i + 1) != QUESTION_MARK) count++;
+            i++; // the content of the group is scanned as well
+        }
+        return count;
+    }
+
+    /**
+     * Returns the names of the capturing groups in their order. The
+     * unnamed groups are null. i.e. (a)(?P&lt;b&gt;c) =&gt; [null, b]
+     *
+     * @param regex emitted expression
+     * @return names of the capturing groups
+     */
+    static List<String> captureNames(final CharSequence regex) {
+        final List<String> names = new ArrayList<>();
+        int i = 0;
+        while (i < regex.length()) {
+            if (regex.charAt(i) != PAREN_OPEN) {
+                i = next(regex, i);
+                continue;
+            }
+            final boolean named = i + 3 < regex.length() && regex.charAt(i + 1) == QUESTION_MARK
+                    && regex.charAt(i + 2) == 'P' && regex.charAt(i + 3) == LESS_THAN;
+            if (named) {
+                final String rest = regex.subSequence(i + 4, regex.length()).toString();
+                names.add(rest.substring(0, rest.indexOf(GREATER_THAN)));
+            } else if (i + 1 >= regex.length() || regex.charAt(i + 1) != QUESTION_MARK) {
+                names.add(null);
+            }
+            i++; // the content of the group is scanned as well
+        }
+        return names;
+    }
+
+    static int groupEnd(final CharSequence regex, final int i) {
+        int j = i + 1;
+        while (j < regex.length()) {
+            final char c = regex.charAt(j);
+            if (c == PAREN_CLOSE) return j + 1;
+            j = next(regex, j);
+        }
+        return regex.length();
+    }
+
+}
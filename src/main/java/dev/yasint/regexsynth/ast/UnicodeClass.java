@@ -0,0 +1,61 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.unicode.UnicodeScript;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.CLOSE_CURLY_BRACE;
+import static dev.yasint.regexsynth.api.MetaCharacters.OPEN_CURLY_BRACE;
+
+/**
+ * AST :: Unicode Class
+ * <p>
+ * A unicode general category or script class. i.e. \pL \p{Greek}
+ * and the negated forms \PL \P{Greek}
+ */
+public final class UnicodeClass extends Node {
+
+    private final UnicodeScript script;
+    private final boolean negated;
+
+    public UnicodeClass(final UnicodeScript script, final boolean negated) {
+        this.script = Objects.requireNonNull(script);
+        this.negated = negated;
+    }
+
+    public UnicodeScript script() {
+        return script;
+    }
+
+    public boolean isNegated() {
+        return negated;
+    }
+
+    @Override
+    public void emitTo(final Appendable out) throws IOException {
+        final String blockName = script.getBlock();
+        out.append(negated ? "\\P" : "\\p");
+        if (blockName.length() == 1) out.append(blockName);
+        else out.append(OPEN_CURLY_BRACE).append(blockName).append(CLOSE_CURLY_BRACE);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return script.getBlock().length() + 4;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UnicodeClass)) return false;
+        final UnicodeClass other = (UnicodeClass) o;
+        return negated == other.negated && script == other.script;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(script, negated);
+    }
+
+}
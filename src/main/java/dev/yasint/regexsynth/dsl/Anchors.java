@@ -1,10 +1,12 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.Anchor;
+import dev.yasint.regexsynth.ast.Concat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-
-import static dev.yasint.regexsynth.api.MetaCharacters.*;
+import java.util.List;
 
 /**
  * This class contains all the anchors/boundary matchers that
@@ -27,7 +29,7 @@ public final class Anchors {
      * @return boundary expression \b
      */
     public static Expression wordBoundary() {
-        return () -> new StringBuilder(2).append(WORD_BOUNDARY);
+        return new Anchor(Anchor.Type.WORD_BOUNDARY);
     }
 
     /**
@@ -38,7 +40,7 @@ public final class Anchors {
      * @return non-boundary expression \B
      */
     public static Expression nonWordBoundary() {
-        return () -> new StringBuilder(2).append(NON_WORD_BOUNDARY);
+        return new Anchor(Anchor.Type.NON_WORD_BOUNDARY);
     }
 
     /**
@@ -51,7 +53,7 @@ public final class Anchors {
      * @return expression start of line ^
      */
     public static Expression startOfLine() {
-        return () -> new StringBuilder(1).append(CARAT);
+        return new Anchor(Anchor.Type.START_OF_LINE);
     }
 
     /**
@@ -64,9 +66,8 @@ public final class Anchors {
      * @return expression
      */
     public static Expression endOfLine(final boolean crlf) {
-        return () -> new StringBuilder(6)
-                // appends \r if crlf is true.
-                .append(crlf ? "\\x0D?" : "").append(DOLLAR);
+        // appends \r if crlf is true.
+        return new Anchor(crlf ? Anchor.Type.END_OF_LINE_CRLF : Anchor.Type.END_OF_LINE);
     }
 
     /**
@@ -78,7 +79,7 @@ public final class Anchors {
      * @return expression \A absolute start
      */
     public static Expression startOfText() {
-        return () -> new StringBuilder(2).append(BEGINNING_OF_TEXT);
+        return new Anchor(Anchor.Type.START_OF_TEXT);
     }
 
     /**
@@ -88,7 +89,7 @@ public final class Anchors {
      * @return expression \z absolute end
      */
     public static Expression endOfText() {
-        return () -> new StringBuilder(2).append(END_OF_TEXT);
+        return new Anchor(Anchor.Type.END_OF_TEXT);
     }
 
     /**
@@ -99,10 +100,7 @@ public final class Anchors {
      * @return wrapped expression ^...$
      */
     public static Expression exactLineMatch(final Expression... expressions) {
-        return () -> Arrays.stream(expressions)
-                .map(Expression::toRegex)
-                .reduce(new StringBuilder().append(CARAT), StringBuilder::append)
-                .append(DOLLAR);
+        return wrapped(new Anchor(Anchor.Type.START_OF_LINE), expressions, new Anchor(Anchor.Type.END_OF_LINE));
     }
 
     /**
@@ -114,10 +112,15 @@ public final class Anchors {
      * @return new wrapped expression \b some-other-expression(s) \b
      */
     public static Expression exactWordBoundary(final Expression... expressions) {
-        return () -> Arrays.stream(expressions)
-                .map(Expression::toRegex)
-                .reduce(new StringBuilder().append(WORD_BOUNDARY), StringBuilder::append)
-                .append(WORD_BOUNDARY);
+        return wrapped(new Anchor(Anchor.Type.WORD_BOUNDARY), expressions, new Anchor(Anchor.Type.WORD_BOUNDARY));
+    }
+
+    private static Expression wrapped(final Anchor start, final Expression[] expressions, final Anchor end) {
+        final List<Expression> children = new ArrayList<>(expressions.length + 2);
+        children.add(start);
+        children.addAll(Arrays.asList(expressions));
+        children.add(end);
+        return new Concat(children);
     }
 
 }
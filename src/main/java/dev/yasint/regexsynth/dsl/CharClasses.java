@@ -1,6 +1,7 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.Fragment;
 import dev.yasint.regexsynth.exceptions.GenericException;
 import dev.yasint.regexsynth.exceptions.SetElementException;
 import dev.yasint.regexsynth.synthesis.SetExpression;
@@ -15,6 +16,10 @@ import static dev.yasint.regexsynth.util.Common.isNotASetExpression;
 /**
  * Contains all the set constructs and character classes.
  * RegexSynth supports all the POSIX character classes.
+ * <p>
+ * The sets created here are frozen, and the set operations
+ * return new frozen sets instead of modifying their arguments.
+ * So the same set can be reused in many patterns and threads.
  *
  * @since 1.0.0
  */
@@ -23,20 +28,20 @@ public final class CharClasses {
     /**
      * Matches any character, possibly including newline \n if
      * the 's' {@link dev.yasint.regexsynth.api.RegexSynth.Flags#DOTALL}
-     * flag is turned on.
+     * flag is turned on. This is not a set, so it can't be used
+     * in set operations or merged with other sets.
      *
      * @return match anything
      */
     public static Expression anything() {
-        return simpleSet(PERIOD);
+        return new Fragment(String.valueOf(PERIOD));
     }
 
     // Set Operations
 
     /**
      * Simply converts a given set to a negated character class.
-     * <code>[^acd]</code>. This is a impure function. Because
-     * it mutates the source set.
+     * <code>[^acd]</code>. The source set is not modified.
      *
      * @param set source set to convert
      * @return negated set expression
@@ -45,8 +50,9 @@ public final class CharClasses {
         if (isNotASetExpression(set)) {
             throw new GenericException("must be a set expression");
         }
-        ((SetExpression) set).negate();
-        return set;
+        final SetExpression negated = SetExpression.copyOf((SetExpression) set);
+        negated.negate();
+        return negated.freeze();
     }
 
     /**
@@ -60,28 +66,28 @@ public final class CharClasses {
         if (isNotASetExpression(setA) || isNotASetExpression(setB)) {
             throw new GenericException("union only supported for set expressions");
         }
-        return ((SetExpression) setA).union((SetExpression) setB);
+        return SetExpression.copyOf((SetExpression) setA).union((SetExpression) setB).freeze();
     }
 
     public static Expression difference(final Expression setA, final Expression setB) {
         if (isNotASetExpression(setA) || isNotASetExpression(setB)) {
             throw new GenericException("difference only supported for set expressions");
         }
-        return ((SetExpression) setA).difference((SetExpression) setB);
+        return SetExpression.copyOf((SetExpression) setA).difference((SetExpression) setB).freeze();
     }
 
     public static Expression intersection(final Expression setA, final Expression setB) {
         if (isNotASetExpression(setA) || isNotASetExpression(setB)) {
             throw new GenericException("intersection only supported for set expressions");
         }
-        return ((SetExpression) setA).intersection((SetExpression) setB);
+        return SetExpression.copyOf((SetExpression) setA).intersection((SetExpression) setB).freeze();
     }
 
     public static Expression includeUnicodeScript(final Expression set, final UnicodeScript script, final boolean negated) {
         if (isNotASetExpression(set)) {
             throw new GenericException("includeUnicodeScript only supported for set expressions");
         }
-        return ((SetExpression) set).withUnicodeClass(script, negated);
+        return SetExpression.copyOf((SetExpression) set).withUnicodeClass(script, negated).freeze();
     }
 
     // Set Construction
@@ -98,7 +104,7 @@ public final class CharClasses {
             throw new SetElementException("set range elements cannot be null");
         final SetExpression set = new SetExpression(false);
         set.addRange(Common.toCodepoint(from), Common.toCodepoint(to));
-        return set;
+        return set.freeze();
     }
 
     /**
@@ -111,7 +117,7 @@ public final class CharClasses {
     public static Expression rangedSet(final int codepointA, final int codepointB) {
         final SetExpression set = new SetExpression(false);
         set.addRange(codepointA, codepointB);
-        return set;
+        return set.freeze();
     }
 
     /**
@@ -132,7 +138,7 @@ public final class CharClasses {
             }
             set.addChar(Common.toCodepoint(c));
         }
-        return set;
+        return set.freeze();
     }
 
     /**
@@ -143,7 +149,7 @@ public final class CharClasses {
         final SetExpression set = new SetExpression(false);
         for (final int c : Objects.requireNonNull(codepoints))
             set.addChar(c);
-        return set;
+        return set.freeze();
     }
 
     /**
@@ -153,7 +159,7 @@ public final class CharClasses {
      * @return empty set expression
      */
     public static Expression emptySet() {
-        return new SetExpression(false);
+        return new SetExpression(false).freeze();
     }
 
     // Pre-defined character classes and escape sequences.
@@ -1,11 +1,11 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.Group;
 
 import java.util.Arrays;
 import java.util.Objects;
 
-import static dev.yasint.regexsynth.api.MetaCharacters.*;
 import static dev.yasint.regexsynth.util.Common.asRegexGroupName;
 
 /**
@@ -27,15 +27,7 @@ public final class Groups {
      * @return non-capturing group.
      */
     public static Expression nonCaptureGroup(final Expression... expressions) {
-        return () -> Arrays.stream(Objects.requireNonNull(expressions))
-                .map(Expression::toRegex)
-                .reduce(
-                        new StringBuilder()
-                                .append(PAREN_OPEN)
-                                .append(QUESTION_MARK)
-                                .append(COLON),
-                        StringBuilder::append
-                ).append(PAREN_CLOSE);
+        return new Group(Group.Type.NON_CAPTURE, null, Arrays.asList(Objects.requireNonNull(expressions)));
     }
 
     /**
@@ -47,12 +39,7 @@ public final class Groups {
      * @return capturing group
      */
     public static Expression captureGroup(final Expression... expressions) {
-        return () -> Arrays.stream(Objects.requireNonNull(expressions))
-                .map(Expression::toRegex)
-                .reduce(
-                        new StringBuilder().append(PAREN_OPEN),
-                        StringBuilder::append
-                ).append(PAREN_CLOSE);
+        return new Group(Group.Type.CAPTURE, null, Arrays.asList(Objects.requireNonNull(expressions)));
     }
 
     /**
@@ -65,18 +52,8 @@ public final class Groups {
      * @return named capturing group
      */
     public static Expression namedCaptureGroup(final String name, final Expression... expressions) {
-        return () -> Arrays.stream(Objects.requireNonNull(expressions))
-                .map(Expression::toRegex)
-                .reduce(
-                        new StringBuilder()
-                                .append(PAREN_OPEN)
-                                .append(QUESTION_MARK)
-                                .append(NAMED_CAPTURE_GROUP_PREFIX)
-                                .append(LESS_THAN)
-                                .append(asRegexGroupName(name))
-                                .append(GREATER_THAN),
-                        StringBuilder::append
-                ).append(PAREN_CLOSE);
+        return new Group(Group.Type.NAMED, asRegexGroupName(Objects.requireNonNull(name)),
+                Arrays.asList(Objects.requireNonNull(expressions)));
     }
 
 }
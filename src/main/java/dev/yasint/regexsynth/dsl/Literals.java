@@ -1,13 +1,10 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.Literal;
+import dev.yasint.regexsynth.ast.UnicodeClass;
 import dev.yasint.regexsynth.unicode.UnicodeScript;
 
-import java.util.Objects;
-
-import static dev.yasint.regexsynth.api.MetaCharacters.*;
-import static dev.yasint.regexsynth.util.Common.asRegexLiteral;
-
 public final class Literals {
 
     /**
@@ -19,9 +16,7 @@ public final class Literals {
      * @return escaped literal
      */
     public static Expression literal(final String literals) {
-        return () -> new StringBuilder(
-                asRegexLiteral(Objects.requireNonNull(literals))
-        );
+        return new Literal(literals, false);
     }
 
     /**
@@ -33,10 +28,7 @@ public final class Literals {
      * @return strict quoted literal string or text
      */
     public static Expression quotedLiteral(final String literals) {
-        return () -> new StringBuilder()
-                .append(QUOTE_START)
-                .append(Objects.requireNonNull(literals))
-                .append(QUOTE_END);
+        return new Literal(literals, true);
     }
 
     /**
@@ -49,20 +41,7 @@ public final class Literals {
      * @return unicode character block
      */
     public static Expression unicodeScriptLiteral(final UnicodeScript block, final boolean negated) {
-        final String blockName = Objects.requireNonNull(block).getBlock();
-        final StringBuilder expression = new StringBuilder();
-        if (blockName.length() == 1) {
-            expression
-                    .append(negated ? "\\P" : "\\p")
-                    .append(blockName);
-        } else {
-            expression
-                    .append(negated ? "\\P" : "\\p")
-                    .append(OPEN_CURLY_BRACE)
-                    .append(blockName)
-                    .append(CLOSE_CURLY_BRACE);
-        }
-        return () -> expression;
+        return new UnicodeClass(block, negated);
     }
 
 }
@@ -0,0 +1,181 @@
+package dev.yasint.regexsynth.dsl;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.InvalidNetworkException;
+import dev.yasint.regexsynth.synthesis.AddressRangeExpression;
+import dev.yasint.regexsynth.synthesis.AddressRangeExpression.Family;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
+
+/**
+ * Contains network address constructs. These synthesize the
+ * address ranges of CIDR blocks into regular expressions so the
+ * address filtering can happen in the same regex scan.
+ * <p>
+ * Note that the expressions don't have boundaries. Wrap them in
+ * {@link Anchors#exactWordBoundary(Expression...)} or anchors to
+ * avoid matching a part of a longer address.
+ *
+ * @since 1.0.0
+ */
+public final class Network {
+
+    /**
+     * Creates a IPv4 address expression that matches any address
+     * in the given CIDR blocks. i.e. ipv4("10.0.0.0/8", "192.168.4.0/22")
+     * Overlapping and adjacent blocks are merged. A address without a
+     * prefix length is a single host. Host bits of a block are ignored.
+     * i.e. 10.1.2.3/8 is same as 10.0.0.0/8
+     *
+     * @param cidrs IPv4 CIDR blocks
+     * @return address range expression
+     */
+    public static Expression ipv4(final String... cidrs) {
+        return cidrs(Family.IPV4, cidrs);
+    }
+
+    /**
+     * Creates a IPv4 address expression that matches any address from
+     * start to end inclusively. i.e. 10.0.0.10 - 10.0.1.20
+     *
+     * @param from starting address inclusive
+     * @param to   ending address inclusive
+     * @return address range expression
+     */
+    public static Expression ipv4Range(final String from, final String to) {
+        return range(Family.IPV4, from, to);
+    }
+
+    /**
+     * Creates a IPv6 address expression that matches any address in
+     * the given CIDR blocks. i.e. ipv6("2001:db8::/32") The blocks
+     * may use the :: compression but the matched addresses must be
+     * written in full eight hextets without leading zeros. Letter
+     * digits are matched in both cases.
+     *
+     * @param cidrs IPv6 CIDR blocks
+     * @return address range expression
+     */
+    public static Expression ipv6(final String... cidrs) {
+        return cidrs(Family.IPV6, cidrs);
+    }
+
+    /**
+     * Creates a IPv6 address expression that matches any address from
+     * start to end inclusively. Same rules as {@link #ipv6(String...)}
+     * applies to the matched addresses.
+     *
+     * @param from starting address inclusive
+     * @param to   ending address inclusive
+     * @return address range expression
+     */
+    public static Expression ipv6Range(final String from, final String to) {
+        return range(Family.IPV6, from, to);
+    }
+
+    private static Expression cidrs(final Family family, final String... cidrs) {
+        if (Objects.requireNonNull(cidrs).length == 0)
+            throw new InvalidNetworkException("at least one CIDR block is required");
+        final List<BigInteger[]> intervals = new ArrayList<>(cidrs.length);
+        for (final String cidr : cidrs) intervals.add(block(family, Objects.requireNonNull(cidr)));
+        return nonCaptureGroup(new AddressRangeExpression(family, intervals));
+    }
+
+    private static Expression range(final Family family, final String from, final String to) {
+        final BigInteger start = address(family, Objects.requireNonNull(from));
+        final BigInteger end = address(family, Objects.requireNonNull(to));
+        if (start.compareTo(end) > 0)
+            throw new InvalidNetworkException("address range is out of order");
+        final List<BigInteger[]> intervals = new ArrayList<>(1);
+        intervals.add(new BigInteger[]{start, end});
+        return nonCaptureGroup(new AddressRangeExpression(family, intervals));
+    }
+
+    /**
+     * Parses a CIDR block into a inclusive address interval.
+     *
+     * @param family address family
+     * @param cidr   address with optional prefix length
+     * @return [network address, broadcast address]
+     */
+    private static BigInteger[] block(final Family family, final String cidr) {
+        final int slash = cidr.indexOf('/');
+        final BigInteger address = address(family, slash == -1 ? cidr : cidr.substring(0, slash));
+        int prefix = family.bits();
+        if (slash != -1) {
+            try {
+                prefix = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new InvalidNetworkException("invalid prefix length: " + cidr);
+            }
+            if (prefix < 0 || prefix > family.bits())
+                throw new InvalidNetworkException("prefix length is out of range: " + cidr);
+        }
+        final BigInteger hostMask = BigInteger.ONE.shiftLeft(family.bits() - prefix).subtract(BigInteger.ONE);
+        final BigInteger network = address.andNot(hostMask);
+        return new BigInteger[]{network, network.or(hostMask)};
+    }
+
+    private static BigInteger address(final Family family, final String address) {
+        return family == Family.IPV4 ? ipv4Address(address) : ipv6Address(address);
+    }
+
+    private static BigInteger ipv4Address(final String address) {
+        final String[] octets = address.split("\\.", -1);
+        if (octets.length != 4)
+            throw new InvalidNetworkException("invalid IPv4 address: " + address);
+        long value = 0;
+        for (final String octet : octets) {
+            value = value << 8 | group(octet, 10, 3, 255, address);
+        }
+        return BigInteger.valueOf(value);
+    }
+
+    private static BigInteger ipv6Address(final String address) {
+        final int compression = address.indexOf("::");
+        if (compression != address.lastIndexOf("::"))
+            throw new InvalidNetworkException("invalid IPv6 address: " + address);
+        final List<String> hextets = new ArrayList<>(8);
+        if (compression == -1) {
+            for (final String hextet : address.split(":", -1)) hextets.add(hextet);
+        } else {
+            final String head = address.substring(0, compression);
+            final String tail = address.substring(compression + 2);
+            final String[] left = head.isEmpty() ? new String[0] : head.split(":", -1);
+            final String[] right = tail.isEmpty() ? new String[0] : tail.split(":", -1);
+            if (left.length + right.length > 7)
+                throw new InvalidNetworkException("invalid IPv6 address: " + address);
+            for (final String hextet : left) hextets.add(hextet);
+            for (int i = left.length + right.length; i < 8; i++) hextets.add("0");
+            for (final String hextet : right) hextets.add(hextet);
+        }
+        if (hextets.size() != 8)
+            throw new InvalidNetworkException("invalid IPv6 address: " + address);
+        BigInteger value = BigInteger.ZERO;
+        for (final String hextet : hextets) {
+            value = value.shiftLeft(16).or(BigInteger.valueOf(group(hextet, 16, 4, 0xFFFF, address)));
+        }
+        return value;
+    }
+
+    private static int group(final String digits, final int radix, final int maxLength,
+                             final int max, final String address) {
+        if (digits.isEmpty() || digits.length() > maxLength)
+            throw new InvalidNetworkException("invalid address: " + address);
+        for (int i = 0; i < digits.length(); i++) {
+            final char c = digits.charAt(i); // ascii digits only
+            if (c > 'z' || Character.digit(c, radix) == -1)
+                throw new InvalidNetworkException("invalid address: " + address);
+        }
+        final int value = Integer.parseInt(digits, radix);
+        if (value > max)
+            throw new InvalidNetworkException("invalid address: " + address);
+        return value;
+    }
+
+}
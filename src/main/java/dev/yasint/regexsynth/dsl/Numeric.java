@@ -1,8 +1,14 @@
 package dev.yasint.regexsynth.dsl;
 
         import dev.yasint.regexsynth.api.Expression;
+        import dev.yasint.regexsynth.ast.Fragment;
         import dev.yasint.regexsynth.exceptions.NumericRangeException;
+        import dev.yasint.regexsynth.synthesis.IntegerSetExpression;
         import dev.yasint.regexsynth.synthesis.RangeExpression;
+        import dev.yasint.regexsynth.synthesis.RangeExpression.DigitCase;
+        import dev.yasint.regexsynth.util.LruCache;
+
+        import java.math.BigDecimal;
 
         import static dev.yasint.regexsynth.api.MetaCharacters.QUESTION_MARK;
         import static dev.yasint.regexsynth.dsl.CharClasses.rangedSet;
@@ -10,6 +16,13 @@ package dev.yasint.regexsynth.dsl;
 
 public final class Numeric {
 
+    // Synthesized integer range text keyed by the packed bounds. Range
+    // synthesis is deterministic, so the same bounds always produce the
+    // same text and only the first use pays for the decomposition.
+    //
+    private static final int RANGE_CACHE_CAPACITY = 1024;
+    private static final LruCache<Long, String> RANGE_CACHE = new LruCache<>(RANGE_CACHE_CAPACITY);
+
     /**
      * Appends a optional zero to any expression where usually this is
      * used with digits/ranges.
@@ -28,8 +41,14 @@ public final class Numeric {
      * The resulting expression is wrapped around a non-capturing group
      * to avoid condition collisions.
      *
-     * @param from starting integer MIN_INT = 0
-     * @param to   ending integer MAX_INT = 10^9 - 1
+     * Negative bounds are supported. i.e. -40..125 The negative part
+     * shares the magnitude factoring with the positive part.
+     *
+     * The synthesized text is memoized in a bounded LRU cache, so
+     * frequently used ranges are synthesized only once.
+     *
+     * @param from starting integer inclusive
+     * @param to   ending integer inclusive
      * @return range expression
      */
     public static Expression integerRange(final int from, final int to) {
@@ -39,7 +58,206 @@ public final class Numeric {
             return Literals.literal(String.valueOf(from));
         if (from >= 0 && to <= 9)
             return rangedSet(String.valueOf(from), String.valueOf(to));
-        return nonCaptureGroup(new RangeExpression(from, to));
+        final long key = (long) from << 32 | (to & 0xFFFFFFFFL);
+        // equal ranges are equal fragments, so they're shared within a pattern
+        return nonCaptureGroup(new Fragment(
+                RANGE_CACHE.get(key, k -> new RangeExpression(from, to).toRegex().toString())
+        ));
+    }
+
+    /**
+     * Returns the number of integer ranges served from the range cache.
+     *
+     * @return cache hit count
+     */
+    public static long rangeCacheHits() {
+        return RANGE_CACHE.hits();
+    }
+
+    /**
+     * Returns the number of integer ranges that had to be synthesized
+     * because they were not in the range cache.
+     *
+     * @return cache miss count
+     */
+    public static long rangeCacheMisses() {
+        return RANGE_CACHE.misses();
+    }
+
+    /**
+     * Removes all the cached integer ranges and resets the counters.
+     */
+    public static void clearRangeCache() {
+        RANGE_CACHE.clear();
+    }
+
+    /**
+     * Creates a fixed-width integer range. Every value is padded with
+     * leading zeros upto the width. Unlike {@link #leadingZero(Expression)}
+     * this matches exactly width digits. i.e. paddedRange(1, 366, 3)
+     * matches 001 upto 366 but not 1 or 01. Negative values pad their
+     * magnitude. i.e. -05
+     *
+     * @param from  starting integer inclusive
+     * @param to    ending integer inclusive
+     * @param width number of digits
+     * @return fixed-width range expression
+     */
+    public static Expression paddedRange(final int from, final int to, final int width) {
+        if (from > to)
+            throw new NumericRangeException("integer range is out of order");
+        if (width < 1 || width > 10)
+            throw new NumericRangeException("width must be in range 1..10");
+        final String maxDigits = String.valueOf(Math.max(Math.abs((long) from), Math.abs((long) to)));
+        if (maxDigits.length() > width)
+            throw new NumericRangeException("range does not fit the width");
+        if (from == to) {
+            final String digits = String.valueOf(Math.abs((long) from));
+            final StringBuilder padded = new StringBuilder(from < 0 ? "-" : "");
+            for (int i = digits.length(); i < width; i++) padded.append('0');
+            return Literals.literal(padded.append(digits).toString());
+        }
+        return nonCaptureGroup(new RangeExpression(from, to, width, 0));
+    }
+
+    /**
+     * Creates a ranged integer in the given radix based on from and to
+     * values inclusively. Digits above 9 are letters and the case of
+     * them is controlled by digitCase. i.e. radixRange(0, 255, 16, 2,
+     * DigitCase.UPPERCASE) matches 00 upto FF
+     *
+     * @param from      starting value inclusive
+     * @param to        ending value inclusive
+     * @param radix     number base from 2 to 36
+     * @param width     number of digits (zero padded) or 0 for no padding
+     * @param digitCase case of the letter digits
+     * @return range expression
+     */
+    public static Expression radixRange(final long from, final long to, final int radix,
+                                        final int width, final DigitCase digitCase) {
+        if (from > to)
+            throw new NumericRangeException("integer range is out of order");
+        if (width > 0 && Long.toString(Math.max(Math.abs(from), Math.abs(to)), radix).length() > width)
+            throw new NumericRangeException("range does not fit the width");
+        final RangeExpression range = new RangeExpression(from, to, width, 0, radix, digitCase);
+        if (from == to) return range; // single sequence of digits
+        return nonCaptureGroup(range);
+    }
+
+    /**
+     * Creates a hexadecimal range that accepts both lowercase and
+     * uppercase digits. i.e. hexRange(0x0, 0x10FFFF) matches any
+     * unicode codepoint value.
+     *
+     * @param from starting value inclusive
+     * @param to   ending value inclusive
+     * @return hex range expression
+     */
+    public static Expression hexRange(final long from, final long to) {
+        return radixRange(from, to, 16, 0, DigitCase.BOTH);
+    }
+
+    /**
+     * Creates a octal range. i.e. octalRange(0, 0777) matches 0 upto 777
+     *
+     * @param from starting value inclusive
+     * @param to   ending value inclusive
+     * @return octal range expression
+     */
+    public static Expression octalRange(final long from, final long to) {
+        return radixRange(from, to, 8, 0, DigitCase.LOWERCASE);
+    }
+
+    /**
+     * Creates a binary range. i.e. binaryRange(0, 5) matches 0 upto 101
+     *
+     * @param from starting value inclusive
+     * @param to   ending value inclusive
+     * @return binary range expression
+     */
+    public static Expression binaryRange(final long from, final long to) {
+        return radixRange(from, to, 2, 0, DigitCase.LOWERCASE);
+    }
+
+    /**
+     * Creates a sparse integer set expression. The values are grouped
+     * into consecutive runs and synthesized as a digit trie instead of
+     * a plain alternation. i.e. {1, 2, 3, 7, 10, 11} => (?:1[01]|[1-37])
+     * The resulting expression is wrapped around a non-capturing group
+     * to avoid condition collisions.
+     *
+     * @param values integers in any order
+     * @return integer set expression
+     */
+    public static Expression integerSet(final int... values) {
+        if (values == null)
+            throw new NumericRangeException("integer set cannot be null");
+        final long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) longs[i] = values[i];
+        return integerSet(longs);
+    }
+
+    /**
+     * Creates a sparse integer set expression. This is same as
+     * {@link #integerSet(int...)} but accepts long values.
+     *
+     * @param values longs in any order (greater than min long)
+     * @return integer set expression
+     */
+    public static Expression integerSet(final long... values) {
+        if (values == null || values.length == 0)
+            throw new NumericRangeException("integer set cannot be empty");
+        final IntegerSetExpression set = new IntegerSetExpression(values);
+        if (set.size() == 1)
+            return Literals.literal(String.valueOf(values[0]));
+        return nonCaptureGroup(set);
+    }
+
+    /**
+     * Creates a fixed-point decimal range based on from and to values
+     * inclusively. Matched values must have exactly scale digits after
+     * the decimal point. i.e. decimalRange(0, 100, 2) matches 0.00 upto
+     * 100.00 but not 5.5 or 5.500 The resulting expression is wrapped
+     * around a non-capturing group to avoid condition collisions.
+     *
+     * @param from  starting decimal inclusive
+     * @param to    ending decimal inclusive
+     * @param scale number of digits after the decimal point
+     * @return decimal range expression
+     */
+    public static Expression decimalRange(final BigDecimal from, final BigDecimal to, final int scale) {
+        if (from == null || to == null)
+            throw new NumericRangeException("decimal range bounds cannot be null");
+        if (from.compareTo(to) > 0)
+            throw new NumericRangeException("decimal range is out of order");
+        if (scale < 0 || scale > 18)
+            throw new NumericRangeException("scale must be in range 0..18");
+        final long start = scaled(from, scale), end = scaled(to, scale);
+        if (start == end)
+            return Literals.literal(from.setScale(scale).toPlainString());
+        return nonCaptureGroup(new RangeExpression(start, end, scale));
+    }
+
+    /**
+     * Creates a fixed-point decimal range. This is same as
+     * {@link #decimalRange(BigDecimal, BigDecimal, int)} but the
+     * bounds are converted using their canonical string value.
+     *
+     * @param from  starting decimal inclusive
+     * @param to    ending decimal inclusive
+     * @param scale number of digits after the decimal point
+     * @return decimal range expression
+     */
+    public static Expression decimalRange(final double from, final double to, final int scale) {
+        return decimalRange(BigDecimal.valueOf(from), BigDecimal.valueOf(to), scale);
+    }
+
+    private static long scaled(final BigDecimal value, final int scale) {
+        try {
+            return value.setScale(scale).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumericRangeException("decimal bound does not fit the scale: " + value);
+        }
     }
 
 }
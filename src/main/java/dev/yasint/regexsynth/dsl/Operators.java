@@ -1,15 +1,15 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.Alternation;
+import dev.yasint.regexsynth.ast.Concat;
 import dev.yasint.regexsynth.synthesis.TrieExpression;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import static dev.yasint.regexsynth.api.MetaCharacters.ALTERNATION;
 import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
 
 public final class Operators {
@@ -22,10 +22,7 @@ public final class Operators {
      * @return wrapped alternated expressions
      */
     public static Expression either(final Expression... expressions) {
-        final String alternations = Arrays.stream(Objects.requireNonNull(expressions))
-                .map(Expression::toRegex)
-                .collect(Collectors.joining(ALTERNATION));
-        return nonCaptureGroup(() -> new StringBuilder(alternations));
+        return nonCaptureGroup(new Alternation(Arrays.asList(Objects.requireNonNull(expressions))));
     }
 
     /**
@@ -49,7 +46,7 @@ public final class Operators {
     public static Expression either(final Set<String> strings) {
         final TrieExpression trie = new TrieExpression();
         trie.insertAll(strings);
-        return trie;
+        return trie.freeze();
     }
 
     /**
@@ -61,8 +58,7 @@ public final class Operators {
      * @return concatenated expression.
      */
     public static Expression concat(final Expression a, final Expression b) {
-        return () -> Objects.requireNonNull(a).toRegex()
-                .append(Objects.requireNonNull(b).toRegex());
+        return new Concat(Arrays.asList(a, b));
     }
 
     /**
@@ -73,9 +69,7 @@ public final class Operators {
      * @return concatenated expressions.
      */
     public static Expression concat(final Expression... expressions) {
-        return () -> Arrays.stream(Objects.requireNonNull(expressions))
-                .map(Expression::toRegex)
-                .reduce(new StringBuilder(), StringBuilder::append);
+        return new Concat(Arrays.asList(Objects.requireNonNull(expressions)));
     }
 
 }
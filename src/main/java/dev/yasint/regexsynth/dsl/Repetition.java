@@ -1,13 +1,10 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.ast.LazyQuantifier;
+import dev.yasint.regexsynth.ast.Quantifier;
 import dev.yasint.regexsynth.exceptions.QuantifierException;
 
-import java.util.Objects;
-
-import static dev.yasint.regexsynth.api.MetaCharacters.*;
-import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
-
 public final class Repetition {
 
     /**
@@ -21,9 +18,7 @@ public final class Repetition {
         if (expression instanceof GreedyQuantifier || expression instanceof ReluctantQuantifier) {
             throw new QuantifierException("cannot apply + because it's already quantified");
         }
-        return (GreedyQuantifier) () -> nonCaptureGroup(
-                Objects.requireNonNull(expression)
-        ).toRegex().append(PLUS);
+        return new Quantifier(expression, 1, Quantifier.UNBOUNDED);
     }
 
     /**
@@ -37,9 +32,7 @@ public final class Repetition {
         if (expression instanceof GreedyQuantifier || expression instanceof ReluctantQuantifier) {
             throw new QuantifierException("cannot apply * because it's already quantified");
         }
-        return (GreedyQuantifier) () -> nonCaptureGroup(
-                Objects.requireNonNull(expression)
-        ).toRegex().append(ASTERISK);
+        return new Quantifier(expression, 0, Quantifier.UNBOUNDED);
     }
 
     /**
@@ -60,12 +53,7 @@ public final class Repetition {
         }
         if (times == 0) return zeroOrMoreTimes(expression);
         if (times == 1) return oneOrMoreTimes(expression);
-        return (GreedyQuantifier) () -> nonCaptureGroup(
-                Objects.requireNonNull(expression)
-        ).toRegex()
-                .append(OPEN_CURLY_BRACE)
-                .append(times).append(COMMA) // {3,}
-                .append(CLOSE_CURLY_BRACE);
+        return new Quantifier(expression, times, Quantifier.UNBOUNDED); // {3,}
     }
 
     /**
@@ -79,9 +67,7 @@ public final class Repetition {
         if (expression instanceof GreedyQuantifier || expression instanceof ReluctantQuantifier) {
             throw new QuantifierException("cannot apply ? because it's already quantified");
         }
-        return (GreedyQuantifier) () -> nonCaptureGroup(
-                Objects.requireNonNull(expression)
-        ).toRegex().append(QUESTION_MARK); // ?
+        return new Quantifier(expression, 0, 1); // ?
     }
 
     /**
@@ -103,11 +89,7 @@ public final class Repetition {
         } else if (times > 1000) {
             throw new QuantifierException("max repetition is 1000");
         }
-        return (GreedyQuantifier) () -> nonCaptureGroup(Objects.requireNonNull(expression))
-                .toRegex()
-                .append(OPEN_CURLY_BRACE)
-                .append(times) // i.e. {3} exactly
-                .append(CLOSE_CURLY_BRACE);
+        return new Quantifier(expression, times, times); // i.e. {3} exactly
     }
 
     /**
@@ -134,12 +116,7 @@ public final class Repetition {
         if (m == 0 && n == 1) return optional(expression);
         if (m == 1 && n == 1) return expression;
         if (m == n) return exactly(m, expression);
-        return (GreedyQuantifier) () -> nonCaptureGroup(
-                Objects.requireNonNull(expression)
-        ).toRegex()
-                .append(OPEN_CURLY_BRACE)
-                .append(m).append(COMMA).append(n)
-                .append(CLOSE_CURLY_BRACE);
+        return new Quantifier(expression, m, n);
     }
 
     /**
@@ -156,9 +133,7 @@ public final class Repetition {
         if (!(expression instanceof GreedyQuantifier)) {
             throw new QuantifierException("must be a greedy quantifier");
         }
-        return (ReluctantQuantifier) () -> expression
-                .toRegex()
-                .append(QUESTION_MARK);
+        return new LazyQuantifier(expression);
     }
 
     // Typed interfaces for checking quantifying errors.
@@ -0,0 +1,79 @@
+package dev.yasint.regexsynth.dsl;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.synthesis.TemporalRangeExpression;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Objects;
+
+import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
+
+/**
+ * Contains date and time range constructs. Unlike composing the
+ * fields with {@link Numeric#integerRange(int, int)} these limit
+ * the whole value to the interval, and the days to the length of
+ * each month including leap years.
+ *
+ * @since 1.0.0
+ */
+public final class Temporal {
+
+    /**
+     * Creates a date range expression based on from and to dates
+     * inclusively. The format must contain yyyy, MM and dd fields
+     * exactly once. Any other non-letter character is a literal.
+     * i.e. dateRange(2012-03-15, 2024-11-02, "yyyy-MM-dd") or
+     * dateRange(from, to, "dd/MM/yyyy")
+     *
+     * @param from   starting date inclusive
+     * @param to     ending date inclusive
+     * @param format fixed-width date format
+     * @return date range expression
+     */
+    public static Expression dateRange(final LocalDate from, final LocalDate to, final String format) {
+        return nonCaptureGroup(new TemporalRangeExpression(
+                Objects.requireNonNull(format), Objects.requireNonNull(from), Objects.requireNonNull(to)
+        ));
+    }
+
+    /**
+     * Creates a ISO-8601 date range expression. i.e. 2012-03-15
+     *
+     * @param from starting date inclusive
+     * @param to   ending date inclusive
+     * @return date range expression
+     */
+    public static Expression dateRange(final LocalDate from, final LocalDate to) {
+        return dateRange(from, to, "yyyy-MM-dd");
+    }
+
+    /**
+     * Creates a time range expression based on from and to times
+     * inclusively. The format must contain HH and mm fields and may
+     * contain a ss field. The bounds are truncated to the format.
+     * i.e. timeRange(09:00, 17:30, "HH:mm")
+     *
+     * @param from   starting time inclusive
+     * @param to     ending time inclusive
+     * @param format fixed-width 24-hour time format
+     * @return time range expression
+     */
+    public static Expression timeRange(final LocalTime from, final LocalTime to, final String format) {
+        return nonCaptureGroup(new TemporalRangeExpression(
+                Objects.requireNonNull(format), Objects.requireNonNull(from), Objects.requireNonNull(to)
+        ));
+    }
+
+    /**
+     * Creates a ISO-8601 time range expression. i.e. 13:45:30
+     *
+     * @param from starting time inclusive
+     * @param to   ending time inclusive
+     * @return time range expression
+     */
+    public static Expression timeRange(final LocalTime from, final LocalTime to) {
+        return timeRange(from, to, "HH:mm:ss");
+    }
+
+}
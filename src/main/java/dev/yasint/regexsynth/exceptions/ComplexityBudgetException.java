@@ -0,0 +1,9 @@
+package dev.yasint.regexsynth.exceptions;
+
+public final class ComplexityBudgetException extends RuntimeException {
+
+    public ComplexityBudgetException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package dev.yasint.regexsynth.exceptions;
+
+public final class InvalidNetworkException extends RuntimeException {
+
+    public InvalidNetworkException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package dev.yasint.regexsynth.exceptions;
+
+public final class RegexSyntaxException extends RuntimeException {
+
+    public RegexSyntaxException(String message) {
+        super(message);
+    }
+
+}
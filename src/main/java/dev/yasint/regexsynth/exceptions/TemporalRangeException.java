@@ -0,0 +1,9 @@
+package dev.yasint.regexsynth.exceptions;
+
+public final class TemporalRangeException extends RuntimeException {
+
+    public TemporalRangeException(String message) {
+        super(message);
+    }
+
+}
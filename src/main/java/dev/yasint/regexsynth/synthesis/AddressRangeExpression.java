@@ -0,0 +1,236 @@
+package dev.yasint.regexsynth.synthesis;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.InvalidNetworkException;
+import dev.yasint.regexsynth.synthesis.RangeExpression.DigitCase;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * Synthesis :: Regular Expression Address Ranges
+ * <p>
+ * This generates a regular expression for a set of address
+ * intervals. i.e. IPv4 10.0.0.0 - 10.255.255.255 An address is
+ * a fixed number of groups (octets or hextets) separated by a
+ * delimiter. Overlapping and adjacent intervals are merged first
+ * and then each interval is split group by group, the same way
+ * {@link RangeExpression} splits the digits of a integer range.
+ * i.e. 192.168.4.0 - 192.168.7.255 => 192\.168\.[4-7]\.(?:25[0-5]|...)
+ * Each group range itself is synthesized by {@link RangeExpression}.
+ * <p>
+ * IPv6 addresses must be written in full (eight hextets) without
+ * the :: compression. Hextets don't have leading zeros and the
+ * letter digits are accepted in both cases.
+ */
+public final class AddressRangeExpression implements Expression {
+
+    /**
+     * Supported address families.
+     */
+    public enum Family {
+
+        IPV4(4, 8, 10, PERIOD, DigitCase.LOWERCASE),
+        IPV6(8, 16, 16, COLON, DigitCase.BOTH);
+
+        private final int groups;
+        private final int groupBits;
+        private final int radix;
+        private final String separator;
+        private final DigitCase digitCase;
+
+        Family(int groups, int groupBits, int radix, char separator, DigitCase digitCase) {
+            this.groups = groups;
+            this.groupBits = groupBits;
+            this.radix = radix;
+            // period is a meta character. colon is only special after (?
+            this.separator = separator == PERIOD ? "" + BACKSLASH + PERIOD : String.valueOf(separator);
+            this.digitCase = digitCase;
+        }
+
+        public int bits() {
+            return groups * groupBits;
+        }
+
+        private int groupMax() {
+            return (1 << groupBits) - 1;
+        }
+
+    }
+
+    private final Family family;
+    private final List<BigInteger[]> intervals; // merged, sorted and disjoint
+
+    /**
+     * Creates a address range expression
+     *
+     * @param family    address family
+     * @param intervals inclusive [start, end] address intervals
+     */
+    public AddressRangeExpression(final Family family, final List<BigInteger[]> intervals) {
+        if (intervals.isEmpty())
+            throw new InvalidNetworkException("address ranges cannot be empty");
+        final BigInteger max = BigInteger.ONE.shiftLeft(family.bits()).subtract(BigInteger.ONE);
+        for (final BigInteger[] interval : intervals) {
+            if (interval[0].signum() < 0 || interval[1].compareTo(max) > 0 || interval[0].compareTo(interval[1]) > 0)
+                throw new InvalidNetworkException("address range is out of bounds or out of order");
+        }
+        this.family = family;
+        this.intervals = merge(intervals);
+    }
+
+    /**
+     * Returns the merged address intervals.
+     *
+     * @return sorted and disjoint intervals
+     */
+    public List<BigInteger[]> intervals() {
+        final List<BigInteger[]> copy = new ArrayList<>(intervals.size());
+        for (final BigInteger[] interval : intervals) copy.add(interval.clone());
+        return copy;
+    }
+
+    /**
+     * Sorts the intervals and joins the overlapping or adjacent
+     * ones. i.e. 10.0.0.0/9 and 10.128.0.0/9 => 10.0.0.0/8
+     *
+     * @param intervals unordered intervals
+     * @return sorted and disjoint intervals
+     */
+    private static List<BigInteger[]> merge(final List<BigInteger[]> intervals) {
+        final List<BigInteger[]> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(i -> i[0]));
+        final List<BigInteger[]> merged = new ArrayList<>();
+        for (final BigInteger[] interval : sorted) {
+            final BigInteger[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0].compareTo(last[1].add(BigInteger.ONE)) <= 0) {
+                if (interval[1].compareTo(last[1]) > 0) last[1] = interval[1];
+            } else {
+                merged.add(new BigInteger[]{interval[0], interval[1]});
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public StringBuilder toRegex() {
+        final List<String> branches = new ArrayList<>();
+        // highest interval first, same as the digit ranges
+        for (int i = intervals.size() - 1; i >= 0; i--) {
+            final BigInteger[] interval = intervals.get(i);
+            branches.addAll(synthesize(groups(interval[0]), groups(interval[1]), 0));
+        }
+        return new StringBuilder(String.join(ALTERNATION, branches));
+    }
+
+    /**
+     * Splits a address interval at the group index. Both the
+     * addresses share all the groups before the index.
+     *
+     * @param low   start address groups
+     * @param high  end address groups
+     * @param index current group
+     * @return alternations that covers the groups from index
+     */
+    private List<String> synthesize(final int[] low, final int[] high, final int index) {
+
+        final List<String> branches = new ArrayList<>();
+        final int last = family.groups - 1;
+
+        if (low[index] == high[index]) {
+            final StringBuilder branch = groupRange(low[index], low[index]);
+            if (index != last) {
+                branch.append(family.separator).append(grouped(synthesize(low, high, index + 1)));
+            }
+            branches.add(branch.toString());
+            return branches;
+        }
+
+        if (index == last) {
+            branches.add(groupRange(low[index], high[index]).toString());
+            return branches;
+        }
+
+        final int[] min = new int[family.groups];
+        final int[] max = new int[family.groups];
+        for (int i = 0; i < family.groups; i++) max[i] = family.groupMax();
+
+        // A partial head or tail is split out when the remaining groups
+        // don't span the whole range. Everything in between is free.
+        final boolean partialLow = !isFill(low, index + 1, 0);
+        final boolean partialHigh = !isFill(high, index + 1, family.groupMax());
+        final int from = partialLow ? low[index] + 1 : low[index];
+        final int to = partialHigh ? high[index] - 1 : high[index];
+
+        if (partialHigh) {
+            branches.add(groupRange(high[index], high[index]).append(family.separator)
+                    .append(grouped(synthesize(prefixed(high, min, index), high, index + 1))).toString());
+        }
+        if (from <= to) {
+            branches.add(groupRange(from, to).append(anything(last - index)).toString());
+        }
+        if (partialLow) {
+            branches.add(groupRange(low[index], low[index]).append(family.separator)
+                    .append(grouped(synthesize(low, prefixed(low, max, index), index + 1))).toString());
+        }
+        return branches;
+
+    }
+
+    /**
+     * Creates a group range. i.e. 0-255 => 25[0-5]|2[0-4][0-9]|... The
+     * alternations are wrapped in a non-capturing group.
+     */
+    private StringBuilder groupRange(final int from, final int to) {
+        final StringBuilder range = new RangeExpression(from, to, 0, 0, family.radix, family.digitCase).toRegex();
+        if (range.indexOf(ALTERNATION) == -1) return range;
+        return range.insert(0, "" + PAREN_OPEN + QUESTION_MARK + COLON).append(PAREN_CLOSE);
+    }
+
+    /**
+     * Creates the expression for remaining groups that can be anything.
+     * i.e. 3 groups of IPv4 => (?:\.(?:25[0-5]|...)){3}
+     */
+    private String anything(final int groups) {
+        if (groups == 0) return "";
+        final String any = family.separator + groupRange(0, family.groupMax());
+        if (groups == 1) return any;
+        return "" + PAREN_OPEN + QUESTION_MARK + COLON + any + PAREN_CLOSE
+                + OPEN_CURLY_BRACE + groups + CLOSE_CURLY_BRACE;
+    }
+
+    private static String grouped(final List<String> branches) {
+        if (branches.size() == 1) return branches.get(0);
+        return "" + PAREN_OPEN + QUESTION_MARK + COLON + String.join(ALTERNATION, branches) + PAREN_CLOSE;
+    }
+
+    private static boolean isFill(final int[] groups, final int from, final int value) {
+        for (int i = from; i < groups.length; i++) if (groups[i] != value) return false;
+        return true;
+    }
+
+    /**
+     * Takes the groups upto index (inclusive) from the address and the
+     * rest from the fill.
+     */
+    private static int[] prefixed(final int[] address, final int[] fill, final int index) {
+        final int[] groups = fill.clone();
+        System.arraycopy(address, 0, groups, 0, index + 1);
+        return groups;
+    }
+
+    private int[] groups(final BigInteger address) {
+        final int[] groups = new int[family.groups];
+        final BigInteger mask = BigInteger.valueOf(family.groupMax());
+        for (int i = 0; i < family.groups; i++) {
+            final int shift = (family.groups - 1 - i) * family.groupBits;
+            groups[i] = address.shiftRight(shift).and(mask).intValue();
+        }
+        return groups;
+    }
+
+}
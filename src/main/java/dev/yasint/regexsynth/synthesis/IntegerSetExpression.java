@@ -0,0 +1,273 @@
+package dev.yasint.regexsynth.synthesis;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.NumericRangeException;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+
+/**
+ * Synthesis :: Regular Expression Integer Set
+ * <p>
+ * This generates a regular expression for a sparse set of
+ * integers. The values are sorted and consecutive values are
+ * grouped into runs. Each run is decomposed into digit ranges
+ * using {@link RangeExpression} and then all the digit ranges
+ * are merged together in a digit-level trie. i.e. the set
+ * {100..104, 106..199} => 1(?:0[0-46-9]|[1-9][0-9])
+ * Negative values are synthesized from their magnitudes the
+ * same way as signed {@link RangeExpression}s.
+ */
+public class IntegerSetExpression implements Expression {
+
+    private final long[] values; // sorted and distinct
+    private final int width; // zero padded digits or 0
+
+    /**
+     * Creates a integer set expression
+     *
+     * @param values integers in any order (greater than min long)
+     */
+    public IntegerSetExpression(final long... values) {
+        for (final long value : values)
+            if (value == Long.MIN_VALUE)
+                throw new NumericRangeException("set values must be greater than min long");
+        this.values = LongStream.of(values).sorted().distinct().toArray();
+        this.width = 0;
+    }
+
+    /**
+     * Creates a fixed-width integer set expression. Every value is
+     * padded with leading zeros upto the width. i.e. {1, 3, 12} with
+     * width 2 => 0[13]|12
+     *
+     * @param values non-negative integers in any order
+     * @param width  number of digits
+     */
+    public IntegerSetExpression(final long[] values, final int width) {
+        if (width < 1 || width > 18)
+            throw new NumericRangeException("width must be in range 1..18");
+        for (final long value : values)
+            if (value < 0 || String.valueOf(value).length() > width)
+                throw new NumericRangeException("set values must be non-negative and fit the width");
+        this.values = LongStream.of(values).sorted().distinct().toArray();
+        this.width = width;
+    }
+
+    /**
+     * Returns the number of distinct values in this set
+     *
+     * @return distinct value count
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public StringBuilder toRegex() {
+
+        if (values.length == 0 || values[0] >= 0) return synthesize(values, width);
+
+        // Split at zero. Magnitudes present as both negative and
+        // positive values share a single optional minus sign branch.
+        final Set<Long> positives = new HashSet<>();
+        for (final long value : values) if (value > 0) positives.add(value);
+        final List<Long> negativeOnly = new ArrayList<>();
+        final List<Long> shared = new ArrayList<>();
+        for (final long value : values) {
+            if (value >= 0) break; // sorted; rest are non-negative
+            if (positives.remove(-value)) shared.add(-value);
+            else negativeOnly.add(-value);
+        }
+        final long[] positiveOnly = LongStream.of(values)
+                .filter(v -> v == 0 || positives.contains(v)).toArray();
+
+        return RangeExpression.signed(
+                synthesize(sortedMagnitudes(negativeOnly), 0),
+                synthesize(positiveOnly, 0),
+                synthesize(sortedMagnitudes(shared), 0)
+        );
+
+    }
+
+    private static long[] sortedMagnitudes(final List<Long> magnitudes) {
+        return magnitudes.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /**
+     * Synthesizes sorted non-negative values into a digit trie.
+     *
+     * @param values sorted and distinct values
+     * @param width  zero padded digits or 0
+     * @return alternation of the trie root
+     */
+    private static StringBuilder synthesize(final long[] values, final int width) {
+        final Node root = new Node();
+        int runStart = 0;
+        for (int i = 0; i < values.length; i++) {
+            // extend the run while the next value is consecutive
+            if (i + 1 < values.length && values[i + 1] == values[i] + 1) continue;
+            for (final RangeExpression.Range range : RangeExpression.decompose(values[runStart], values[i], width, 10))
+                root.insert(range.lower(), range.upper());
+            runStart = i + 1;
+        }
+        // The root alternations are not wrapped. Same as the
+        // range expression, caller decides how to group them.
+        return new StringBuilder(String.join(ALTERNATION, root.alternations()));
+    }
+
+    /**
+     * Digit trie node. Each edge is labelled with a inclusive digit
+     * class that came from the range decomposition.
+     */
+    private static final class Node {
+
+        // Edge key is (lowDigit << 8 | highDigit) sorted in natural order
+        private final Map<Integer, Node> children = new TreeMap<>();
+        private boolean terminal = false;
+        private int depth = 0; // longest path to a leaf, computed on synthesis
+
+        /**
+         * Inserts the digit classes of a decomposed range. Both
+         * bounds must have the same number of digits.
+         *
+         * @param lower range start digits
+         * @param upper range end digits
+         */
+        private void insert(final String lower, final String upper) {
+            Node current = this;
+            for (int pos = 0; pos < lower.length(); pos++) {
+                final int key = (lower.charAt(pos) - '0') << 8 | (upper.charAt(pos) - '0');
+                current = current.children.computeIfAbsent(key, k -> new Node());
+            }
+            current.terminal = true;
+        }
+
+        /**
+         * Synthesizes the outgoing edges of this node. Sibling edges
+         * that lead to the same sub-expression are merged into one
+         * digit class so, 1[0-4]|1[6-9] becomes 1[0-46-9].
+         *
+         * @return alternations ordered from longest to shortest
+         */
+        private List<String> alternations() {
+
+            // suffix expression -> union of the digit classes leading to it
+            final Map<String, Integer> masks = new LinkedHashMap<>();
+            final Map<String, Integer> depths = new HashMap<>();
+            for (final Map.Entry<Integer, Node> edge : children.entrySet()) {
+                final int low = edge.getKey() >> 8, high = edge.getKey() & 0xFF;
+                final String suffix = edge.getValue().synthesize();
+                int mask = 0;
+                for (int d = low; d <= high; d++) mask |= 1 << d;
+                masks.merge(suffix, mask, (a, b) -> a | b);
+                depths.put(suffix, edge.getValue().depth + 1);
+            }
+
+            final List<String> alternations = new ArrayList<>(masks.keySet());
+            // longer alternatives first. Otherwise a shorter number
+            // will be matched first when it's a prefix of a longer one.
+            alternations.sort((a, b) -> depths.get(b) - depths.get(a));
+            this.depth = alternations.isEmpty() ? 0 : depths.get(alternations.get(0));
+
+            final List<String> expressions = new ArrayList<>(alternations.size());
+            for (final String suffix : alternations)
+                expressions.add(concat(digitClass(masks.get(suffix)), suffix));
+            return expressions;
+
+        }
+
+        /**
+         * Synthesizes the sub-trie of this node.
+         *
+         * @return expression of the sub-trie
+         */
+        private String synthesize() {
+
+            final List<String> expressions = alternations();
+            if (expressions.isEmpty()) return ""; // leaf
+
+            final StringBuilder expression = new StringBuilder();
+            if (expressions.size() == 1) {
+                expression.append(expressions.get(0));
+                if (terminal) {
+                    if (isSingleClass(expression)) return expression.append(QUESTION_MARK).toString();
+                    return "" + PAREN_OPEN + QUESTION_MARK + COLON + expression + PAREN_CLOSE + QUESTION_MARK;
+                }
+                return expression.toString();
+            }
+
+            expression.append(PAREN_OPEN).append(QUESTION_MARK).append(COLON);
+            for (int i = 0; i < expressions.size(); i++) {
+                expression.append(expressions.get(i));
+                if (i != expressions.size() - 1) expression.append(ALTERNATION);
+            }
+            expression.append(PAREN_CLOSE);
+            if (terminal) expression.append(QUESTION_MARK);
+            return expression.toString();
+
+        }
+
+        /**
+         * Concatenates a digit class with its suffix. If the suffix
+         * repeats the same class it's folded into a quantifier.
+         * i.e. [0-9] + [0-9]{2} => [0-9]{3}
+         *
+         * @param digitClass leading class
+         * @param suffix     following expression
+         * @return concatenated expression
+         */
+        private static String concat(final String digitClass, final String suffix) {
+            if (digitClass.length() > 1) { // only fold bracketed classes
+                if (suffix.equals(digitClass)) {
+                    return digitClass + OPEN_CURLY_BRACE + 2 + CLOSE_CURLY_BRACE;
+                }
+                if (suffix.startsWith(digitClass + OPEN_CURLY_BRACE) && suffix.endsWith("" + CLOSE_CURLY_BRACE)) {
+                    final String times = suffix.substring(digitClass.length() + 1, suffix.length() - 1);
+                    if (times.chars().allMatch(Character::isDigit)) {
+                        return digitClass + OPEN_CURLY_BRACE + (Integer.parseInt(times) + 1) + CLOSE_CURLY_BRACE;
+                    }
+                }
+            }
+            return digitClass + suffix;
+        }
+
+        /**
+         * Creates the digit class of a digit mask. It follows the same
+         * conventions as {@link SetExpression}. i.e. 5, [56], [5-7]
+         *
+         * @param mask bit mask of the digits
+         * @return digit class
+         */
+        private static String digitClass(final int mask) {
+            if (Integer.bitCount(mask) == 1) {
+                return String.valueOf(Integer.numberOfTrailingZeros(mask));
+            }
+            final StringBuilder set = new StringBuilder().append(OPEN_SQUARE_BRACKET);
+            int d = 0;
+            while (d <= 9) {
+                if ((mask & 1 << d) == 0) {
+                    d++;
+                    continue;
+                }
+                int end = d;
+                while (end + 1 <= 9 && (mask & 1 << (end + 1)) != 0) end++;
+                set.append(d);
+                if (end - d > 1) set.append(HYPHEN);
+                if (end != d) set.append(end);
+                d = end + 1;
+            }
+            return set.append(CLOSE_SQUARE_BRACKET).toString();
+        }
+
+        private static boolean isSingleClass(final CharSequence expression) {
+            if (expression.length() == 1) return true;
+            final String s = expression.toString();
+            return s.charAt(0) == OPEN_SQUARE_BRACKET && s.indexOf(CLOSE_SQUARE_BRACKET) == s.length() - 1;
+        }
+
+    }
+
+}
@@ -1,9 +1,13 @@
 package dev.yasint.regexsynth.synthesis;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.NumericRangeException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 
 import static dev.yasint.regexsynth.api.MetaCharacters.*;
 
@@ -12,12 +16,33 @@ import static dev.yasint.regexsynth.api.MetaCharacters.*;
  *
  * This generates a regular expression number range given
  * inclusive start and end integers. This implementation's
- * running time is O(log n).
+ * running time is O(log n). Signed ranges are split at zero
+ * and the negative part is synthesized from its magnitudes.
+ * <p>
+ * Fixed-point decimal ranges are synthesized from their scaled
+ * integer bounds. i.e. 0.50..1.25 with scale 2 is 50..125 and the
+ * decimal point is inserted before the last two digit classes.
+ * <p>
+ * Fixed-width ranges pad every value with leading zeros. So, the
+ * decomposition is aligned to the width. i.e. 001..366 =>
+ * 36[0-6]|3[0-5][0-9]|[12][0-9]{2}|0[1-9][0-9]|00[1-9]
+ * <p>
+ * Any radix from 2 to 36 is supported. Digits above 9 are the
+ * letters a-z and their case is controlled by {@link DigitCase}.
+ * i.e. hex 0x0..0x1F => 1[0-9a-fA-F]|[0-9a-fA-F]
+ * <p>
+ * Adjacent ranges that only differ by the repetition count of one
+ * digit class are folded into a counted repetition. i.e.
+ * [1-9][0-9]{2}|[1-9][0-9]|[1-9] => [1-9][0-9]{0,2}
  */
 public class RangeExpression implements Expression {
 
-    private final int _rStart;
-    private final int _rEnd;
+    private final long _rStart;
+    private final long _rEnd;
+    private final int width; // fixed digit count; zero padded
+    private final int scale; // digits after the decimal point
+    private final int radix; // 2..36
+    private final DigitCase digitCase; // letter digits case
 
     /**
      * Creates a int range expression
@@ -25,9 +50,67 @@ public class RangeExpression implements Expression {
      * @param _rStart int start inclusive
      * @param _rEnd   int end inclusive
      */
-    public RangeExpression(int _rStart, int _rEnd) {
+    public RangeExpression(long _rStart, long _rEnd) {
+        this(_rStart, _rEnd, 0);
+    }
+
+    /**
+     * Creates a fixed-point decimal range expression. The bounds are
+     * the decimal values multiplied by 10^scale. Every matched value
+     * has exactly scale digits after the decimal point and at least
+     * one digit before it. i.e. (5, 1250, 2) matches 0.05 upto 12.50
+     *
+     * @param _rStart scaled start inclusive
+     * @param _rEnd   scaled end inclusive
+     * @param scale   number of fractional digits
+     */
+    public RangeExpression(long _rStart, long _rEnd, int scale) {
+        this(_rStart, _rEnd, 0, scale);
+    }
+
+    /**
+     * Creates a fixed-width range expression. Every value is padded
+     * with leading zeros upto the width. The width includes the
+     * fractional digits but not the sign or the decimal point. A
+     * width of zero means values are not padded.
+     *
+     * @param _rStart scaled start inclusive
+     * @param _rEnd   scaled end inclusive
+     * @param width   number of digits
+     * @param scale   number of fractional digits
+     */
+    public RangeExpression(long _rStart, long _rEnd, int width, int scale) {
+        this(_rStart, _rEnd, width, scale, 10, DigitCase.LOWERCASE);
+    }
+
+    /**
+     * Creates a range expression in the given radix. Digits above
+     * 9 are represented with letters in the given case. i.e. with
+     * a radix of 16 and {@link DigitCase#BOTH} 10..15 => [a-fA-F]
+     *
+     * @param _rStart   scaled start inclusive
+     * @param _rEnd     scaled end inclusive
+     * @param width     number of digits
+     * @param scale     number of fractional digits
+     * @param radix     number base from 2 to 36
+     * @param digitCase case of the letter digits
+     */
+    public RangeExpression(long _rStart, long _rEnd, int width, int scale,
+                           int radix, DigitCase digitCase) {
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX)
+            throw new NumericRangeException("radix must be in range 2..36");
+        if (_rStart == Long.MIN_VALUE)
+            throw new NumericRangeException("range start must be greater than min long");
+        if (scale < 0 || scale > 18)
+            throw new NumericRangeException("scale must be in range 0..18");
+        if (width < 0 || width > 64)
+            throw new NumericRangeException("width must be in range 0..64");
         this._rStart = _rStart;
         this._rEnd = _rEnd;
+        this.width = width;
+        this.scale = scale;
+        this.radix = radix;
+        this.digitCase = Objects.requireNonNull(digitCase);
     }
 
     /**
@@ -35,13 +118,16 @@ public class RangeExpression implements Expression {
      *
      * @param start int range
      * @param end   int range
+     * @param width minimum digits
+     * @param radix number base
      * @return left boundaries
      */
-    private static LinkedList<Range> leftBounds(int start, int end) {
+    private static LinkedList<Range> leftBounds(long start, long end, int width, int radix) {
         final LinkedList<Range> result = new LinkedList<>();
         while (start < end) {
-            final Range range = Range.fromStart(start);
+            final Range range = Range.fromStart(start, width, radix);
             result.add(range);
+            if (range.end >= end) break; // avoid overflowing max long
             start = range.end + 1;
         }
         return result;
@@ -52,12 +138,14 @@ public class RangeExpression implements Expression {
      *
      * @param start int range
      * @param end   int range
+     * @param width minimum digits
+     * @param radix number base
      * @return right boundaries
      */
-    private static LinkedList<Range> rightBounds(int start, int end) {
+    private static LinkedList<Range> rightBounds(long start, long end, int width, int radix) {
         final LinkedList<Range> result = new LinkedList<>();
         while (start < end) {
-            final Range range = Range.fromEnd(end);
+            final Range range = Range.fromEnd(end, width, radix);
             result.add(range);
             end = range.start - 1;
         }
@@ -65,16 +153,46 @@ public class RangeExpression implements Expression {
         return result;
     }
 
-    @Override
-    public StringBuilder toRegex() {
+    /**
+     * Decomposes the inclusive range into digit ranges. Each of
+     * the returned ranges can be represented as a sequence of
+     * digit classes. i.e. 120..199 => 1[2-9][0-9]. The ranges
+     * are ordered from low to high.
+     *
+     * @param start long start inclusive
+     * @param end   long end inclusive
+     * @return merged digit ranges
+     */
+    static List<Range> decompose(final long start, final long end) {
+        return decompose(start, end, 0, 10);
+    }
 
-        final LinkedList<Range> left = leftBounds(_rStart, _rEnd);
+    /**
+     * Decomposes the inclusive range where every value is padded
+     * with leading zeros upto the given minimum width. i.e. with a
+     * width of 3, 0..99 => 0[0-9]{2} instead of [1-9][0-9]|[0-9]
+     *
+     * @param start long start inclusive
+     * @param end   long end inclusive
+     * @param width minimum digits (0 means no padding)
+     * @param radix number base
+     * @return merged digit ranges
+     */
+    static List<Range> decompose(final long start, final long end, final int width, final int radix) {
+
+        final LinkedList<Range> merged = new LinkedList<>();
+        if (start == end) {
+            merged.add(new Range(start, end, width, radix));
+            return merged;
+        }
+
+        final LinkedList<Range> left = leftBounds(start, end, width, radix);
         final Range lastLeft = left.removeLast();
-        final LinkedList<Range> right = rightBounds(lastLeft.start, _rEnd);
+        final LinkedList<Range> right = rightBounds(lastLeft.start, end, width, radix);
         final Range firstRight = right.removeFirst();
 
         // Merge all classes
-        final LinkedList<Range> merged = new LinkedList<>(left);
+        merged.addAll(left);
         if (!lastLeft.overlaps(firstRight)) {
             merged.add(lastLeft);
             merged.add(firstRight);
@@ -82,33 +200,373 @@ public class RangeExpression implements Expression {
             merged.add(Range.join(lastLeft, firstRight));
         }
         merged.addAll(right);
+        return merged;
+
+    }
+
+    /**
+     * Combines the synthesized magnitudes of a signed range or set.
+     * Magnitudes that exist on both sides of zero share one branch
+     * with an optional minus sign. The branches are ordered from the
+     * longest to the shortest numbers. Shared magnitudes are always
+     * smaller than the one-sided ones. i.e. -40..125 =>
+     * 12[0-5]|1[01][0-9]|[5-9][0-9]|4[1-9]|0|-?(?:40|[1-3][0-9]|[1-9])
+     *
+     * @param negativeOnly alternation of magnitudes only present as negative
+     * @param positiveOnly alternation of values only present as positive
+     * @param shared       alternation of magnitudes present on both sides
+     * @return signed alternation
+     */
+    static StringBuilder signed(final CharSequence negativeOnly,
+                                final CharSequence positiveOnly,
+                                final CharSequence shared) {
+        final List<CharSequence> branches = new ArrayList<>(3);
+        if (negativeOnly.length() > 0)
+            branches.add(new StringBuilder().append(HYPHEN).append(grouped(negativeOnly)));
+        if (positiveOnly.length() > 0)
+            branches.add(positiveOnly);
+        if (shared.length() > 0)
+            branches.add(new StringBuilder().append(HYPHEN).append(QUESTION_MARK).append(grouped(shared)));
+        return new StringBuilder(String.join(ALTERNATION, branches));
+    }
+
+    /**
+     * Wraps a alternation in a non-capturing group only if it has
+     * top level alternations. Otherwise the prefix will only bind
+     * to the first alternative.
+     *
+     * @param alternation synthesized expression
+     * @return grouped expression
+     */
+    static CharSequence grouped(final CharSequence alternation) {
+        int depth = 0;
+        for (int i = 0; i < alternation.length(); i++) {
+            final char c = alternation.charAt(i);
+            if (c == BACKSLASH) i++; // skip the escaped char
+            else if (c == PAREN_OPEN || c == OPEN_SQUARE_BRACKET) depth++;
+            else if (c == PAREN_CLOSE || c == CLOSE_SQUARE_BRACKET) depth--;
+            else if (c == ALTERNATION.charAt(0) && depth == 0) {
+                return new StringBuilder()
+                        .append(PAREN_OPEN).append(QUESTION_MARK).append(COLON)
+                        .append(alternation)
+                        .append(PAREN_CLOSE);
+            }
+        }
+        return alternation;
+    }
+
+    @Override
+    public StringBuilder toRegex() {
+
+        if (_rStart >= 0) return synthesize(_rStart, _rEnd);
+        if (_rEnd < 0) return signed(synthesize(-_rEnd, -_rStart), "", "");
+
+        // Crossing zero. Magnitudes upto the smaller side are shared
+        // by both signs. Zero is only ever positive so, -0 is not
+        // matched by the expression.
+        final long shared = Math.min(-_rStart, _rEnd);
+        final StringBuilder positive = new StringBuilder();
+        if (_rEnd > shared) positive.append(synthesize(shared + 1, _rEnd)).append(ALTERNATION);
+        positive.append(synthesize(0, 0));
+
+        return signed(
+                -_rStart > shared ? synthesize(shared + 1, -_rStart) : "",
+                positive,
+                shared > 0 ? synthesize(1, shared) : ""
+        );
+
+    }
+
+    /**
+     * Synthesizes a non-negative range. If this is a decimal range
+     * the values are padded to have at least one integer digit.
+     * Values with more digits than the width are never padded.
+     *
+     * @param start long start inclusive
+     * @param end   long end inclusive
+     * @return alternation of the digit ranges
+     */
+    private StringBuilder synthesize(final long start, final long end) {
+
+        final List<Range> merged = decompose(start, end, Math.max(width, scale > 0 ? scale + 1 : 0), radix);
+
+        // Fixed-width ranges commonly share the leading (zero) digits.
+        // i.e. 00120..04500 => 0(?:4500|...|01[2-9][0-9])
+        final int prefix = width > 0 && merged.size() > 1 ? commonPrefix(merged) : 0;
+        final StringBuilder expression = new StringBuilder();
+        if (prefix > 0) {
+            final String digits = merged.get(0).lower();
+            for (int i = 0; i < prefix; i++) appendDigit(expression, digits.charAt(i), digitCase);
+            expression.append(PAREN_OPEN).append(QUESTION_MARK).append(COLON);
+        }
+
+        final List<List<Element>> branches = new ArrayList<>(merged.size());
+        for (final Range range : merged) branches.add(range.elements(scale, prefix));
+        final List<List<Element>> folded = fold(branches);
 
         // Append the ranges from reverse order. So the match
         // will go from high to low. Otherwise even if its
         // has 2-digits it'll only match 1; if it's an option.
-        final StringBuilder expression = new StringBuilder();
-        for (int i = merged.size() - 1; i >= 0; i--) {
-            expression.append(merged.get(i).toRegex());
+        // Folded quantifiers are greedy so, they keep that order.
+        for (int i = folded.size() - 1; i >= 0; i--) {
+            appendElements(expression, folded.get(i), digitCase);
             if (i != 0) expression.append(ALTERNATION);
         }
 
-        return expression;
+        return prefix > 0 ? expression.append(PAREN_CLOSE) : expression;
+
+    }
+
+    /**
+     * Folds adjacent branches into counted repetitions. A branch is
+     * merged into the previous one when both have the same elements
+     * except for a single digit class that repeats one more time or
+     * is only present in the later branch. A folded branch has at most
+     * one variable element, so it matches exactly the union of the
+     * folded branches. i.e. [1-9] + [1-9][0-9] + [1-9][0-9]{2} =>
+     * [1-9][0-9]{0,2}
+     *
+     * @param branches run-length encoded branches from low to high
+     * @return folded branches from low to high
+     */
+    private static List<List<Element>> fold(final List<List<Element>> branches) {
+        final List<List<Element>> folded = new ArrayList<>(branches.size());
+        for (final List<Element> branch : branches) {
+            if (folded.isEmpty() || !foldInto(folded.get(folded.size() - 1), branch)) {
+                folded.add(branch);
+            }
+        }
+        return folded;
+    }
+
+    /**
+     * Tries to fold the next branch into a (possibly folded) group.
+     *
+     * @param group  elements of the group, mutated on success
+     * @param branch elements of the next branch with fixed counts
+     * @return whether the branch was folded
+     */
+    private static boolean foldInto(final List<Element> group, final List<Element> branch) {
+
+        int variable = -1; // index of the single variable element
+        for (int i = 0; i < group.size(); i++) if (group.get(i).min != group.get(i).max) variable = i;
+
+        if (group.size() == branch.size()) {
+            // same classes, only one count is larger by one
+            int differs = -1;
+            for (int i = 0; i < group.size(); i++) {
+                final Element g = group.get(i), b = branch.get(i);
+                if (!g.sameClass(b)) return false;
+                if (g.min == g.max && g.max == b.min) continue;
+                if (differs != -1 || b.min != g.max + 1) return false;
+                differs = i;
+            }
+            if (differs == -1 || (variable != -1 && variable != differs)) return false;
+            group.get(differs).max++;
+            return true;
+        }
+
+        if (variable == -1 && group.size() + 1 == branch.size()) {
+            // one extra element in the branch that appears exactly once
+            for (int i = 0; i < branch.size(); i++) {
+                if (branch.get(i).min != 1 || branch.get(i).isPoint()) continue;
+                if (matchesWithout(group, branch, i)) {
+                    final Element optional = branch.get(i).copy();
+                    optional.min = 0;
+                    group.add(i, optional);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+
+    }
+
+    private static boolean matchesWithout(final List<Element> group, final List<Element> branch, final int skip) {
+        for (int i = 0, j = 0; i < group.size(); i++, j++) {
+            if (j == skip) j++;
+            final Element g = group.get(i), b = branch.get(j);
+            if (!g.sameClass(b) || g.min != b.min || g.max != b.max) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Appends the elements of a branch with their quantifiers.
+     *
+     * @param expression target expression
+     * @param elements   branch elements
+     * @param digitCase  case of the letter digits
+     */
+    private static void appendElements(final StringBuilder expression, final List<Element> elements,
+                                       final DigitCase digitCase) {
+        for (final Element element : elements) {
+            if (element.isPoint()) {
+                expression.append(BACKSLASH).append(PERIOD);
+                continue;
+            }
+            if (element.low == element.high) {
+                appendDigit(expression, Character.forDigit(element.low, Character.MAX_RADIX), digitCase);
+            } else {
+                appendDigitClass(expression, element.low, element.high, digitCase);
+            }
+            if (element.min == 0 && element.max == 1) {
+                expression.append(QUESTION_MARK);
+            } else if (element.min == element.max && element.max > 1) {
+                expression.append(OPEN_CURLY_BRACE).append(element.max).append(CLOSE_CURLY_BRACE);
+            } else if (element.min != element.max) {
+                expression.append(OPEN_CURLY_BRACE).append(element.min)
+                        .append(COMMA).append(element.max).append(CLOSE_CURLY_BRACE);
+            }
+        }
+    }
+
+    /**
+     * Finds the number of leading digits that are the same literal
+     * digit in every range. It never goes past the decimal point.
+     *
+     * @param ranges decomposed ranges with the same width
+     * @return common literal prefix length
+     */
+    private int commonPrefix(final List<Range> ranges) {
+        final String first = ranges.get(0).lower();
+        int prefix = first.length() - scale;
+        for (final Range range : ranges) {
+            final String lower = range.lower(), upper = range.upper();
+            if (lower.length() != first.length()) return 0;
+            int i = 0;
+            while (i < prefix && lower.charAt(i) == first.charAt(i) && upper.charAt(i) == first.charAt(i)) i++;
+            prefix = i;
+        }
+        return prefix;
+    }
 
+    /**
+     * Appends a single literal digit. A letter digit is represented
+     * in the requested case or as a set of both cases. i.e. [aA]
+     *
+     * @param expression target expression
+     * @param digit      lowercase digit char
+     * @param digitCase  case of the letter digits
+     */
+    private static void appendDigit(final StringBuilder expression, final char digit, final DigitCase digitCase) {
+        if (!Character.isLetter(digit) || digitCase == DigitCase.LOWERCASE) {
+            expression.append(digit);
+        } else if (digitCase == DigitCase.UPPERCASE) {
+            expression.append(Character.toUpperCase(digit));
+        } else {
+            expression.append(OPEN_SQUARE_BRACKET).append(digit)
+                    .append(Character.toUpperCase(digit)).append(CLOSE_SQUARE_BRACKET);
+        }
+    }
+
+    /**
+     * Appends a digit class of the inclusive digit values. Decimal
+     * and letter digits are split into their own set ranges. It uses
+     * the same conventions as {@link SetExpression}. i.e. [56] [5-7]
+     *
+     * @param expression target expression
+     * @param low        lowest digit value
+     * @param high       highest digit value
+     * @param digitCase  case of the letter digits
+     */
+    private static void appendDigitClass(final StringBuilder expression, final int low,
+                                         final int high, final DigitCase digitCase) {
+        expression.append(OPEN_SQUARE_BRACKET);
+        if (low <= 9) appendSetRange(expression, (char) ('0' + low), (char) ('0' + Math.min(high, 9)));
+        if (high >= 10) {
+            final char from = (char) ('a' + Math.max(low, 10) - 10), to = (char) ('a' + high - 10);
+            if (digitCase != DigitCase.UPPERCASE)
+                appendSetRange(expression, from, to);
+            if (digitCase != DigitCase.LOWERCASE)
+                appendSetRange(expression, Character.toUpperCase(from), Character.toUpperCase(to));
+        }
+        expression.append(CLOSE_SQUARE_BRACKET);
+    }
+
+    private static void appendSetRange(final StringBuilder expression, final char from, final char to) {
+        expression.append(from);
+        if (to - from > 1) expression.append(HYPHEN);
+        if (to != from) expression.append(to);
+    }
+
+    /**
+     * A digit class or a literal digit repeated min..max times. The
+     * decimal point is represented as an element without digits.
+     */
+    private static final class Element {
+
+        private static final int POINT = -1;
+
+        private final int low;
+        private final int high;
+        private int min;
+        private int max;
+
+        private Element(int low, int high, int times) {
+            this.low = low;
+            this.high = high;
+            this.min = times;
+            this.max = times;
+        }
+
+        private boolean isPoint() {
+            return low == POINT;
+        }
+
+        private boolean sameClass(final Element e) {
+            return this.low == e.low && this.high == e.high;
+        }
+
+        private Element copy() {
+            final Element element = new Element(low, high, min);
+            element.max = max;
+            return element;
+        }
+
+    }
+
+    /**
+     * Case of the digits above 9 in a radix larger than 10.
+     */
+    public enum DigitCase {
+        LOWERCASE, // [0-9a-f]
+        UPPERCASE, // [0-9A-F]
+        BOTH // [0-9a-fA-F]
     }
 
     /**
      * DynamicRange Expression
      */
-    private static final class Range implements Expression {
+    static final class Range implements Expression {
 
-        final private StringBuilder expression;
-        final private int start;
-        final private int end;
+        final private long start;
+        final private long end;
+        final private int width; // minimum digits; zero padded
+        final private int radix;
 
-        private Range(int start, int end) {
+        private Range(long start, long end, int width, int radix) {
             this.start = start;
             this.end = end;
-            this.expression = new StringBuilder();
+            this.width = width;
+            this.radix = radix;
+        }
+
+        /**
+         * Formats a value with leading zeros upto the minimum width.
+         *
+         * @param value non-negative value
+         * @param width minimum digits
+         * @param radix number base
+         * @return digits of the value
+         */
+        private static String digits(final long value, final int width, final int radix) {
+            final String digits = Long.toString(value, radix);
+            if (digits.length() >= width) return digits;
+            final StringBuilder padded = new StringBuilder(width);
+            for (int i = digits.length(); i < width; i++) padded.append('0');
+            return padded.append(digits).toString();
         }
 
         /**
@@ -118,17 +576,18 @@ public class RangeExpression implements Expression {
          * @param end int range
          * @return range with new start/end
          */
-        private static Range fromEnd(int end) {
-            final char[] chars = String.valueOf(end).toCharArray();
+        private static Range fromEnd(long end, int width, int radix) {
+            final char max = Character.forDigit(radix - 1, radix);
+            final char[] chars = digits(end, width, radix).toCharArray();
             for (int i = chars.length - 1; i >= 0; i--) {
-                if (chars[i] == '9') {
+                if (chars[i] == max) {
                     chars[i] = '0';
                 } else {
                     chars[i] = '0';
                     break;
                 }
             }
-            return new Range(Integer.parseInt(String.valueOf(chars)), end);
+            return new Range(Long.parseLong(String.valueOf(chars), radix), end, width, radix);
         }
 
         /**
@@ -138,17 +597,56 @@ public class RangeExpression implements Expression {
          * @param start int range
          * @return range with new start/end
          */
-        private static Range fromStart(int start) {
-            final char[] chars = String.valueOf(start).toCharArray();
+        private static Range fromStart(long start, int width, int radix) {
+            final char max = Character.forDigit(radix - 1, radix);
+            final char[] chars = digits(start, width, radix).toCharArray();
             for (int i = chars.length - 1; i >= 0; i--) {
                 if (chars[i] == '0') {
-                    chars[i] = '9';
+                    chars[i] = max;
                 } else {
-                    chars[i] = '9';
+                    chars[i] = max;
                     break;
                 }
             }
-            return new Range(start, Integer.parseInt(String.valueOf(chars)));
+            return new Range(start, parseClamped(String.valueOf(chars), radix), width, radix);
+        }
+
+        /**
+         * Parses a boundary value. When the start is close to the
+         * {@link Long#MAX_VALUE} the all-nines boundary does not
+         * fit into a long. Such a boundary is always beyond the range
+         * end and only used to terminate the left bounds, so it's
+         * safe to clamp it.
+         *
+         * @param digits boundary digits
+         * @param radix  number base
+         * @return parsed value or max long
+         */
+        private static long parseClamped(final String digits, final int radix) {
+            try {
+                return Long.parseLong(digits, radix);
+            } catch (NumberFormatException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        /**
+         * Returns the lower bound digits of this range. The lower and
+         * upper bound always have the same number of digits.
+         *
+         * @return start digits
+         */
+        String lower() {
+            return digits(start, width, radix);
+        }
+
+        /**
+         * Returns the upper bound digits of this range.
+         *
+         * @return end digits
+         */
+        String upper() {
+            return digits(end, width, radix);
         }
 
         /**
@@ -160,7 +658,7 @@ public class RangeExpression implements Expression {
          */
         private static Range join(Range a, Range b) {
             // Simply just join two ranges
-            return new Range(a.start, b.end);
+            return new Range(a.start, b.end, a.width, a.radix);
         }
 
         /**
@@ -175,53 +673,60 @@ public class RangeExpression implements Expression {
             return this.end > r.start && r.end > this.start;
         }
 
-        @Override
-        public StringBuilder toRegex() {
+        /**
+         * Creates the run-length encoded digit classes of this range.
+         * Consecutive positions with the same class are counted. i.e.
+         * 100..199 => 1[0-9]{2} Literal digits are never counted. The
+         * decimal point is inserted before the last scale positions
+         * and it separates the counted classes.
+         *
+         * @param scale  number of fractional digits
+         * @param offset number of leading digits to skip
+         * @return digit class elements
+         */
+        private List<Element> elements(final int scale, final int offset) {
 
-            final String startStr = String.valueOf(start);
-            final String endStr = String.valueOf(end);
-            int repeatedCount = 0;
-            char previousDigitA = 0, previousDigitB = 0;
+            final String startStr = lower();
+            final String endStr = upper();
+            final int point = scale > 0 ? startStr.length() - scale : -1;
+            final List<Element> elements = new ArrayList<>();
 
-            for (int pos = 0; pos < startStr.length(); pos++) {
+            int pos = offset;
+            while (pos < startStr.length()) {
 
-                char currentDigitA = startStr.charAt(pos);
-                char currentDigitB = endStr.charAt(pos);
+                if (pos == point) elements.add(new Element(Element.POINT, Element.POINT, 1));
+                final char currentDigitA = startStr.charAt(pos);
+                final char currentDigitB = endStr.charAt(pos);
+                final int low = Character.digit(currentDigitA, radix);
+                final int high = Character.digit(currentDigitB, radix);
 
                 if (currentDigitA == currentDigitB) {
-                    expression.append(currentDigitA);
-                } else {
-                    // previous is equal to this
-                    if (previousDigitA == currentDigitA && previousDigitB == currentDigitB) {
-                        repeatedCount++; // increment the quantifier
-                        if (!(pos == startStr.length() - 1)) {
-                            continue; // if not last
-                        } else { // if it is last
-                            expression
-                                    .append(OPEN_CURLY_BRACE)
-                                    .append(++repeatedCount)
-                                    .append(CLOSE_CURLY_BRACE);
-                            break;
-                        }
-                    }
-                    if (repeatedCount > 0) {
-                        expression
-                                .append(OPEN_CURLY_BRACE)
-                                .append(repeatedCount)
-                                .append(CLOSE_CURLY_BRACE);
-                        repeatedCount = 0;
-                    }
-                    expression.append(OPEN_SQUARE_BRACKET)
-                            .append(currentDigitA)
-                            .append(currentDigitB - currentDigitA == 1 ? "" : HYPHEN)
-                            .append(currentDigitB)
-                            .append(CLOSE_SQUARE_BRACKET);
-                    previousDigitA = currentDigitA;
-                    previousDigitB = currentDigitB;
+                    elements.add(new Element(low, high, 1));
+                    pos++;
+                    continue;
                 }
+
+                // count how many times the same class is repeated
+                int repeatedCount = 1;
+                while (pos + repeatedCount < startStr.length() && pos + repeatedCount != point
+                        && startStr.charAt(pos + repeatedCount) == currentDigitA
+                        && endStr.charAt(pos + repeatedCount) == currentDigitB) {
+                    repeatedCount++;
+                }
+                elements.add(new Element(low, high, repeatedCount));
+                pos += repeatedCount;
+
             }
-            return expression;
 
+            return elements;
+
+        }
+
+        @Override
+        public StringBuilder toRegex() {
+            final StringBuilder expression = new StringBuilder();
+            appendElements(expression, elements(0, 0), DigitCase.LOWERCASE);
+            return expression;
         }
 
         @Override
@@ -6,6 +6,7 @@ import dev.yasint.regexsynth.dsl.Literals;
 import dev.yasint.regexsynth.exceptions.InvalidCodepointException;
 import dev.yasint.regexsynth.unicode.UnicodeScript;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
@@ -18,6 +19,12 @@ import static dev.yasint.regexsynth.api.MetaCharacters.*;
  * This generates a regular expression set when given a range
  * or chars. This class handles the simple character class and
  * ranged character classes expressions along with set negation.
+ * <p>
+ * A set is mutable until it's frozen. A frozen set rejects every
+ * modification and synthesizes its expression only once, so it can
+ * be shared and synthesized by many threads without locking. The
+ * frozen state is published through a volatile field, so a frozen
+ * set is safe to hand over to other threads even through a race.
  */
 public class SetExpression implements Expression {
 
@@ -32,7 +39,8 @@ public class SetExpression implements Expression {
 
     private Set<String> unicodeClasses; // This is not affected to codepoints. i.e. \P{...} \p{...}
     private Set<Integer> codepoints; // This will be sorted in natural order
-    private boolean negated; // Whether this is negated ^ or not @mutable
+    private volatile boolean negated; // Whether this is negated ^ or not @mutable
+    private volatile String frozen; // synthesized expression once frozen
 
     public SetExpression(boolean negated) {
         this.negated = negated;
@@ -40,10 +48,48 @@ public class SetExpression implements Expression {
         this.unicodeClasses = new HashSet<>();
     }
 
+    /**
+     * Creates a mutable copy of a set expression.
+     *
+     * @param set source set (frozen or not)
+     * @return a new set with the same elements
+     */
+    public static SetExpression copyOf(final SetExpression set) {
+        final SetExpression copy = new SetExpression(set.isNegated());
+        copy.codepoints.addAll(set.codepoints());
+        copy.unicodeClasses.addAll(set.unicodeClasses);
+        return copy;
+    }
+
+    /**
+     * Makes this set immutable. The expression is synthesized here
+     * and every later synthesis returns the same text.
+     *
+     * @return this
+     */
+    public SetExpression freeze() {
+        if (frozen == null) {
+            final String expression = toRegex().toString();
+            this.codepoints = Collections.unmodifiableSet(codepoints);
+            this.unicodeClasses = Collections.unmodifiableSet(unicodeClasses);
+            this.frozen = expression; // publishes the state above
+        }
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+
+    public boolean isNegated() {
+        return negated;
+    }
+
     /**
      * Negates this set expression
      */
     public void negate() {
+        requireMutable();
         this.negated = true;
     }
 
@@ -56,6 +102,7 @@ public class SetExpression implements Expression {
      * @param codepointB unicode codepoint upto 0x10FFFF
      */
     public void addRange(final int codepointA, final int codepointB) {
+        requireMutable();
         if (Character.isValidCodePoint(codepointA) && Character.isValidCodePoint(codepointB)) {
             if (codepointA > codepointB)
                 throw new InvalidCodepointException("character range is out of order");
@@ -76,11 +123,34 @@ public class SetExpression implements Expression {
      * @param codepoint 0x000000 - 0x10FFFF
      */
     public void addChar(final int codepoint) {
+        requireMutable();
         if (!Character.isValidCodePoint(codepoint))
             throw new IllegalArgumentException("invalid codepoint");
         this.codepoints.add(codepoint);
     }
 
+    /**
+     * Checks whether this set is a non empty and non negated set of
+     * codepoints without unicode classes. Such sets can be merged
+     * with others by a union without changing what they match.
+     *
+     * @return true if it's a plain set
+     */
+    public boolean isPlain() {
+        final Set<Integer> codepoints = codepoints(); // reads the frozen state first
+        return !negated && unicodeClasses.isEmpty() && !codepoints.isEmpty();
+    }
+
+    /**
+     * Returns the codepoints of this set in natural order. Negation
+     * and unicode classes are not applied to them.
+     *
+     * @return unmodifiable view of the codepoints
+     */
+    public Set<Integer> codepoints() {
+        return isFrozen() ? codepoints : Collections.unmodifiableSet(codepoints);
+    }
+
     // Set expression operations, available outside the package
 
     /**
@@ -91,10 +161,11 @@ public class SetExpression implements Expression {
      * @return elements that belongs to this or b
      */
     public SetExpression union(final SetExpression b) {
-        if (b.negated) {
-            this.codepoints.removeAll(b.codepoints);
+        requireMutable();
+        if (b.isNegated()) {
+            this.codepoints.removeAll(b.codepoints());
         } else {
-            this.codepoints.addAll(b.codepoints);
+            this.codepoints.addAll(b.codepoints());
         }
         return this;
     }
@@ -107,24 +178,26 @@ public class SetExpression implements Expression {
      * @return elements that belongs to this and b
      */
     public SetExpression intersection(final SetExpression b) {
-        if (b.negated) {
-            this.codepoints.removeAll(b.codepoints);
+        requireMutable();
+        if (b.isNegated()) {
+            this.codepoints.removeAll(b.codepoints());
         } else {
-            this.codepoints.retainAll(b.codepoints);
+            this.codepoints.retainAll(b.codepoints());
         }
         return this;
     }
 
     /**
      * Performs a subtraction of two regular expressions set.
-     * It will modify the source set @code{this} while operating.
+     * It will modify the source set @code{this} while operating,
+     * but not the set b.
      *
      * @param b set expression b
      * @return elements that belongs to this and not to b
      */
     public SetExpression difference(final SetExpression b) {
-        if (!b.negated) b.negated = true;
-        this.intersection(b);
+        requireMutable();
+        this.codepoints.removeAll(b.codepoints());
         return this;
     }
 
@@ -139,6 +212,7 @@ public class SetExpression implements Expression {
      * @return this
      */
     public SetExpression withUnicodeClass(final UnicodeScript block, final boolean negated) {
+        requireMutable();
         unicodeClasses.add(
                 Literals.unicodeScriptLiteral(block, negated)
                         .toRegex().toString()
@@ -155,6 +229,10 @@ public class SetExpression implements Expression {
     @Override
     public StringBuilder toRegex() {
 
+        // a frozen set is synthesized only once
+        final String synthesized = frozen;
+        if (synthesized != null) return new StringBuilder(synthesized);
+
         // copy the codepoints into a indexed array
         final Integer[] chars = codepoints.toArray(new Integer[0]);
 
@@ -225,6 +303,10 @@ public class SetExpression implements Expression {
 
     }
 
+    private void requireMutable() {
+        if (isFrozen()) throw new IllegalStateException("set expression is frozen");
+    }
+
     /**
      * This function looks at a codepoint and normalizes the character
      * to be able to interpretable by the regex engine.
@@ -0,0 +1,300 @@
+package dev.yasint.regexsynth.synthesis;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.TemporalRangeException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static dev.yasint.regexsynth.api.MetaCharacters.*;
+import static dev.yasint.regexsynth.util.Common.asRegexLiteral;
+
+/**
+ * Synthesis :: Regular Expression Temporal Ranges
+ * <p>
+ * This generates a regular expression for a inclusive date or
+ * time interval written in a fixed-width format. i.e. yyyy-MM-dd
+ * or HH:mm:ss The interval is decomposed into branches where each
+ * branch is a product of field ranges. i.e. 2012-03-15..2012-05-02
+ * => {2012}-{03}-{15..31} | {2012}-{04}-{01..30} | {2012}-{05}-{01..02}
+ * <p>
+ * Day ranges follow the length of each month, and 29th of February
+ * is only accepted on leap years. Each field range is synthesized by
+ * {@link RangeExpression} or {@link IntegerSetExpression} and the
+ * branches are nested by their common leading fields.
+ */
+public final class TemporalRangeExpression implements Expression {
+
+    // Format pattern letters. All of them are zero padded
+    private static final String DATE_FIELDS = "yMd";
+    private static final String TIME_FIELDS = "Hms";
+
+    private static final int[] LONG_MONTHS = {1, 3, 5, 7, 8, 10, 12};
+    private static final int[] SHORT_MONTHS = {4, 6, 9, 11};
+
+    private final List<Object> format; // Character fields and String literals
+    private final List<Map<Character, String>> branches = new ArrayList<>();
+
+    /**
+     * Creates a date range expression
+     *
+     * @param format date format with yyyy, MM and dd fields
+     * @param from   starting date inclusive
+     * @param to     ending date inclusive
+     */
+    public TemporalRangeExpression(final String format, final LocalDate from, final LocalDate to) {
+        this.format = parse(format, DATE_FIELDS);
+        if (from.isAfter(to))
+            throw new TemporalRangeException("date range is out of order");
+        if (from.getYear() < 1 || to.getYear() > 9999)
+            throw new TemporalRangeException("years must be in range 1..9999");
+        decompose(from, to);
+    }
+
+    /**
+     * Creates a time range expression. The bounds are truncated to
+     * the smallest field of the format. i.e. HH:mm ignores seconds
+     *
+     * @param format time format with HH, mm and optional ss fields
+     * @param from   starting time inclusive
+     * @param to     ending time inclusive
+     */
+    public TemporalRangeExpression(final String format, final LocalTime from, final LocalTime to) {
+        this.format = parse(format, TIME_FIELDS);
+        if (from.isAfter(to))
+            throw new TemporalRangeException("time range is out of order");
+        final boolean seconds = this.format.contains('s');
+        final int[] low = {from.getHour(), from.getMinute(), seconds ? from.getSecond() : 0};
+        final int[] high = {to.getHour(), to.getMinute(), seconds ? to.getSecond() : 59};
+        decompose(low, high, 0, new HashMap<>());
+    }
+
+    /**
+     * Parses a format into fields and literals. Each field must appear
+     * exactly once with its full width. i.e. yyyy, MM
+     *
+     * @param format  date or time format
+     * @param allowed field letters of the format
+     * @return fields and literals in order
+     */
+    private static List<Object> parse(final String format, final String allowed) {
+        final List<Object> parsed = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < format.length(); ) {
+            final char c = format.charAt(i);
+            if (!Character.isLetter(c)) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (allowed.indexOf(c) == -1)
+                throw new TemporalRangeException("unsupported pattern letter: " + c);
+            int end = i;
+            while (end < format.length() && format.charAt(end) == c) end++;
+            if (end - i != width(c) || parsed.contains(c))
+                throw new TemporalRangeException("invalid field in format: " + format);
+            if (literal.length() > 0) parsed.add(asRegexLiteral(literal.toString()));
+            literal.setLength(0);
+            parsed.add(c);
+            i = end;
+        }
+        if (literal.length() > 0) parsed.add(asRegexLiteral(literal.toString()));
+        // seconds are optional. everything else is required
+        for (final char field : allowed.toCharArray())
+            if (field != 's' && !parsed.contains(field))
+                throw new TemporalRangeException("format must contain the field: " + field);
+        return parsed;
+    }
+
+    private static int width(final char field) {
+        return field == 'y' ? 4 : 2;
+    }
+
+    // Date decomposition
+
+    private void decompose(final LocalDate from, final LocalDate to) {
+        final int firstYear = from.getDayOfYear() == 1 ? from.getYear() : from.getYear() + 1;
+        final int lastYear = to.getDayOfYear() == to.lengthOfYear() ? to.getYear() : to.getYear() - 1;
+        if (firstYear > lastYear) { // no complete year in between
+            if (from.getYear() == to.getYear()) {
+                decomposeYear(from, to);
+            } else {
+                decomposeYear(from, LocalDate.of(from.getYear(), 12, 31));
+                decomposeYear(LocalDate.of(to.getYear(), 1, 1), to);
+            }
+            return;
+        }
+        // partial head, complete years and partial tail
+        if (firstYear != from.getYear())
+            decomposeYear(from, LocalDate.of(from.getYear(), 12, 31));
+        decomposeYears(firstYear, lastYear);
+        if (lastYear != to.getYear())
+            decomposeYear(LocalDate.of(to.getYear(), 1, 1), to);
+    }
+
+    /**
+     * Adds branches for complete years. Only the leap years in the
+     * range accept the 29th of February.
+     */
+    private void decomposeYears(final int from, final int to) {
+        final String years = range(from, to, 4);
+        branch(years, set(LONG_MONTHS, 2), range(1, 31, 2));
+        branch(years, set(SHORT_MONTHS, 2), range(1, 30, 2));
+        branch(years, range(2, 2, 2), range(1, 28, 2));
+        final long[] leapYears = IntStream.rangeClosed(from, to)
+                .filter(Year::isLeap).asLongStream().toArray();
+        if (leapYears.length > 0)
+            branch(set(leapYears, 4), range(2, 2, 2), range(29, 29, 2));
+    }
+
+    /**
+     * Adds branches for a interval within a single year.
+     */
+    private void decomposeYear(final LocalDate from, final LocalDate to) {
+        final String year = range(from.getYear(), from.getYear(), 4);
+        final int firstMonth = from.getDayOfMonth() == 1 ? from.getMonthValue() : from.getMonthValue() + 1;
+        final int lastMonth = to.getDayOfMonth() == to.lengthOfMonth() ? to.getMonthValue() : to.getMonthValue() - 1;
+        if (from.getMonthValue() == to.getMonthValue()) {
+            branch(year, range(from.getMonthValue(), from.getMonthValue(), 2),
+                    range(from.getDayOfMonth(), to.getDayOfMonth(), 2));
+            return;
+        }
+        if (firstMonth != from.getMonthValue())
+            branch(year, range(from.getMonthValue(), from.getMonthValue(), 2),
+                    range(from.getDayOfMonth(), from.lengthOfMonth(), 2));
+        // complete months grouped by their length in this year
+        final Map<Integer, List<Long>> lengths = new TreeMap<>(Comparator.reverseOrder());
+        final boolean leap = Year.isLeap(from.getYear());
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            lengths.computeIfAbsent(Month.of(month).length(leap), k -> new ArrayList<>()).add((long) month);
+        }
+        for (final Map.Entry<Integer, List<Long>> length : lengths.entrySet()) {
+            final long[] months = length.getValue().stream().mapToLong(Long::longValue).toArray();
+            branch(year, set(months, 2), range(1, length.getKey(), 2));
+        }
+        if (lastMonth != to.getMonthValue())
+            branch(year, range(to.getMonthValue(), to.getMonthValue(), 2),
+                    range(1, to.getDayOfMonth(), 2));
+    }
+
+    private void branch(final String year, final String month, final String day) {
+        final Map<Character, String> branch = new HashMap<>();
+        branch.put('y', year);
+        branch.put('M', month);
+        branch.put('d', day);
+        branches.add(branch);
+    }
+
+    // Time decomposition
+
+    private static final int[] TIME_MAX = {23, 59, 59};
+
+    /**
+     * Splits a time interval at the field index the same way as a
+     * mixed radix number range. Both bounds share the fields before
+     * the index.
+     */
+    private void decompose(final int[] low, final int[] high, final int index,
+                           final Map<Character, String> prefix) {
+        final char field = TIME_FIELDS.charAt(index);
+        if (index == TIME_MAX.length - 1) { // last field is a plain range
+            branches.add(with(prefix, field, range(low[index], high[index], 2)));
+            return;
+        }
+        if (low[index] == high[index]) {
+            decompose(low, high, index + 1, with(prefix, field, range(low[index], low[index], 2)));
+            return;
+        }
+        final boolean partialLow = !isFill(low, index + 1, false);
+        final boolean partialHigh = !isFill(high, index + 1, true);
+        final int from = partialLow ? low[index] + 1 : low[index];
+        final int to = partialHigh ? high[index] - 1 : high[index];
+        if (partialLow) {
+            final int[] max = low.clone();
+            for (int i = index + 1; i < max.length; i++) max[i] = TIME_MAX[i];
+            decompose(low, max, index + 1, with(prefix, field, range(low[index], low[index], 2)));
+        }
+        if (from <= to) {
+            Map<Character, String> branch = with(prefix, field, range(from, to, 2));
+            for (int i = index + 1; i < TIME_MAX.length; i++)
+                branch = with(branch, TIME_FIELDS.charAt(i), range(0, TIME_MAX[i], 2));
+            branches.add(branch);
+        }
+        if (partialHigh) {
+            final int[] min = high.clone();
+            for (int i = index + 1; i < min.length; i++) min[i] = 0;
+            decompose(min, high, index + 1, with(prefix, field, range(high[index], high[index], 2)));
+        }
+    }
+
+    private static boolean isFill(final int[] fields, final int from, final boolean max) {
+        for (int i = from; i < fields.length; i++)
+            if (fields[i] != (max ? TIME_MAX[i] : 0)) return false;
+        return true;
+    }
+
+    private static Map<Character, String> with(final Map<Character, String> fields,
+                                               final char field, final String expression) {
+        final Map<Character, String> copy = new HashMap<>(fields);
+        copy.put(field, expression);
+        return copy;
+    }
+
+    // Field expressions
+
+    private static String range(final int from, final int to, final int width) {
+        return RangeExpression.grouped(new RangeExpression(from, to, width, 0).toRegex()).toString();
+    }
+
+    private static String set(final int[] values, final int width) {
+        return set(IntStream.of(values).asLongStream().toArray(), width);
+    }
+
+    private static String set(final long[] values, final int width) {
+        if (values.length == 1) return range((int) values[0], (int) values[0], width);
+        return RangeExpression.grouped(new IntegerSetExpression(values, width).toRegex()).toString();
+    }
+
+    @Override
+    public StringBuilder toRegex() {
+        return new StringBuilder(String.join(ALTERNATION, alternations(branches, 0)));
+    }
+
+    /**
+     * Renders the branches in format order. Branches that share the
+     * same leading field expressions are nested under them.
+     * i.e. 2012-03-(?:1[5-9]|...)|2012-04-... => 2012-(?:03-...|04-...)
+     *
+     * @param branches field expressions of each branch
+     * @param position format position to start from
+     * @return alternations of the branches
+     */
+    private List<String> alternations(final List<Map<Character, String>> branches, final int position) {
+        if (position == format.size()) return Collections.singletonList("");
+        final Object token = format.get(position);
+        if (token instanceof String) { // literal shared by every branch
+            final List<String> rest = alternations(branches, position + 1);
+            return Collections.singletonList(token + grouped(rest));
+        }
+        final char field = (Character) token;
+        final Map<String, List<Map<Character, String>>> groups = new LinkedHashMap<>();
+        for (final Map<Character, String> branch : branches) {
+            groups.computeIfAbsent(branch.get(field), k -> new ArrayList<>()).add(branch);
+        }
+        final List<String> alternations = new ArrayList<>(groups.size());
+        for (final Map.Entry<String, List<Map<Character, String>>> group : groups.entrySet()) {
+            alternations.add(group.getKey() + grouped(alternations(group.getValue(), position + 1)));
+        }
+        return alternations;
+    }
+
+    private static String grouped(final List<String> alternations) {
+        if (alternations.size() == 1) return alternations.get(0);
+        return "" + PAREN_OPEN + QUESTION_MARK + COLON + String.join(ALTERNATION, alternations) + PAREN_CLOSE;
+    }
+
+}
@@ -9,11 +9,17 @@ import static dev.yasint.regexsynth.api.MetaCharacters.*;
 
 /**
  * Synthesis :: String minimization
+ * <p>
+ * A trie is mutable until it's frozen. Synthesis doesn't modify the
+ * trie, and a frozen trie rejects insertions and synthesizes its
+ * expression only once, so it can be shared between threads. The
+ * frozen state is published through a volatile field.
  */
 public class TrieExpression implements Expression {
 
     private static final String NULL_KEY = ""; // Null key represents an empty string
     private final Node root = new Node(); // Initial node of the trie. (null - children)
+    private volatile String frozen; // synthesized expression once frozen
 
     public TrieExpression() { /*available for testing*/ }
 
@@ -23,6 +29,7 @@ public class TrieExpression implements Expression {
      * @param word string input
      */
     public void insert(final String word) {
+        if (frozen != null) throw new IllegalStateException("trie expression is frozen");
         Node current = this.root;
         for (int i = 0; i < word.length(); ++i) {
             final String c = Character.toString(word.charAt(i));
@@ -45,24 +52,30 @@ public class TrieExpression implements Expression {
             insert(word);
     }
 
+    /**
+     * Makes this trie immutable. The expression is synthesized here
+     * and every later synthesis returns the same text.
+     *
+     * @return this
+     */
+    public TrieExpression freeze() {
+        if (frozen == null) frozen = root.toRegex().toString();
+        return this;
+    }
+
     @Override
     public StringBuilder toRegex() {
+        final String synthesized = frozen;
+        if (synthesized != null) return new StringBuilder(synthesized);
         return this.root.toRegex();
     }
 
     private static final class Node implements Expression {
 
         private final Map<String, Node> nodes;
-        private final List<String> alternations;
-        private final List<String> charClasses;
-
-        private boolean hasOptionals = false;
-        private boolean hasCharacterClasses = false;
 
         private Node() {
             this.nodes = new TreeMap<>();
-            this.alternations = new ArrayList<>();
-            this.charClasses = new ArrayList<>();
         }
 
         /**
@@ -98,7 +111,15 @@ public class TrieExpression implements Expression {
             return this.nodes.get(_char);
         }
 
-        private void synthesizeStringAlternations() {
+        /**
+         * Collects the alternations and the single character classes
+         * of the children.
+         *
+         * @return true if this node is also a final state
+         */
+        private boolean synthesizeStringAlternations(final List<String> alternations,
+                                                     final List<String> charClasses) {
+            boolean hasOptionals = false;
             // for each leaf node of this node (adjacent nodes)
             for (Map.Entry<String, Node> entry : this.nodes.entrySet()) {
                 // escape any special regular expression constructs is present
@@ -115,13 +136,14 @@ public class TrieExpression implements Expression {
                         charClasses.add(escaped);
                     }
                 } else {
-                    this.hasOptionals = true;
+                    hasOptionals = true;
                 }
             }
+            return hasOptionals;
         }
 
-        private void synthesizeCharacterClasses() {
-            this.hasCharacterClasses = alternations.isEmpty();
+        private void synthesizeCharacterClasses(final List<String> alternations,
+                                                final List<String> charClasses) {
             if (charClasses.size() > 0) {
                 if (charClasses.size() == 1) {
                     alternations.add(charClasses.get(0)); // [a] => a
@@ -142,8 +164,13 @@ public class TrieExpression implements Expression {
             if (this.nodes.containsKey(NULL_KEY) && this.nodes.size() == 1) {
                 return null; // Terminate; final state, means this is an null edge
             }
-            this.synthesizeStringAlternations();
-            this.synthesizeCharacterClasses();
+            // synthesis state is local, so toRegex can be invoked many
+            // times and by many threads at once
+            final List<String> alternations = new ArrayList<>();
+            final List<String> charClasses = new ArrayList<>();
+            final boolean hasOptionals = synthesizeStringAlternations(alternations, charClasses);
+            final boolean hasCharacterClasses = alternations.isEmpty();
+            synthesizeCharacterClasses(alternations, charClasses);
 
             final StringBuilder expression = new StringBuilder();
 
@@ -160,8 +187,8 @@ public class TrieExpression implements Expression {
                 expression.append(PAREN_CLOSE);
             }
 
-            if (this.hasOptionals) {
-                if (this.hasCharacterClasses) {
+            if (hasOptionals) {
+                if (hasCharacterClasses) {
                     // optional abc?
                     return expression.append(QUESTION_MARK);
                 } else {
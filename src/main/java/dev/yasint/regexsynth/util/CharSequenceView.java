@@ -0,0 +1,76 @@
+package dev.yasint.regexsynth.util;
+
+import java.util.Objects;
+
+/**
+ * A read only view of a range of a character sequence. Unlike
+ * {@link String#subSequence(int, int)} it doesn't copy the characters,
+ * so a match can be inspected without allocating a string. The view
+ * reflects the source, so the source must not change while it's used.
+ * {@link #toString()} copies the range.
+ */
+public final class CharSequenceView implements CharSequence {
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+
+    /**
+     * Creates a view of source[start, end)
+     *
+     * @param source viewed sequence
+     * @param start  start offset inclusive
+     * @param end    end offset exclusive
+     */
+    public CharSequenceView(final CharSequence source, final int start, final int end) {
+        this.source = Objects.requireNonNull(source);
+        if (start < 0 || end > source.length() || start > end)
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") is out of bounds");
+        this.start = start;
+        this.end = end;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length()) throw new IndexOutOfBoundsException("index " + index);
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length() || start > end)
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") is out of bounds");
+        return new CharSequenceView(source, this.start + start, this.start + end);
+    }
+
+    /**
+     * Checks whether the view has the same characters as a sequence.
+     *
+     * @param other any character sequence
+     * @return true if the characters are equal
+     */
+    public boolean contentEquals(final CharSequence other) {
+        if (other.length() != length()) return false;
+        for (int i = 0; i < length(); i++) if (source.charAt(start + i) != other.charAt(i)) return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+
+}
@@ -0,0 +1,125 @@
+package dev.yasint.regexsynth.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded least recently used cache that can be shared between
+ * threads. A hit doesn't take a lock, it only stamps the entry with
+ * the time of its last use. The eldest entries are evicted by the
+ * thread that inserts past the capacity, so only misses of a full
+ * cache are serialized.
+ * <p>
+ * Values are computed outside of any lock, so two threads missing on
+ * the same key may both compute it and the last one wins. The cached
+ * values therefore must be immutable and side effect free.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class LruCache<K, V> {
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, Entry<V>> entries;
+    private final AtomicLong clock = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a LRU cache
+     *
+     * @param capacity maximum number of entries (at least 1)
+     */
+    public LruCache(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("cache capacity must be at least 1");
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1 << 10) * 2);
+    }
+
+    /**
+     * Returns the cached value of the key or computes and caches it
+     * if it's not present.
+     *
+     * @param key      cache key
+     * @param function computes the value on a miss
+     * @return cached or computed value
+     */
+    public V get(final K key, final Function<? super K, ? extends V> function) {
+        final Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entry.used = clock.incrementAndGet();
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        final V value = function.apply(key); // never hold a lock while computing
+        entries.put(key, new Entry<>(value, clock.incrementAndGet()));
+        if (entries.size() > capacity) evict();
+        return value;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is
+     * within its capacity. The entries are scanned for the eldest
+     * stamp, which is cheap next to computing a missed value.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (entries.size() > capacity) {
+                Map.Entry<K, Entry<V>> eldest = null;
+                for (final Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                    if (eldest == null || entry.getValue().used < eldest.getValue().used) eldest = entry;
+                }
+                if (eldest == null) return;
+                if (entries.remove(eldest.getKey(), eldest.getValue())) evictions.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private volatile long used; // clock of the last use
+
+        private Entry(final V value, final long used) {
+            this.value = value;
+            this.used = used;
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package dev.yasint.regexsynth.api;
+
+import dev.yasint.regexsynth.synthesis.SetExpression;
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.api.ExpressionTemplate.*;
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.lowercase;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Repetition.oneOrMoreTimes;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ExpressionTemplateTest {
+
+    private static final ExpressionTemplate TEMPLATE = new ExpressionTemplate(exactLineMatch(concat(
+            oneOrMoreTimes(lowercase()), literal("@"), literalHole("domain"),
+            literal("/"), oneOrMoreTimes(setHole("id")), literal(":"), integerRangeHole("port"))));
+
+    @Test
+    public void itShouldFillTheHoles() {
+        final SetExpression digits = new SetExpression(false);
+        digits.addRange('0', '9');
+        final RegexSynth synth = TEMPLATE.bind()
+                .literal("domain", "acme.com").set("id", digits).integerRange("port", 8000, 8080)
+                .synthesize();
+        final RegexSynth expected = new RegexSynth(exactLineMatch(concat(
+                oneOrMoreTimes(lowercase()), literal("@acme.com/"), oneOrMoreTimes(digits),
+                literal(":"), integerRange(8000, 8080))));
+        assertEquals(synth.getExpression(), "^[a-z]+@acme\\.com\\/(?:[0-9])+:(?:8080|80[0-7][0-9])$");
+        assertTrue(synth.compile().getPattern().matches("mail@acme.com/42:8042"));
+        assertTrue(expected.compile().getPattern().matches("mail@acme.com/42:8042"));
+        assertEquals(TEMPLATE.holes().toString(), "[domain, id, port]");
+    }
+
+    @Test
+    public void itShouldRejectIllTypedOrMissingValues() {
+        assertThrows(IllegalArgumentException.class, () -> TEMPLATE.bind().literal("port", "80"));
+        assertThrows(IllegalArgumentException.class, () -> TEMPLATE.bind().literal("host", "acme"));
+        final IllegalArgumentException unbound = assertThrows(IllegalArgumentException.class,
+                () -> TEMPLATE.bind().literal("domain", "acme.com").toExpression());
+        assertEquals(unbound.getMessage(), "unbound holes: [id, port]");
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExpressionTemplate(literalHole("x"), setHole("x")));
+    }
+
+}
@@ -0,0 +1,47 @@
+package dev.yasint.regexsynth.api;
+
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.dsl.CharClasses.EscapeSequences.space;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.*;
+import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.oneOrMoreTimes;
+import static dev.yasint.regexsynth.dsl.Repetition.zeroOrMoreTimes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class LexerTest {
+
+    private static final int KEYWORD = 1, IDENTIFIER = 2, NUMBER = 3, OPERATOR = 4, SPACE = 5;
+
+    private static final Lexer LEXER = Lexer.builder()
+            .token(KEYWORD, either("if", "else", "return"))
+            .token(IDENTIFIER, alphabetic(), zeroOrMoreTimes(word()))
+            .token(NUMBER, oneOrMoreTimes(digit()))
+            .token(OPERATOR, either("=", "==", "<", "<=", "+"))
+            .token(SPACE, oneOrMoreTimes(space()))
+            .build();
+
+    @Test
+    public void itShouldReadTheLongestTokens() {
+        final String input = "if ifx<=10 return x==y+1";
+        final int[] types = new int[32], starts = new int[32], ends = new int[32];
+        final int count = LEXER.tokenize(input, types, starts, ends);
+        final StringBuilder tokens = new StringBuilder();
+        for (int i = 0; i < count; i++)
+            tokens.append(types[i]).append(':').append(input, starts[i], ends[i]).append(' ');
+        assertEquals(tokens.toString(),
+                "1:if 5:  2:ifx 4:<= 3:10 5:  1:return 5:  2:x 4:== 2:y 4:+ 3:1 ");
+        assertEquals(ends[count - 1], input.length());
+    }
+
+    @Test
+    public void itShouldStopAtUnknownInputOrFullArrays() {
+        final int[] types = new int[2], starts = new int[2], ends = new int[2];
+        assertEquals(LEXER.tokenize("x = 1", types, starts, ends), 2);
+        assertEquals(LEXER.tokenize("x = 1", ends[1], types, starts, ends), 2);
+        assertEquals(LEXER.tokenize("x = 1", ends[1], types, starts, ends), 1);
+        assertEquals(LEXER.tokenize("a $b", types, starts, ends), 2);
+        assertEquals(ends[1], 2);
+    }
+
+}
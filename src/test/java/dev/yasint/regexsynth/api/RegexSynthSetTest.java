@@ -0,0 +1,66 @@
+package dev.yasint.regexsynth.api;
+
+import com.google.re2j.Pattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static dev.yasint.regexsynth.dsl.Anchors.*;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.lowercase;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
+import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RegexSynthSetTest {
+
+    private static final String[] LINES = {
+            "", "ERROR disk full", "WARN retry 3 of 5", "INFO user=alice id=42", "error: timeout after 30s",
+            "GET /index.html 200", "POST /login 401", "ERROR\nWARN", "ÿ→ unicode é line", "id=7 id=300",
+    };
+
+    private static RegexSynth[] rules() {
+        return new RegexSynth[]{
+                new RegexSynth(startOfLine(), literal("ERROR")),
+                new RegexSynth(literal("WARN"), endOfLine(false)),
+                new RegexSynth(literal("id="), integerRange(1, 99), wordBoundary()),
+                new RegexSynth(either("GET", "POST"), literal(" /"), oneOrMoreTimes(lowercase())),
+                new RegexSynth(literal(" "), integerRange(400, 499), endOfLine(false)),
+                new RegexSynth(oneOrMoreTimes(digit()), literal("s")),
+                new RegexSynth(literal("é")),
+                new RegexSynth(() -> new StringBuilder("(?i:error)")), // matched on its own
+                new RegexSynth(zeroOrMoreTimes(literal("x"))), // matches the empty string
+        };
+    }
+
+    @Test
+    public void itShouldFindEveryMatchingPatternInOneScan() {
+        for (final RegexSynth.Flags[] flags : new RegexSynth.Flags[][]{
+                {}, {RegexSynth.Flags.MULTILINE}, {RegexSynth.Flags.CASE_INSENSITIVE}}) {
+            final RegexSynthSet set = new RegexSynthSet(flags);
+            int modifiers = 0;
+            for (final RegexSynth.Flags flag : flags) modifiers |= flag.val;
+            final RegexSynth[] rules = rules();
+            for (final RegexSynth rule : rules) set.add(rule);
+            set.compile();
+            for (final String line : LINES) {
+                final BitSet expected = new BitSet();
+                for (int i = 0; i < rules.length; i++)
+                    if (Pattern.compile(rules[i].getExpression(), modifiers).matcher(line).find()) expected.set(i);
+                assertEquals(set.match(line), expected, line);
+            }
+        }
+    }
+
+    @Test
+    public void itShouldRejectPatternsAfterCompiling() {
+        final RegexSynthSet set = new RegexSynthSet();
+        assertThrows(NullPointerException.class, () -> set.match("a"));
+        assertEquals(set.add(new RegexSynth(literal("a"))), 0);
+        assertEquals(set.compile().match("cat").toString(), "{0}");
+        assertThrows(IllegalStateException.class, () -> set.add(new RegexSynth(literal("b"))));
+    }
+
+}
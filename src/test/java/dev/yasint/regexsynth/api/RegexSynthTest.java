@@ -1,9 +1,11 @@
 package dev.yasint.regexsynth.api;
 
+import com.google.re2j.Matcher;
 import com.google.re2j.Pattern;
 import org.junit.jupiter.api.Test;
 
 import java.time.Year;
+import java.util.Collections;
 
 import static dev.yasint.regexsynth.dsl.Anchors.*;
 import static dev.yasint.regexsynth.dsl.CharClasses.EscapeSequences.linebreak;
@@ -18,8 +20,47 @@ import static dev.yasint.regexsynth.dsl.Numeric.leadingZero;
 import static dev.yasint.regexsynth.dsl.Operators.concat;
 import static dev.yasint.regexsynth.dsl.Operators.either;
 import static dev.yasint.regexsynth.dsl.Repetition.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public final class RegexSynthTest {
 
+    @Test
+    public void itShouldReadEveryMatchWithoutCopying() {
+        final RegexSynth synth = new RegexSynth(captureGroup(oneOrMoreTimes(lowercase())), literal("="),
+                optional(namedCaptureGroup("value", oneOrMoreTimes(digit()))),
+                optional(namedCaptureGroup("unit", either("ms", "s"))));
+        assertEquals(synth.getGroupNames().toString(), "{value=2, unit=3}");
+        final String input = "a=1ms b=22 c=";
+        final Matcher matcher = synth.compile().getPattern().matcher(input);
+        final int[] spans = new int[8];
+        final StringBuilder matches = new StringBuilder();
+        while (matcher.find()) {
+            assertEquals(RegexSynth.spans(matcher, spans), 4);
+            matches.append(RegexSynth.group(input, spans, 1)).append(':')
+                    .append(RegexSynth.group(input, spans, synth.groupIndex("value"))).append(' ');
+        }
+        assertEquals(matches.toString(), "a:1 b:22 c:null ");
+        assertEquals(synth.compile(Collections.singleton("unit")).groupIndex("unit"), 1);
+        assertEquals(synth.groupIndex("value"), -1);
+        assertThrows(IllegalArgumentException.class, () -> synth.groupIndex("missing"));
+        assertThrows(IndexOutOfBoundsException.class, () -> RegexSynth.spans(matcher, new int[2]));
+    }
+
+    @Test
+    public void itShouldShareCompiledPatterns() {
+        RegexSynth.clearPatternCache();
+        final Pattern a = new RegexSynth(oneOrMoreTimes(digit()), literal("x")).compile().getPattern();
+        final Pattern b = new RegexSynth(oneOrMoreTimes(digit()), literal("x")).compile().getPattern();
+        final Pattern c = new RegexSynth(oneOrMoreTimes(digit()), literal("x"))
+                .compile(RegexSynth.Flags.CASE_INSENSITIVE).getPattern();
+        assertSame(a, b);
+        assertNotSame(a, c);
+        assertEquals(RegexSynth.patternCacheHits(), 1);
+        assertEquals(RegexSynth.patternCacheMisses(), 2);
+        assertEquals(RegexSynth.patternCacheHitRate(), 1 / 3.0, 1e-9);
+        assertTrue(RegexSynth.patternCompileNanos() > 0);
+        RegexSynth.clearPatternCache();
+        assertEquals(RegexSynth.patternCompileNanos(), 0);
+    }
+
 }
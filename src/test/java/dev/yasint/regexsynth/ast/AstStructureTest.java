@@ -0,0 +1,81 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.unicode.UnicodeScript;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Groups.namedCaptureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Literals.unicodeScriptLiteral;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class AstStructureTest {
+
+    @Test
+    public void itShouldBuildInspectableNodes() {
+        final Expression expression = exactLineMatch(
+                namedCaptureGroup("id", between(2, 4, literal("ab"))),
+                either(literal("x"), literal("y"))
+        );
+        assertTrue(expression instanceof Concat);
+        final Concat line = (Concat) expression;
+        assertEquals(line.children().size(), 4);
+        assertEquals(((Anchor) line.children().get(0)).type(), Anchor.Type.START_OF_LINE);
+        assertEquals(((Anchor) line.children().get(3)).type(), Anchor.Type.END_OF_LINE);
+
+        final Group group = (Group) line.children().get(1);
+        assertEquals(group.type(), Group.Type.NAMED);
+        assertEquals(group.name(), "id");
+        final Quantifier quantifier = (Quantifier) group.children().get(0);
+        assertEquals(quantifier.min(), 2);
+        assertEquals(quantifier.max(), 4);
+        assertEquals(((Literal) quantifier.operand()).value(), "ab");
+
+        final Group alternation = (Group) line.children().get(2);
+        assertEquals(((Alternation) alternation.children().get(0)).alternatives().size(), 2);
+        assertEquals(expression.toRegex().toString(), "^(?P<id>(?:ab){2,4})(?:x|y)$");
+    }
+
+    @Test
+    public void itShouldCompareNodesStructurally() {
+        assertEquals(captureGroup(literal("a"), oneOrMoreTimes(literal("b"))),
+                captureGroup(literal("a"), oneOrMoreTimes(literal("b"))));
+        assertEquals(lazy(optional(literal("a"))).hashCode(), lazy(optional(literal("a"))).hashCode());
+        assertEquals(unicodeScriptLiteral(UnicodeScript.GREEK, true),
+                unicodeScriptLiteral(UnicodeScript.GREEK, true));
+        assertNotEquals(concat(literal("a"), literal("b")), concat(literal("b"), literal("a")));
+        assertNotEquals(exactly(2, literal("a")), exactlyOrMoreTimes(2, literal("a")));
+    }
+
+    @Test
+    public void itShouldNotShareMutableStateBetweenSyntheses() {
+        final Expression expression = unicodeScriptLiteral(UnicodeScript.GREEK, false);
+        expression.toRegex().append("mutated");
+        assertEquals(expression.toRegex().toString(), "\\p{Greek}");
+        final Expression quantified = zeroOrMoreTimes(digit());
+        quantified.toRegex().setLength(0);
+        assertEquals(quantified.toRegex().toString(), "(?:[0-9])*");
+    }
+
+    @Test
+    public void itShouldStreamTheWholeTreeIntoAnAppendable() throws IOException {
+        final Expression expression = exactLineMatch(
+                captureGroup(oneOrMoreTimes(digit()), () -> new StringBuilder("-")),
+                lazy(between(1, 3, either(literal("a"), literal("b"))))
+        );
+        final StringWriter writer = new StringWriter();
+        expression.emitTo(writer);
+        assertEquals(writer.toString(), "^((?:[0-9])+-)(?:(?:a|b)){1,3}?$");
+        assertEquals(expression.toRegex().toString(), writer.toString());
+    }
+
+}
@@ -0,0 +1,69 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Matcher;
+import dev.yasint.regexsynth.api.RegexSynth;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.CharClasses.rangedSet;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Groups.namedCaptureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Repetition.between;
+import static dev.yasint.regexsynth.dsl.Repetition.exactly;
+import static dev.yasint.regexsynth.dsl.Repetition.oneOrMoreTimes;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CaptureMinimizerTest {
+
+    private static String minimize(final String regex, final Object... groups) {
+        return new RegexSynth(CaptureMinimizer.apply(RegexParser.parse(regex), Arrays.asList(groups))).getExpression();
+    }
+
+    @Test
+    public void itShouldDowngradeTheGroupsThatAreNotRead() {
+        assertEquals(minimize("(?P<year>[0-9]{4})-([0-9]{2})-([0-9]{2})", "year"), "(?P<year>[0-9]{4})\\-[0-9]{2}\\-[0-9]{2}");
+        assertEquals(minimize("(a(b)|c)+(d)", 2, 3), "(?:a(b)|c)+(d)");
+        assertEquals(minimize("(a)(?i:(b))(c)", 3), "a(?i:(b))(c)"); // fragments keep their groups
+        assertArrayEquals(CaptureMinimizer.numbering(RegexParser.parse("(a)(?i:(b))(c)"),
+                Collections.singleton(3)), new int[]{0, -1, 1, 2});
+        assertThrows(IllegalArgumentException.class, () -> minimize("(a)", 2));
+        assertThrows(IllegalArgumentException.class, () -> minimize("(a)", "name"));
+    }
+
+    @Test
+    public void itShouldCompileOnlyTheSelectedGroups() {
+        final RegexSynth synth = new RegexSynth(
+                captureGroup(exactly(4, digit())), literal("-"),
+                captureGroup(exactly(2, digit())), literal("-"),
+                namedCaptureGroup("day", exactly(2, digit()))
+        ).compile(Arrays.asList(2, "day"));
+        assertEquals(synth.getPattern().groupCount(), 2);
+        final Matcher matcher = synth.getPattern().matcher("2020-12-31");
+        assertTrue(matcher.matches());
+        assertEquals(matcher.group(synth.groupIndex(2)), "12");
+        assertEquals(matcher.group("day"), "31");
+        assertEquals(synth.groupIndex(1), -1);
+        assertEquals(synth.compileMatchOnly().getPattern().groupCount(), 0);
+        assertEquals(synth.compile().groupIndex(1), 1);
+    }
+
+    @Test
+    public void itShouldKeepTheMatchBoundsOfTheOriginal() {
+        final RegexSynth synth = new RegexSynth(oneOrMoreTimes(captureGroup(between(2, 3, rangedSet("0", "3")))));
+        final Matcher original = synth.compile().getPattern().matcher("2113");
+        final Matcher matchOnly = synth.compileMatchOnly().getPattern().matcher("2113");
+        assertTrue(original.find());
+        assertTrue(matchOnly.find());
+        assertEquals(matchOnly.start(), original.start());
+        assertEquals(matchOnly.end(), original.end());
+        final Matcher selected = synth.compile(Collections.singleton(1)).getPattern().matcher("2113");
+        assertTrue(selected.find());
+        assertEquals(selected.end(), original.end());
+        assertEquals(selected.group(synth.groupIndex(1)), original.group(1));
+    }
+
+}
@@ -0,0 +1,83 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.exceptions.ComplexityBudgetException;
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.dsl.Anchors.endOfLine;
+import static dev.yasint.regexsynth.dsl.Anchors.startOfLine;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.lowercase;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Repetition.oneOrMoreTimes;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ComplexityEstimatorTest {
+
+    private static ComplexityEstimate estimate(final String regex) {
+        return ComplexityEstimator.estimate(regex, false, false);
+    }
+
+    @Test
+    public void itShouldPredictTheProgramSize() {
+        assertEquals(estimate("abc").instructions(), 5); // fail + 3 runes + match
+        assertEquals(estimate("(a)|b|c+").instructions(), 10);
+        assertEquals(estimate("a{3}").instructions(), 5);
+        final ComplexityEstimate counted = estimate("[0-9]{2,4}");
+        assertEquals(counted.instructions(), 8);
+        assertEquals(counted.repetitionExpansion(), 4);
+        assertEquals(estimate("(?:ab){1000}").repetitionExpansion(), 1998);
+        assertEquals(estimate("foo|bar|qux|zip").fanOut(), 4);
+    }
+
+    @Test
+    public void itShouldFactorAlternationsLikeRE2J() {
+        // sizes of the programs compiled by RE2J 1.3
+        assertEquals(estimate("(a|b)").instructions(), 5);
+        assertEquals(estimate("foo|bar|baz").instructions(), 9);
+        assertEquals(estimate("a*b|a*c").instructions(), 5);
+        assertEquals(estimate("a|b|cd|e|f").instructions(), 8);
+        assertEquals(estimate("abc|ab|a").instructions(), 9);
+        assertEquals(estimate("(a)x|(a)y").instructions(), 11);
+        assertEquals(estimate("(c|ab|\\-){1,300}").instructions(), 2701);
+        assertEquals(estimate("(?:c|ab|\\-){1,300}").instructions(), 2101);
+        assertEquals(estimate("x(?:a|b){1,3}|xc").instructions(), 10);
+        assertEquals(estimate("a|a").instructions(), 3);
+        assertEquals(estimate("[ab]|[ab]").instructions(), 3);
+        assertEquals(estimate("(?:a|a){10}").instructions(), 12);
+        assertEquals(estimate("(?:\\w|\\w|\\d){2}").instructions(), 4);
+        assertEquals(estimate("[ab]|a|ab").instructions(), 6);
+        assertEquals(estimate("ab|ab").instructions(), 5);
+        assertEquals(estimate("a*b|a*b|a*c").instructions(), 8);
+        assertEquals(new RegexSynth(new Fragment("(c|ab|\\-){1,300}")).estimate().instructions(), 2701);
+    }
+
+    @Test
+    public void itShouldDetectOnePassPatterns() {
+        assertTrue(estimate("^[a-z]+@[a-z]+\\.(?:com|org)$").isOnePass());
+        assertTrue(estimate("\\A(\\d{1,3})-x?y\\z").isOnePass());
+        assertEquals(estimate("[a-z]+").onePassBlockers().size(), 2);
+        assertTrue(estimate("^(?:a|ab)$").isOnePass()); // RE2J factors it into ^ab?$
+        assertFalse(estimate("^(?:a|b*a)$").isOnePass());
+        assertFalse(estimate("^[a-z]*[a-z]$").isOnePass());
+        assertFalse(estimate("^(?:a?)*$").isOnePass());
+        assertFalse(estimate("^(a)$|b$").isOnePass());
+        assertFalse(estimate("^(?i:a*)A$").isOnePass());
+        assertFalse(ComplexityEstimator.estimate(RegexParser.parse("^a*A$"), false, true).isOnePass());
+        assertFalse(ComplexityEstimator.estimate(RegexParser.parse("^a$"), true, false).isOnePass());
+    }
+
+    @Test
+    public void itShouldEnforceBudgets() {
+        final RegexSynth synth = new RegexSynth(startOfLine(), oneOrMoreTimes(lowercase()), literal("@"),
+                oneOrMoreTimes(lowercase()), endOfLine(false));
+        final ComplexityBudget budget = ComplexityBudget.unlimited()
+                .withMaxInstructions(16).withMaxFanOut(2).withOnePass(true);
+        assertNotNull(synth.compile(budget).getPattern());
+        assertTrue(synth.estimate().violations(budget).isEmpty());
+        final ComplexityBudgetException exceeded = assertThrows(ComplexityBudgetException.class,
+                () -> new RegexSynth(literal("a"), oneOrMoreTimes(lowercase())).compile(budget.withMaxInstructions(4)));
+        assertTrue(exceeded.getMessage().startsWith("5 instructions exceeds the limit of 4"));
+        assertTrue(exceeded.getMessage().contains("not one-pass"));
+    }
+
+}
@@ -0,0 +1,48 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class GroupEliminationTest {
+
+    private static String eliminate(final Expression expression) {
+        return GroupElimination.apply(expression).toRegex().toString();
+    }
+
+    @Test
+    public void itShouldRemoveGroupsOfQuantifiedAtoms() {
+        assertEquals(eliminate(oneOrMoreTimes(digit())), "[0-9]+");
+        assertEquals(eliminate(optional(literal("/"))), "\\/?");
+        assertEquals(eliminate(exactly(3, nonCaptureGroup(literal("a")))), "a{3}");
+        assertEquals(eliminate(lazy(zeroOrMoreTimes(literal(".")))), "\\.*?");
+    }
+
+    @Test
+    public void itShouldKeepGroupsOfQuantifiedSequences() {
+        assertEquals(eliminate(optional(literal("ab"))), "(?:ab)?");
+        assertEquals(eliminate(exactly(2, either(literal("a"), literal("bc")))), "(?:a|bc){2}");
+    }
+
+    @Test
+    public void itShouldKeepGroupsThatBindAlternationsInSequences() {
+        assertEquals(eliminate(concat(literal("x"), nonCaptureGroup(literal("ab")), literal("y"))), "xaby");
+        assertEquals(eliminate(concat(literal("x"), either(literal("a"), literal("b")))), "x(?:a|b)");
+        assertEquals(eliminate(nonCaptureGroup(either(literal("a"), literal("b")))), "a|b");
+    }
+
+    @Test
+    public void itShouldNeverRemoveCaptureGroups() {
+        assertEquals(eliminate(captureGroup(nonCaptureGroup(either(literal("a"), literal("b"))))), "(a|b)");
+        assertEquals(eliminate(optional(captureGroup(literal("ab")))), "(ab)?");
+    }
+
+}
@@ -0,0 +1,45 @@
+package dev.yasint.regexsynth.ast;
+
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.api.RegexSynth;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Repetition.optional;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class HashConsingTest {
+
+    @Test
+    public void itShouldShareStructurallyEqualSubtrees() {
+        final Concat dag = (Concat) HashConsing.apply(concat(
+                captureGroup(integerRange(0, 255)), literal("."),
+                captureGroup(integerRange(0, 255)), literal("."),
+                optional(literal("ab")), optional(literal("ab"))
+        ));
+        assertTrue(dag.children().get(0) instanceof Shared);
+        assertSame(dag.children().get(0), dag.children().get(2));
+        assertSame(dag.children().get(1), dag.children().get(3)); // plain text isn't wrapped
+        assertTrue(dag.children().get(4) instanceof Shared);
+        assertSame(dag.children().get(4), dag.children().get(5));
+    }
+
+    @Test
+    public void itShouldSynthesizeASharedSubtreeOnlyOnce() {
+        final AtomicInteger synthesized = new AtomicInteger();
+        final Expression expensive = () -> {
+            synthesized.incrementAndGet();
+            return new StringBuilder("[0-9]{3}");
+        };
+        final Expression delimited = concat(expensive, literal("-"));
+        final String regex = new RegexSynth(delimited, delimited, expensive).getExpression();
+        assertEquals(regex, "[0-9]{3}\\-[0-9]{3}\\-[0-9]{3}");
+        assertEquals(synthesized.get(), 1);
+    }
+
+}
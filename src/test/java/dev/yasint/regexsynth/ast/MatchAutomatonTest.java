@@ -0,0 +1,35 @@
+package dev.yasint.regexsynth.ast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class MatchAutomatonTest {
+
+    @Test
+    public void itShouldResolveAnchorsAtEveryPosition() {
+        final MatchAutomaton automaton = MatchAutomaton.compile(Arrays.asList(
+                "\\Aab", "b\\z", "\\bcat\\b", "\\Bat", "^x$", "a{2,3}c", "(?:ab)+?d"), true, false, false, 100);
+        assertEquals(automaton.match("ab").toString(), "{0, 1}");
+        assertEquals(automaton.match("a cat!").toString(), "{2, 3}");
+        assertEquals(automaton.match("concat\nx").toString(), "{3, 4}");
+        assertEquals(automaton.match("aaaac ababd").toString(), "{5, 6}");
+        assertFalse(MatchAutomaton.supports("a(?i:b)"));
+        assertThrows(IllegalArgumentException.class, () -> MatchAutomaton.compile(
+                Arrays.asList("a(?i:b)"), false, false, false, 100));
+    }
+
+    @Test
+    public void itShouldFlushTheStatesBeyondTheBudget() {
+        final MatchAutomaton automaton = MatchAutomaton.compile(Arrays.asList(
+                "[a-z]{8}[0-9]", "z+y"), false, false, false, 4);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(automaton.match("abcdefgh1 zzzy").toString(), "{0, 1}");
+            assertEquals(automaton.match("abcdefg1 zzz").toString(), "{}");
+            assertTrue(automaton.states() <= 4);
+        }
+    }
+
+}
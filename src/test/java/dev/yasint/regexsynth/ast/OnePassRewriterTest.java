@@ -0,0 +1,45 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.api.RegexSynth;
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class OnePassRewriterTest {
+
+    @Test
+    public void itShouldFactorOverlappingAlternatives() {
+        final RegexSynth synth = new RegexSynth(exactLineMatch(integerRange(1, 31)));
+        assertFalse(synth.estimate().isOnePass());
+        final Pattern original = Pattern.compile(synth.getExpression());
+        synth.rewriteForOnePass();
+        assertEquals(synth.getExpression(), "^(?:3[01]?|[12][0-9]?|[4-9])$");
+        assertTrue(synth.estimate().isOnePass());
+        final Pattern rewritten = synth.compile().getPattern();
+        for (int i = 0; i <= 400; i++) {
+            final String s = String.valueOf(i);
+            assertEquals(rewritten.matches(s), original.matches(s), s);
+        }
+    }
+
+    @Test
+    public void itShouldKeepPatternsItCannotMakeOnePass() {
+        final Expression ambiguous = RegexParser.parse("^[a-z]*[a-z]$");
+        assertSame(OnePassRewriter.apply(ambiguous, false, false), ambiguous);
+        final Expression onePass = RegexParser.parse("^(?:foo|bar)$");
+        assertSame(OnePassRewriter.apply(onePass, false, false), onePass);
+        assertEquals(new RegexSynth(OnePassRewriter.apply(RegexParser.parse("^(?:ab|ac|a)$"), false, false))
+                .getExpression(), "^a[bc]?$");
+        // factoring would duplicate the group
+        final Expression captures = RegexParser.parse("^(?:[ab](x)|ay)$");
+        assertSame(OnePassRewriter.apply(captures, false, false), captures);
+        // the cases overlap only when matching case insensitively
+        assertFalse(ComplexityEstimator.estimate(OnePassRewriter.apply(
+                RegexParser.parse("^(?:ab|Ac)$"), false, true), false, true).isOnePass());
+    }
+
+}
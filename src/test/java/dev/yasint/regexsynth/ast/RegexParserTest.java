@@ -0,0 +1,89 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.exceptions.RegexSyntaxException;
+import dev.yasint.regexsynth.synthesis.SetExpression;
+import dev.yasint.regexsynth.synthesis.TrieExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RegexParserTest {
+
+    private static String minimize(final String regex) {
+        return new RegexSynth(RegexParser.parse(regex)).getExpression();
+    }
+
+    @Test
+    public void itShouldParseIntoTreeNodes() {
+        assertTrue(RegexParser.parse("[a-c\\d]") instanceof SetExpression);
+        assertTrue(RegexParser.parse("\\w") instanceof SetExpression);
+        assertTrue(RegexParser.parse("foo|bar|baz") instanceof TrieExpression);
+        assertTrue(RegexParser.parse("a|ab") instanceof Alternation); // order matters
+        final Concat line = (Concat) RegexParser.parse("^(?P<id>ab+)$");
+        assertEquals(line.children().get(0), new Anchor(Anchor.Type.START_OF_LINE));
+        final Group group = (Group) line.children().get(1);
+        assertEquals(group.name(), "id");
+        assertEquals(group.children().get(0), new Concat(java.util.Arrays.asList(
+                new Literal("a", false), new Quantifier(new Literal("b", false), 1, Quantifier.UNBOUNDED))));
+    }
+
+    @Test
+    public void itShouldMinimizeLegacyPatterns() {
+        assertEquals(minimize("(?:a|b|c)+x"), "[a-c]+x");
+        assertEquals(minimize("(?:abc|abd)"), "ab[cd]");
+        assertEquals(minimize("foo|bar|baz"), "(?:ba[rz]|foo)");
+        assertEquals(minimize("(?:(?:\\d){2}){3}"), "[0-9]{6}");
+        assertEquals(minimize("(?i:ab)|c"), "(?i:ab)|c");
+    }
+
+    @Test
+    public void itShouldRepeatTheWholeQuotedText() {
+        final String minimized = minimize("\\Qa.b\\E+");
+        assertEquals(minimized, "(?:\\Qa.b\\E)+");
+        final com.google.re2j.Matcher matcher = Pattern.compile(minimized).matcher("a.ba.bb");
+        assertTrue(matcher.find());
+        assertEquals(matcher.end(), 6);
+    }
+
+    @Test
+    public void itShouldAcceptAnyGroupNameOfRE2() {
+        assertEquals(minimize("(?P<y>\\d{4})-(?P<m>\\d\\d)"), "(?P<y>[0-9]{4})\\-(?P<m>[0-9][0-9])");
+        assertEquals(((Group) RegexParser.parse("(?P<1_x>a)")).name(), "1_x");
+        assertThrows(RegexSyntaxException.class, () -> RegexParser.parse("(?P<a-b>x)"));
+        assertThrows(RegexSyntaxException.class, () -> RegexParser.parse("(?P<>x)"));
+    }
+
+    @Test
+    public void itShouldMatchTheSameAsTheOriginal() {
+        final String[] regexes = {
+                "^(?:\\d{1,3}\\.){3}\\d{1,3}$",
+                "(\\w+)@(\\w+)\\.(?:com|org|net)",
+                "[^\\s,]+(?:, ?[^\\s,]+)*",
+                "\\Qa.b\\E+|x{2,}?|[[:alpha:]_]\\x41\\x{1F600}",
+                "(?i)abc|def",
+                "\\p{Greek}+|\\PL|[\\p{Lu}0-9]"
+        };
+        final String[] inputs = {"192.168.0.1", "me@host.org", "a, b,c", "a.bbb", "xxx", "_A😀",
+                "ABC", "DEF", "αβ", "1", "Z", "", "a.b"};
+        for (final String regex : regexes) {
+            final Pattern original = Pattern.compile(regex);
+            final Pattern minimized = Pattern.compile(minimize(regex));
+            assertEquals(minimized.groupCount(), original.groupCount());
+            for (final String input : inputs) {
+                final com.google.re2j.Matcher a = original.matcher(input), b = minimized.matcher(input);
+                assertEquals(b.find(), a.find(), regex + " on " + input);
+            }
+        }
+    }
+
+    @Test
+    public void itShouldRejectInvalidSyntax() {
+        for (final String regex : new String[]{"a**", "(ab", "ab)", "[a", "\\1", "x{1001}", "*a", "[z-a]", "(?<n>a)"}) {
+            assertThrows(RegexSyntaxException.class, () -> RegexParser.parse(regex), regex);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.exceptions.ComplexityBudgetException;
+import org.junit.jupiter.api.Test;
+
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.word;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Repetition.between;
+import static dev.yasint.regexsynth.dsl.Repetition.exactly;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RepetitionRewriterTest {
+
+    @Test
+    public void itShouldWidenTheMostExpensiveRepetitionFirst() {
+        final RepetitionRewrite rewrite = RepetitionRewriter.widen(RegexParser.parse("[a-z]{2,3}-[0-9]{1,500}"), 100);
+        assertEquals(rewrite.instructionsBefore(), 1006);
+        assertEquals(rewrite.instructionsAfter(), 9);
+        assertEquals(rewrite.widened().size(), 1);
+        assertEquals(rewrite.widened().get(0), "[0-9]{1,500} => [0-9]+");
+        assertEquals(new RegexSynth(rewrite.expression()).getExpression(), "[a-z]{2,3}\\-[0-9]+");
+        assertFalse(rewrite.isExact());
+    }
+
+    @Test
+    public void itShouldRejectAPatternThatDoesNotFitExactly() {
+        final ComplexityBudgetException exceeded = assertThrows(ComplexityBudgetException.class,
+                () -> RepetitionRewriter.rewrite(RegexParser.parse("[a-z]{2,3}-[0-9]{1,500}"), 100));
+        assertTrue(exceeded.getMessage().startsWith("1006 instructions exceeds the limit of 100"));
+        assertTrue(exceeded.getMessage().contains("1006 => 9 instructions, widened [[0-9]{1,500} => [0-9]+]"));
+        final RegexSynth synth = new RegexSynth(between(1, 500, digit()));
+        assertThrows(ComplexityBudgetException.class, () -> synth.rewriteRepetitions(100));
+        assertEquals(synth.getExpression(), "[0-9]{1,500}");
+    }
+
+    @Test
+    public void itShouldKeepThePatternWhenItFits() {
+        final RepetitionRewrite rewrite = RepetitionRewriter.rewrite(RegexParser.parse("[0-9]{2,4}"), 100);
+        assertTrue(rewrite.isExact());
+        assertEquals(rewrite.instructionsBefore(), rewrite.instructionsAfter());
+    }
+
+    @Test
+    public void itShouldWidenIntoANewSynthesizer() {
+        final RegexSynth original = new RegexSynth(
+                between(1, 1000, captureGroup(concat(word(), literal("-"), exactly(40, digit()))))
+        );
+        final RegexSynth synth = original.widenRepetitions(200).compile();
+        final RepetitionRewrite rewrite = synth.getRepetitionRewrite();
+        assertTrue(rewrite.instructionsBefore() > 40000);
+        assertTrue(rewrite.instructionsAfter() <= 200);
+        assertEquals(synth.getExpression(), "([0-9A-Z_a-z]\\-[0-9]{40})+");
+        assertEquals(original.getExpression(), "([0-9A-Z_a-z]\\-[0-9]{40}){1,1000}");
+        assertTrue(synth.getPattern().matches("a-" + repeat('1', 40) + "b-" + repeat('2', 40)));
+    }
+
+    @Test
+    public void itShouldAcceptMoreStringsWhenWidened() {
+        final RegexSynth original = new RegexSynth(literal("#"), between(1, 500, digit()));
+        final RegexSynth widened = original.widenRepetitions(100).compile();
+        final String tooLong = "#" + repeat('7', 501);
+        assertTrue(widened.getPattern().matches(tooLong));
+        assertFalse(Pattern.compile(original.getExpression()).matches(tooLong));
+    }
+
+    private static String repeat(final char c, final int times) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) builder.append(c);
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,127 @@
+package dev.yasint.regexsynth.ast;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.api.RegexSynth;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.digit;
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.lowercase;
+import static dev.yasint.regexsynth.dsl.CharClasses.rangedSet;
+import static dev.yasint.regexsynth.dsl.CharClasses.simpleSet;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Groups.nonCaptureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
+import static dev.yasint.regexsynth.dsl.Operators.concat;
+import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SimplifierTest {
+
+    private static String compile(final Expression expression) {
+        return new RegexSynth(expression).getExpression();
+    }
+
+    private static Set<String> words(final String... words) {
+        return new HashSet<>(Arrays.asList(words));
+    }
+
+    @Test
+    public void itShouldMergeSingleCharacterAlternativesIntoASet() {
+        assertEquals(compile(either(literal("a"), digit(), literal("b"))), "[0-9ab]");
+        assertEquals(compile(either(literal("x"), literal("yz"), literal("a"), literal("b"))), "x|yz|[ab]");
+        assertEquals(compile(either(literal("b"), either(words("c")))), "[bc]");
+        assertEquals(compile(either(literal("b"), either(words("c")), literal("c"))), "[bc]");
+        assertEquals(compile(either(literal("a"), either(words("b", "cd")))), "a|(?:cd|b)");
+    }
+
+    @Test
+    public void itShouldFoldAdjacentLiterals() {
+        final Expression expression = concat(literal("a"), nonCaptureGroup(literal("b")), literal("c"));
+        assertEquals(Simplifier.apply(expression), new Literal("abc", false));
+    }
+
+    @Test
+    public void itShouldCollapseNestedExactCounts() {
+        assertEquals(compile(exactly(3, nonCaptureGroup(exactly(2, literal("x"))))), "x{6}");
+        // 0 or 2 repetitions can't be written as x{0,2}
+        assertEquals(compile(optional(nonCaptureGroup(exactly(2, literal("x"))))), "(?:x{2})?");
+    }
+
+    @Test
+    public void itShouldNotCollapseRangeCounts() {
+        assertSpans(oneOrMoreTimes(nonCaptureGroup(between(2, 3, rangedSet("0", "3")))), "2113");
+        assertSpans(exactly(2, nonCaptureGroup(between(2, 3, literal("x")))), "xxxxx");
+        assertSpans(zeroOrMoreTimes(nonCaptureGroup(optional(literal("x")))), "xxy");
+    }
+
+    @Test
+    public void itShouldNotCollapseLazyCounts() {
+        assertSpans(lazy(exactly(2, nonCaptureGroup(between(2, 3, literal("x"))))), "xxxxxx");
+        assertSpans(lazy(exactly(3, nonCaptureGroup(optional(captureGroup(literal("c")))))), "ccc");
+        assertEquals(compile(lazy(exactly(3, nonCaptureGroup(exactly(2, literal("x")))))), "(?:x{2}){3}?");
+    }
+
+    @Test
+    public void itShouldDropDuplicateAlternatives() {
+        assertEquals(compile(either(literal("ab"), literal("cd"), literal("ab"))), "ab|cd");
+        assertEquals(compile(either(either(words("ab")), literal("ab"))), "ab");
+        // capturing groups are counted even when they are same
+        assertEquals(compile(either(captureGroup(literal("ab")), captureGroup(literal("ab")))), "(ab)|(ab)");
+    }
+
+    @Test
+    public void itShouldFactorCommonPrefixesAndSuffixes() {
+        assertEquals(compile(either(
+                concat(literal("ab"), digit()),
+                concat(literal("ac"), lowercase())
+        )), "a(?:b[0-9]|c[a-z])");
+        assertEquals(compile(either(
+                concat(literal("x"), oneOrMoreTimes(digit())),
+                concat(literal("yz"), oneOrMoreTimes(digit()))
+        )), "(?:x|yz)[0-9]+");
+        assertEquals(compile(either(literal("abc"), literal("abd"), literal("ab"))), "ab[cd]?");
+    }
+
+    @Test
+    public void itShouldNotFactorPrefixesThatMatchInManyWays() {
+        // a* can't be shared because a*b must be tried fully before a*c
+        assertEquals(compile(either(
+                concat(zeroOrMoreTimes(literal("a")), literal("b")),
+                concat(zeroOrMoreTimes(literal("a")), literal("c"))
+        )), "a*b|a*c");
+    }
+
+    @Test
+    public void itShouldPreserveMatchesAndCaptures() {
+        final Expression expression = either(
+                concat(literal("rgb"), captureGroup(digit())),
+                concat(literal("rgba"), captureGroup(simpleSet("x", "y"))),
+                literal("r")
+        );
+        final Pattern simplified = Pattern.compile(compile(expression));
+        final Pattern original = Pattern.compile(expression.toRegex().toString());
+        assertEquals(simplified.groupCount(), original.groupCount());
+        for (final String input : new String[]{"rgb1", "rgbax", "rgbay", "r", "rgbz"}) {
+            assertEquals(simplified.matches(input), original.matches(input));
+        }
+    }
+
+    private static void assertSpans(final Expression expression, final String input) {
+        final Matcher simplified = Pattern.compile(compile(expression)).matcher(input);
+        final Matcher original = Pattern.compile(expression.toRegex().toString()).matcher(input);
+        assertEquals(simplified.groupCount(), original.groupCount());
+        assertEquals(simplified.find(), original.find());
+        for (int group = 0; group <= original.groupCount(); group++) {
+            assertEquals(simplified.start(group), original.start(group));
+            assertEquals(simplified.end(group), original.end(group));
+        }
+    }
+
+}
@@ -19,7 +19,7 @@ public final class CharClassesTest {
         final Pattern expression = new RegexSynth(
                 exactly(5, anything())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:.){5}");
+        assertEquals(expression.pattern(), ".{5}");
     }
 
     @Test
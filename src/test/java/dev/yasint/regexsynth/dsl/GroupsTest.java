@@ -1,6 +1,7 @@
 package dev.yasint.regexsynth.dsl;
 
 import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.Expression;
 import dev.yasint.regexsynth.api.RegexSynth;
 import dev.yasint.regexsynth.exceptions.InvalidGroupNameException;
 import org.junit.jupiter.api.Test;
@@ -16,18 +17,16 @@ public final class GroupsTest {
 
     @Test
     public void itShouldCreateANonCapturingGroup() {
-        final Pattern pattern = new RegexSynth(
-                nonCaptureGroup(digit())
-        ).compile().getPattern();
-        assertEquals(pattern.pattern(), "(?:[0-9])");
+        final Expression group = nonCaptureGroup(digit());
+        assertEquals(group.toRegex().toString(), "(?:[0-9])");
+        // redundant in a complete pattern
+        assertEquals(new RegexSynth(group).compile().getPattern().pattern(), "[0-9]");
     }
 
     @Test
     public void itShouldCreateACapturingGroup() {
-        final Pattern pattern = new RegexSynth(
-                nonCaptureGroup(union(digit(), punctuation()))
-        ).compile().getPattern();
-        assertEquals(pattern.pattern(), "(?:[!-@[-\\`{-~])");
+        final Expression group = nonCaptureGroup(union(digit(), punctuation()));
+        assertEquals(group.toRegex().toString(), "(?:[!-@[-\\`{-~])");
     }
 
     @Test
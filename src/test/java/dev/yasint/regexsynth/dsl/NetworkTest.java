@@ -0,0 +1,79 @@
+package dev.yasint.regexsynth.dsl;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.exceptions.InvalidNetworkException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.Network.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class NetworkTest {
+
+    private static final String OCTET = "(?:25[0-5]|2[0-4][0-9]|1[0-9]{2}|[1-9]?[0-9])";
+
+    @Test
+    public void itShouldSynthesizeIpv4CidrBlocks() {
+        assertEquals(ipv4("192.168.4.0/22").toRegex().toString(),
+                "(?:192\\.168\\.[4-7]\\." + OCTET + ")");
+        assertEquals(ipv4("10.0.0.0/8").toRegex().toString(),
+                "(?:10\\." + OCTET + "(?:\\." + OCTET + "){2})");
+        assertEquals(ipv4("127.0.0.1").toRegex().toString(), "(?:127\\.0\\.0\\.1)");
+    }
+
+    @Test
+    public void itShouldMergeAdjacentAndOverlappingBlocks() {
+        assertEquals(ipv4("10.128.0.0/9", "10.0.0.0/9").toRegex().toString(),
+                ipv4("10.0.0.0/8").toRegex().toString());
+        assertEquals(ipv4("10.0.0.0/8", "10.1.2.0/24").toRegex().toString(),
+                ipv4("10.0.0.0/8").toRegex().toString());
+    }
+
+    @Test
+    public void itShouldMatchOnlyAddressesInTheRange() {
+        final Random random = new Random(33);
+        for (int t = 0; t < 50; t++) {
+            final long start = random.nextInt() & 0xFFFFFFFFL;
+            final long end = Math.min(start + random.nextInt(1 << random.nextInt(24)), 0xFFFFFFFFL);
+            final Pattern pattern = new RegexSynth(
+                    exactLineMatch(ipv4Range(dotted(start), dotted(end)))
+            ).compile().getPattern();
+            for (int i = 0; i < 200; i++) {
+                final long value = (i % 2 == 0 ? start : end) + random.nextInt(512) - 256;
+                if (value < 0 || value > 0xFFFFFFFFL) continue;
+                assertEquals(pattern.matches(dotted(value)), value >= start && value <= end);
+            }
+        }
+    }
+
+    @Test
+    public void itShouldMatchIpv6CidrBlocks() {
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(ipv6("2001:db8::/32", "fe80::/10"))
+        ).compile().getPattern();
+        assertTrue(pattern.matches("2001:db8:0:0:0:0:0:1"));
+        assertTrue(pattern.matches("2001:DB8:ffff:1:2:3:4:5"));
+        assertTrue(pattern.matches("febf:0:0:0:0:0:0:0"));
+        assertFalse(pattern.matches("2001:db9:0:0:0:0:0:1"));
+        assertFalse(pattern.matches("fec0:0:0:0:0:0:0:0"));
+        assertFalse(pattern.matches("2001:db8::1")); // compressed form is not matched
+    }
+
+    @Test
+    public void itShouldRejectInvalidBlocks() {
+        assertThrows(InvalidNetworkException.class, () -> ipv4("10.0.0/8"));
+        assertThrows(InvalidNetworkException.class, () -> ipv4("10.0.0.256"));
+        assertThrows(InvalidNetworkException.class, () -> ipv4("10.0.0.0/33"));
+        assertThrows(InvalidNetworkException.class, () -> ipv4Range("10.0.0.2", "10.0.0.1"));
+        assertThrows(InvalidNetworkException.class, () -> ipv6("2001::db8::/32"));
+        assertThrows(InvalidNetworkException.class, () -> ipv6("2001:db8:0:0:0:0:0:0:1"));
+    }
+
+    private static String dotted(final long value) {
+        return (value >>> 24 & 255) + "." + (value >>> 16 & 255) + "." + (value >>> 8 & 255) + "." + (value & 255);
+    }
+
+}
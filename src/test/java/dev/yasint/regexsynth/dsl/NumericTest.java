@@ -1,25 +1,29 @@
 package dev.yasint.regexsynth.dsl;
 
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.exceptions.NumericRangeException;
+import dev.yasint.regexsynth.synthesis.RangeExpression.DigitCase;
 import org.junit.jupiter.api.Test;
 
-import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
-import static dev.yasint.regexsynth.dsl.Numeric.leadingZero;
+import java.util.stream.IntStream;
+
+import static dev.yasint.regexsynth.dsl.Numeric.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class NumericTest {
 
     @Test
     public void itShouldHandleSmallIntegerRanges() {
         assertEquals(integerRange(1, 10).toRegex().toString(), "(?:10|[1-9])");
-        assertEquals(integerRange(1, 100).toRegex().toString(), "(?:100|[1-9][0-9]|[1-9])");
+        assertEquals(integerRange(1, 100).toRegex().toString(), "(?:100|[1-9][0-9]?)");
     }
 
     @Test
     public void itShouldHandlePreciseIntegerCases() {
         assertEquals(integerRange(1, 25675).toRegex().toString(),
                 "(?:2567[0-5]|256[0-6][0-9]|25[0-5][0-9]{2}|2[0-4][0-9]{3}|" +
-                        "1[0-9]{4}|[1-9][0-9]{3}|[1-9][0-9]{2}|[1-9][0-9]|[1-9])"
+                        "1[0-9]{4}|[1-9][0-9]{0,3})"
         );
     }
 
@@ -27,8 +31,7 @@ public final class NumericTest {
     public void itShouldHandleRelativelyLargeIntegers() {
         Expression expression = integerRange(0, 999_999_999); // MAX
         assertEquals(expression.toRegex().toString(),
-                "(?:[1-9][0-9]{8}|[1-9][0-9]{7}|[1-9][0-9]{6}|[1-9][0-9]{5}|[1-9]" +
-                        "[0-9]{4}|[1-9][0-9]{3}|[1-9][0-9]{2}|[1-9][0-9]|[0-9])"
+                "(?:[1-9][0-9]{2,8}|[1-9]?[0-9])"
         );
     }
 
@@ -38,4 +41,82 @@ public final class NumericTest {
                 .toRegex().toString(), "(?:0?(?:1[0-2]|[1-9]))");
     }
 
+    @Test
+    public void itShouldSynthesizeSparseIntegerSets() {
+        assertEquals(integerSet(11, 3, 1, 2, 7, 10).toRegex().toString(), "(?:1[01]|[1-37])");
+        assertEquals(integerSet(0, 5, 9, 99, 100, 1000).toRegex().toString(), "(?:1000?|99?|[05])");
+        assertEquals(integerSet(42, 42).toRegex().toString(), "42");
+    }
+
+    @Test
+    public void itShouldMergeRunsWithHolesIntoDigitClasses() {
+        final int[] values = IntStream.rangeClosed(100, 199)
+                .filter(i -> i != 105 && i != 151).toArray();
+        assertEquals(integerSet(values).toRegex().toString(),
+                "(?:1(?:0[0-46-9]|[1-46-9][0-9]|5[02-9]))");
+    }
+
+    @Test
+    public void itShouldHandleSignedIntegerRanges() {
+        assertEquals(integerRange(-40, 125).toRegex().toString(),
+                "(?:12[0-5]|1[01][0-9]|[5-9][0-9]|4[1-9]|0|-?(?:40|[1-3][0-9]|[1-9]))");
+        assertEquals(integerRange(-25, -3).toRegex().toString(), "(?:-(?:2[0-5]|1[0-9]|[3-9]))");
+        assertEquals(integerRange(-5, 0).toRegex().toString(), "(?:-[1-5]|0)");
+    }
+
+    @Test
+    public void itShouldHandleSignedIntegerSets() {
+        assertEquals(integerSet(-12, -5, 0, 3, 5, 12, 120).toRegex().toString(),
+                "(?:120|[03]|-?(?:12|5))");
+    }
+
+    @Test
+    public void itShouldHandleFixedPointDecimalRanges() {
+        assertEquals(decimalRange(0, 100, 2).toRegex().toString(),
+                "(?:100\\.00|[1-9]?[0-9]\\.[0-9]{2})");
+        assertEquals(decimalRange(0.05, 12.5, 2).toRegex().toString(),
+                "(?:12\\.50|12\\.[0-4][0-9]|1[01]\\.[0-9]{2}|[1-9]\\.[0-9]{2}|0\\.[1-9][0-9]|0\\.0[5-9])");
+        assertEquals(decimalRange(1.5, 1.5, 2).toRegex().toString(), "1\\.50");
+    }
+
+    @Test
+    public void itShouldRejectDecimalBoundsThatDoNotFitTheScale() {
+        assertThrows(NumericRangeException.class, () -> decimalRange(0.125, 1, 2));
+        assertThrows(NumericRangeException.class, () -> decimalRange(1, 0, 2));
+    }
+
+    @Test
+    public void itShouldHandleZeroPaddedFixedWidthRanges() {
+        assertEquals(paddedRange(1, 366, 3).toRegex().toString(),
+                "(?:36[0-6]|3[0-5][0-9]|[12][0-9]{2}|0[1-9][0-9]|00[1-9])");
+        assertEquals(paddedRange(0, 999_999, 6).toRegex().toString(), "(?:[0-9]{6})");
+        assertEquals(paddedRange(120, 4500, 5).toRegex().toString(),
+                "(?:0(?:4500|4[0-4][0-9]{2}|[1-3][0-9]{3}|0[2-9][0-9]{2}|01[2-9][0-9]))");
+        assertEquals(paddedRange(7, 7, 3).toRegex().toString(), "007");
+        assertThrows(NumericRangeException.class, () -> paddedRange(0, 1000, 3));
+    }
+
+    @Test
+    public void itShouldHandleArbitraryRadixRanges() {
+        assertEquals(hexRange(0x0, 0x1F).toRegex().toString(), "(?:1?[0-9a-fA-F])");
+        assertEquals(radixRange(0, 255, 16, 2, DigitCase.UPPERCASE).toRegex().toString(), "(?:[0-9A-F]{2})");
+        assertEquals(radixRange(3, 27, 16, 0, DigitCase.LOWERCASE).toRegex().toString(), "(?:1[0-9ab]|[3-9a-f])");
+        assertEquals(octalRange(0, 0777).toRegex().toString(), "(?:[1-7][0-7]{2}|[1-7]?[0-7])");
+        assertEquals(binaryRange(0, 5).toRegex().toString(), "(?:10[01]|1?[01])");
+    }
+
+    @Test
+    public void itShouldMemoizeSynthesizedIntegerRanges() {
+        clearRangeCache();
+        final String first = integerRange(1, 65535).toRegex().toString();
+        final StringBuilder second = integerRange(1, 65535).toRegex();
+        assertEquals(second.toString(), first);
+        assertEquals(rangeCacheMisses(), 1L);
+        assertEquals(rangeCacheHits(), 1L);
+        // mutating a returned builder must not leak into the cache
+        second.setLength(0);
+        assertEquals(integerRange(1, 65535).toRegex().toString(), first);
+        assertEquals(rangeCacheHits(), 2L);
+    }
+
 }
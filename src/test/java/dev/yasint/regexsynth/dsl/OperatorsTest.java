@@ -16,7 +16,8 @@ public final class OperatorsTest {
         Pattern pattern = new RegexSynth(
                 either(digit(), uppercase(), lowercase())
         ).compile().getPattern();
-        assertEquals(pattern.pattern(), "(?:[0-9]|[A-Z]|[a-z])");
+        assertEquals(either(digit(), uppercase(), lowercase()).toRegex().toString(), "(?:[0-9]|[A-Z]|[a-z])");
+        assertEquals(pattern.pattern(), "[0-9A-Za-z]");
     }
 
     @Test
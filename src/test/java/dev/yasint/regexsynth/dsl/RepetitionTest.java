@@ -17,7 +17,7 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 oneOrMoreTimes(digit())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9])+");
+        assertEquals(expression.pattern(), "[0-9]+");
     }
 
     @Test
@@ -25,18 +25,18 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 zeroOrMoreTimes(digit())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9])*");
+        assertEquals(expression.pattern(), "[0-9]*");
     }
 
     @Test
     public void itShouldAppendExactlyOrMoreTimesQuantifierToExpression() {
         Pattern expression;
         expression = new RegexSynth(exactlyOrMoreTimes(2, digit())).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9]){2,}");
+        assertEquals(expression.pattern(), "[0-9]{2,}");
         expression = new RegexSynth(exactlyOrMoreTimes(0, digit())).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9])*");
+        assertEquals(expression.pattern(), "[0-9]*");
         expression = new RegexSynth(exactlyOrMoreTimes(1, digit())).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9])+");
+        assertEquals(expression.pattern(), "[0-9]+");
     }
 
     @Test
@@ -44,7 +44,7 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 optional(digit())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9])?");
+        assertEquals(expression.pattern(), "[0-9]?");
     }
 
     @Test
@@ -52,7 +52,7 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 exactly(5, digit())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9]){5}");
+        assertEquals(expression.pattern(), "[0-9]{5}");
     }
 
     @Test
@@ -60,7 +60,7 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 between(5, 10, digit())
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9]){5,10}");
+        assertEquals(expression.pattern(), "[0-9]{5,10}");
     }
 
     @Test
@@ -68,7 +68,7 @@ public final class RepetitionTest {
         Pattern expression = new RegexSynth(
                 lazy(between(5, 10, digit()))
         ).compile().getPattern();
-        assertEquals(expression.pattern(), "(?:[0-9]){5,10}?");
+        assertEquals(expression.pattern(), "[0-9]{5,10}?");
     }
 
     // Checking for syntax errors
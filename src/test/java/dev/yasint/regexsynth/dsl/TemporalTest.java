@@ -0,0 +1,76 @@
+package dev.yasint.regexsynth.dsl;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.exceptions.TemporalRangeException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.Temporal.dateRange;
+import static dev.yasint.regexsynth.dsl.Temporal.timeRange;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class TemporalTest {
+
+    @Test
+    public void itShouldSynthesizeDateRangesWithinAYear() {
+        assertEquals(dateRange(LocalDate.of(2012, 3, 15), LocalDate.of(2012, 5, 2), "dd/MM/yyyy")
+                        .toRegex().toString(),
+                "(?:(?:3[01]|2[0-9]|1[5-9])\\/03\\/2012|(?:30|[12][0-9]|0[1-9])\\/04\\/2012|0[12]\\/05\\/2012)");
+    }
+
+    @Test
+    public void itShouldMatchOnlyDatesInTheRange() {
+        final LocalDate from = LocalDate.of(2012, 3, 15), to = LocalDate.of(2024, 11, 2);
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(dateRange(from, to))
+        ).compile().getPattern();
+        for (LocalDate date = from.minusDays(30); !date.isAfter(to.plusDays(30)); date = date.plusDays(1)) {
+            assertEquals(pattern.matches(date.toString()), !date.isBefore(from) && !date.isAfter(to));
+        }
+    }
+
+    @Test
+    public void itShouldOnlyAcceptLeapDaysOnLeapYears() {
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(dateRange(LocalDate.of(1896, 1, 1), LocalDate.of(2104, 12, 31)))
+        ).compile().getPattern();
+        assertTrue(pattern.matches("1896-02-29"));
+        assertTrue(pattern.matches("2000-02-29"));
+        assertFalse(pattern.matches("1900-02-29"));
+        assertFalse(pattern.matches("2100-02-29"));
+        assertFalse(pattern.matches("2023-04-31"));
+        assertFalse(pattern.matches("2023-02-30"));
+        assertFalse(pattern.matches("2023-13-01"));
+    }
+
+    @Test
+    public void itShouldMatchOnlyTimesInTheRange() {
+        final int from = 9 * 3600 + 15 * 60 + 30, to = 17 * 3600 + 30 * 60 + 5;
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(timeRange(LocalTime.ofSecondOfDay(from), LocalTime.ofSecondOfDay(to)))
+        ).compile().getPattern();
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        for (int second = 0; second < 86400; second++) {
+            final String time = LocalTime.ofSecondOfDay(second).format(formatter);
+            assertEquals(pattern.matches(time), second >= from && second <= to);
+        }
+        assertEquals(timeRange(LocalTime.of(9, 15, 30), LocalTime.of(17, 30), "HH:mm").toRegex().toString(),
+                "(?:09:(?:[2-5][0-9]|1[5-9])|1[0-6]:[0-5][0-9]|17:(?:30|[0-2][0-9]))");
+    }
+
+    @Test
+    public void itShouldRejectInvalidFormatsAndBounds() {
+        final LocalDate date = LocalDate.of(2020, 1, 1);
+        assertThrows(TemporalRangeException.class, () -> dateRange(date, date, "yy-MM-dd"));
+        assertThrows(TemporalRangeException.class, () -> dateRange(date, date, "yyyy-MM"));
+        assertThrows(TemporalRangeException.class, () -> dateRange(date, date, "yyyy-MM-dd HH"));
+        assertThrows(TemporalRangeException.class, () -> dateRange(date.plusDays(1), date));
+        assertThrows(TemporalRangeException.class, () -> timeRange(LocalTime.NOON, LocalTime.MIDNIGHT));
+    }
+
+}
@@ -70,9 +70,9 @@ public final class ExampleTest {
                 ITEM_CODE, DELIMITER, ITEM_S_COUNT
         ).compile().getPattern();
 
-        assertEquals(pattern.pattern(), "((?:2020|201[0-9])\\-(?:0?(?:1[0-2]|[1-9]))\\-(?:0?(?:3[01]" +
-                "|[12][0-9]|[1-9]))) ((?:P[AE]|S(?:SE?|O))) ((?:68[0-5][0-9]{2}|6[0-7][0-9]{3}|59[0-9]" +
-                "{3}|58[5-9][0-9]{2}|58499)) ((?:500|[1-4][0-9]{2}))");
+        assertEquals(pattern.pattern(), "((?:2020|201[0-9])\\-0?(?:1[0-2]|[1-9])\\-0?(?:3[01]|[12][0-9]|[" +
+                "1-9])) ((?:P[AE]|S(?:SE?|O))) (68[0-5][0-9]{2}|6[0-7][0-9]{3}|59[0-9]{3}|58[5-9][0-9]{2}" +
+                "|58499) (500|[1-4][0-9]{2})");
 
     }
 
@@ -131,8 +131,8 @@ public final class ExampleTest {
                 )
         ).compile().getPattern();
 
-        assertEquals(expression.pattern(), "^(?:2020|201[2-9])\\-((?:A(?:pr|ug)|Dec|Feb|" +
-                "J(?:an|u[ln])|Ma[ry]|Nov|Oct|Sep))\\-((?:0?(?:3[01]|[12][0-9]|[1-9])))$");
+        assertEquals(expression.pattern(), "^(?:2020|201[2-9])\\-((?:A(?:pr|ug)|Dec|Feb|J(?:an|u[ln])|Ma[" +
+                "ry]|Nov|Oct|Sep))\\-(0?(?:3[01]|[12][0-9]|[1-9]))$");
 
     }
 
@@ -155,9 +155,9 @@ public final class ExampleTest {
                 )
         ).compile().getPattern();
 
-        assertEquals(expression.pattern(), "^(?P<protocol>(?:ftp|https?)):\\/\\/(?P<subDomain>(?:[\\-.0-9A-Za-z])+)" +
-                "\\.(?P<tld>(?:[A-Za-z]){2,4})(?:(?P<port>:(?:6553[0-5]|655[0-2][0-9]|65[0-4][0-9]{2}|6[0-4][0-9]" +
-                "{3}|[1-5][0-9]{4}|[1-9][0-9]{3}|[1-9][0-9]{2}|[1-9][0-9]|[1-9])))?(?:\\/)?(?P<resource>(?:.)*)$");
+        assertEquals(expression.pattern(), "^(?P<protocol>(?:ftp|https?)):\\/\\/(?P<subDomain>[\\-.0-9A-Z" +
+                "a-z]+)\\.(?P<tld>[A-Za-z]{2,4})(?P<port>:(?:6553[0-5]|655[0-2][0-9]|65[0-4][0-9]{2}|6[0-" +
+                "4][0-9]{3}|[1-5][0-9]{4}|[1-9][0-9]{0,3}))?\\/?(?P<resource>.*)$");
 
     }
 
@@ -1,6 +1,9 @@
 package dev.yasint.regexsynth.performance;
 
+import com.google.re2j.Pattern;
 import dev.yasint.regexsynth.api.Expression;
+import dev.yasint.regexsynth.api.RegexSynth;
+import dev.yasint.regexsynth.api.RegexSynthSet;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -8,12 +11,19 @@ import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
+import static dev.yasint.regexsynth.dsl.CharClasses.Posix.word;
 import static dev.yasint.regexsynth.dsl.CharClasses.rangedSet;
+import static dev.yasint.regexsynth.dsl.Groups.captureGroup;
+import static dev.yasint.regexsynth.dsl.Groups.namedCaptureGroup;
+import static dev.yasint.regexsynth.dsl.Literals.literal;
 import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
 import static dev.yasint.regexsynth.dsl.Operators.either;
+import static dev.yasint.regexsynth.dsl.Repetition.oneOrMoreTimes;
 
 public class PerfTest {
 
@@ -110,4 +120,91 @@ public class PerfTest {
 
     }
 
+    @Test
+    public void perfTestCaptureGroupMinimization() {
+
+        // a log line with six capturing groups where the caller only
+        // needs the level. compiled three ways and matched with find()
+        // alone, so the variants only differ by the captures tracked
+        final Expression[] line = {
+                captureGroup(integerRange(1, 31)), literal("/"), captureGroup(integerRange(1, 12)),
+                literal(" "), captureGroup(integerRange(0, 23)), literal(":"), captureGroup(integerRange(0, 59)),
+                literal(" "), namedCaptureGroup("level", either("INFO", "WARN", "ERROR")),
+                literal(" "), captureGroup(oneOrMoreTimes(word()))
+        };
+        final List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            inputs.add("host-" + i + " " + (i % 28 + 1) + "/" + (i % 12 + 1) + " " + (i % 24) + ":" + (i % 60)
+                    + " " + (i % 3 == 0 ? "WARN" : "INFO") + " request_" + i + " served");
+
+        final Pattern all = new RegexSynth(line).compile().getPattern();
+        final Pattern level = new RegexSynth(line).compile(Collections.singleton("level")).getPattern();
+        final Pattern none = new RegexSynth(line).compileMatchOnly().getPattern();
+
+        log();
+        for (int round = 0; round < 2; round++) { // the first round warms up the jit
+            log("All groups (ms): ", String.valueOf(timeMatches(all, inputs)));
+            log("Read groups only (ms): ", String.valueOf(timeMatches(level, inputs)));
+            log("Boolean only (ms): ", String.valueOf(timeMatches(none, inputs)));
+        }
+        log();
+
+    }
+
+    @Test
+    public void perfTestPatternSetMatching() {
+
+        // 500 rules matched against 1000 log lines. one find() per rule
+        // and line against a single scan of each line by the set
+        final List<RegexSynth> rules = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            rules.add(new RegexSynth(literal("svc" + i + " "), either("INFO", "WARN", "ERROR"),
+                    literal(" code="), integerRange(i, i + 50)));
+        final List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            inputs.add("2019-07-22 svc" + (i % 700) + " " + (i % 3 == 0 ? "WARN" : "INFO") + " code=" + (i % 600)
+                    + " request_" + i + " served in " + (i % 97) + "ms");
+
+        final List<Pattern> patterns = new ArrayList<>();
+        final RegexSynthSet set = new RegexSynthSet();
+        for (final RegexSynth rule : rules) {
+            patterns.add(rule.compile().getPattern());
+            set.add(rule);
+        }
+        set.compile();
+
+        log();
+        for (int round = 0; round < 2; round++) { // the first round warms up the jit and the dfa
+            long startTime = System.currentTimeMillis();
+            int separate = 0;
+            for (final String input : inputs)
+                for (final Pattern pattern : patterns)
+                    if (pattern.matcher(input).find()) separate++;
+            log("Separate patterns (ms): ", String.valueOf(System.currentTimeMillis() - startTime));
+            startTime = System.currentTimeMillis();
+            int together = 0;
+            for (final String input : inputs) {
+                final BitSet matches = set.match(input);
+                together += matches.cardinality();
+            }
+            log("Pattern set (ms): ", String.valueOf(System.currentTimeMillis() - startTime));
+            if (separate != together) throw new AssertionError("unexpected number of matches");
+        }
+        log();
+
+    }
+
+    private static long timeMatches(final Pattern pattern, final List<String> inputs) {
+        long startTime = System.currentTimeMillis();
+        int matched = 0;
+        for (int i = 0; i < 200; i++) {
+            for (final String input : inputs) {
+                if (pattern.matcher(input).find()) matched++;
+            }
+        }
+        long stopTime = System.currentTimeMillis();
+        if (matched != 200 * inputs.size()) throw new AssertionError("unexpected number of matches");
+        return stopTime - startTime;
+    }
+
 }
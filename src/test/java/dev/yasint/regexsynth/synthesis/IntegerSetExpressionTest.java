@@ -0,0 +1,49 @@
+package dev.yasint.regexsynth.synthesis;
+
+import com.google.re2j.Pattern;
+import dev.yasint.regexsynth.api.RegexSynth;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.Numeric.integerSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class IntegerSetExpressionTest {
+
+    @Test
+    public void itShouldMatchOnlyTheSetMembers() {
+        final Random random = new Random(26);
+        final Set<Integer> members = new HashSet<>();
+        while (members.size() < 2000) members.add(random.nextInt(20000) - 10000);
+        final int[] values = members.stream().mapToInt(Integer::intValue).toArray();
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(integerSet(values))
+        ).compile().getPattern();
+        for (int i = -10000; i <= 10000; i++) {
+            assertEquals(pattern.matches(String.valueOf(i)), members.contains(i));
+        }
+    }
+
+    @Test
+    public void itShouldHandleLargeLongValues() {
+        final long[] values = {Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE - 7, 0L};
+        final Pattern pattern = new RegexSynth(
+                exactLineMatch(integerSet(values))
+        ).compile().getPattern();
+        for (long value : values) {
+            assertEquals(pattern.matches(String.valueOf(value)), true);
+        }
+        assertEquals(pattern.matches(String.valueOf(Long.MAX_VALUE - 2)), false);
+    }
+
+    @Test
+    public void itShouldPadFixedWidthSets() {
+        final IntegerSetExpression months = new IntegerSetExpression(new long[]{1, 3, 5, 7, 8, 10, 12}, 2);
+        assertEquals(months.toRegex().toString(), "0[13578]|1[02]");
+    }
+
+}
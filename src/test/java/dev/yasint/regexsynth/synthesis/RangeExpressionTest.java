@@ -4,7 +4,12 @@ import com.google.re2j.Pattern;
 import dev.yasint.regexsynth.api.RegexSynth;
 import org.junit.jupiter.api.Test;
 
-import static dev.yasint.regexsynth.dsl.Numeric.integerRange;
+import java.math.BigDecimal;
+
+import static dev.yasint.regexsynth.dsl.Anchors.exactLineMatch;
+import static dev.yasint.regexsynth.dsl.Numeric.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class RangeExpressionTest {
@@ -20,4 +25,67 @@ public final class RangeExpressionTest {
         }
     }
 
+    @Test
+    public void itShouldMatchSignedRanges() {
+        int start = -1234, end = 567;
+        Pattern expression = new RegexSynth(
+                exactLineMatch(integerRange(start, end))
+        ).compile().getPattern();
+        for (int i = start - 100; i <= end + 100; i++) {
+            assertEquals(expression.matches(String.valueOf(i)), i >= start && i <= end);
+        }
+        assertFalse(expression.matches("-0"));
+    }
+
+    @Test
+    public void itShouldMatchFullIntegerRange() {
+        Pattern expression = new RegexSynth(
+                exactLineMatch(integerRange(Integer.MIN_VALUE, Integer.MAX_VALUE))
+        ).compile().getPattern();
+        assertTrue(expression.matches(String.valueOf(Integer.MIN_VALUE)));
+        assertTrue(expression.matches(String.valueOf(Integer.MAX_VALUE)));
+        assertTrue(expression.matches("0"));
+        assertFalse(expression.matches(String.valueOf(Integer.MIN_VALUE - 1L)));
+        assertFalse(expression.matches(String.valueOf(Integer.MAX_VALUE + 1L)));
+    }
+
+    @Test
+    public void itShouldMatchDecimalRanges() {
+        Pattern expression = new RegexSynth(
+                exactLineMatch(decimalRange(-12.5, 40.25, 2))
+        ).compile().getPattern();
+        for (int i = -2000; i <= 5000; i++) {
+            final String value = BigDecimal.valueOf(i, 2).toPlainString();
+            assertEquals(expression.matches(value), i >= -1250 && i <= 4025);
+        }
+        assertFalse(expression.matches("5.5"));
+        assertFalse(expression.matches("-0.00"));
+        assertFalse(expression.matches(".50"));
+    }
+
+    @Test
+    public void itShouldMatchFixedWidthRanges() {
+        Pattern expression = new RegexSynth(
+                exactLineMatch(paddedRange(-45, 1234, 5))
+        ).compile().getPattern();
+        for (int i = -1000; i <= 2000; i++) {
+            final String padded = String.format("%05d", Math.abs(i));
+            assertEquals(expression.matches((i < 0 ? "-" : "") + padded), i >= -45 && i <= 1234);
+            if (i != 0) assertFalse(expression.matches(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void itShouldMatchHexRanges() {
+        int start = 0xD7F0, end = 0x10FFFF;
+        Pattern expression = new RegexSynth(
+                exactLineMatch(hexRange(start, end))
+        ).compile().getPattern();
+        for (int i = 0xD000; i <= 0x110100; i += 7) {
+            final boolean inRange = i >= start && i <= end;
+            assertEquals(expression.matches(Integer.toHexString(i)), inRange);
+            assertEquals(expression.matches(Integer.toHexString(i).toUpperCase()), inRange);
+        }
+    }
+
 }
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import static dev.yasint.regexsynth.dsl.CharClasses.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class SetExpressionTest {
 
@@ -98,4 +99,27 @@ public final class SetExpressionTest {
         assertEquals(expression.pattern(), "[\\-.\\P{Sinhala}]");
     }
 
+    @Test
+    public void itShouldNotModifyTheOperands() {
+        final Expression letters = rangedSet("a", "f");
+        final Expression vowels = simpleSet("a", "e");
+        assertEquals(negated(letters).toRegex().toString(), "[^a-f]");
+        assertEquals(difference(letters, vowels).toRegex().toString(), "[b-df]");
+        assertEquals(union(vowels, simpleSet("i")).toRegex().toString(), "[aei]");
+        assertEquals(intersection(letters, vowels).toRegex().toString(), "[ae]");
+        assertEquals(letters.toRegex().toString(), "[a-f]");
+        assertEquals(vowels.toRegex().toString(), "[ae]");
+    }
+
+    @Test
+    public void itShouldRejectModificationsWhenFrozen() {
+        final SetExpression set = (SetExpression) rangedSet("a", "f");
+        assertThrows(IllegalStateException.class, () -> set.addChar('z'));
+        assertThrows(IllegalStateException.class, set::negate);
+        final SetExpression copy = SetExpression.copyOf(set);
+        copy.addChar('z');
+        assertEquals(copy.toRegex().toString(), "[a-fz]");
+        assertEquals(set.toRegex().toString(), "[a-f]");
+    }
+
 }
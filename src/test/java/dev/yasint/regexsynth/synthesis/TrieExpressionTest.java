@@ -2,7 +2,14 @@ package dev.yasint.regexsynth.synthesis;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class TrieExpressionTest {
 
@@ -15,4 +22,32 @@ public final class TrieExpressionTest {
         assertEquals(trieExpression.toRegex().toString(), "App(?:eal|l(?:ication|e))");
     }
 
+    @Test
+    public void shouldSynthesizeSameStringOnEveryInvocation() {
+        TrieExpression trieExpression = new TrieExpression();
+        trieExpression.insert("jun");
+        trieExpression.insert("jul");
+        trieExpression.insert("may");
+        assertEquals(trieExpression.toRegex().toString(), "(?:ju[ln]|may)");
+        assertEquals(trieExpression.toRegex().toString(), "(?:ju[ln]|may)");
+    }
+
+    @Test
+    public void shouldSynthesizeConcurrentlyWithoutModifyingTheTrie() throws Exception {
+        TrieExpression trieExpression = new TrieExpression();
+        for (int i = 0; i < 500; i++) trieExpression.insert("word" + i);
+        final String expected = trieExpression.toRegex().toString();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) results.add(executor.submit(() -> trieExpression.toRegex().toString()));
+            for (final Future<String> result : results) assertEquals(result.get(), expected);
+        } finally {
+            executor.shutdown();
+        }
+        trieExpression.freeze();
+        assertEquals(trieExpression.toRegex().toString(), expected);
+        assertThrows(IllegalStateException.class, () -> trieExpression.insert("word"));
+    }
+
 }
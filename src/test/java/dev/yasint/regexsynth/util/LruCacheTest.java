@@ -0,0 +1,51 @@
+package dev.yasint.regexsynth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LruCacheTest {
+
+    @Test
+    public void itShouldEvictTheLeastRecentlyUsedEntry() {
+        final LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+        cache.get(1, String::valueOf); // 2 is now the eldest
+        cache.get(3, String::valueOf);
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.evictions(), 1L);
+        final AtomicInteger computed = new AtomicInteger();
+        cache.get(1, k -> "" + computed.incrementAndGet());
+        cache.get(2, k -> "" + computed.incrementAndGet());
+        assertEquals(computed.get(), 1); // only 2 was recomputed
+        assertEquals(cache.hits(), 2L);
+        assertEquals(cache.misses(), 4L);
+    }
+
+    @Test
+    public void itShouldBeSafeToShareBetweenThreads() {
+        final LruCache<Integer, String> cache = new LruCache<>(64);
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            final int key = i % 128;
+            assertEquals(cache.get(key, String::valueOf), String.valueOf(key));
+        });
+        assertEquals(cache.size(), 64);
+        assertEquals(cache.hits() + cache.misses(), 10_000L);
+    }
+
+    @Test
+    public void itShouldResetOnClear() {
+        final LruCache<Integer, String> cache = new LruCache<>(4);
+        cache.get(1, String::valueOf);
+        cache.clear();
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.misses(), 0L);
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<Integer, String>(0));
+    }
+
+}